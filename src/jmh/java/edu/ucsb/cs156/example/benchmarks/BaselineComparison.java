@@ -0,0 +1,80 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH result file with a baseline recorded earlier, and exits with status 1 if any
+ * benchmark got slower by more than a threshold. Throughput ({@code thrpt}) results regress when
+ * they go down; all other modes report time per operation and regress when they go up.
+ *
+ * <p>Usage: {@code BaselineComparison baseline.json result.json [thresholdPercent]}. The threshold
+ * defaults to 30 percent, above the run-to-run noise of the default {@code -f 1 -wi 3 -i 5} runs;
+ * see docs/benchmarks.md.
+ */
+public class BaselineComparison {
+
+  private record Score(String mode, String unit, double score) {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: BaselineComparison baseline.json result.json [thresholdPercent]");
+      System.exit(2);
+    }
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 30;
+    Map<String, Score> baseline = read(new File(args[0]));
+    Map<String, Score> result = read(new File(args[1]));
+
+    int regressions = 0;
+    for (Map.Entry<String, Score> entry : result.entrySet()) {
+      Score now = entry.getValue();
+      Score before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.printf("%-90s %14s %14.3f %s  (new)%n", entry.getKey(), "", now.score, now.unit);
+        continue;
+      }
+      double change = (now.score - before.score) / before.score * 100;
+      boolean worse = now.mode.equals("thrpt") ? change < -threshold : change > threshold;
+      if (worse) {
+        regressions++;
+      }
+      System.out.printf(
+          "%-90s %14.3f %14.3f %s %+7.1f%%%s%n",
+          entry.getKey(),
+          before.score,
+          now.score,
+          now.unit,
+          change,
+          worse ? "  REGRESSION" : "");
+    }
+    System.out.printf("%d regression(s) over %.1f%%%n", regressions, threshold);
+    if (regressions > 0) {
+      System.exit(1);
+    }
+  }
+
+  // keyed by benchmark name plus its parameters, so the same benchmark run with different
+  // parameters is compared like for like
+  private static Map<String, Score> read(File file) throws IOException {
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (JsonNode run : new ObjectMapper().readTree(file)) {
+      StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+      Map<String, String> params = new TreeMap<>();
+      run.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+      params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+      JsonNode metric = run.path("primaryMetric");
+      scores.put(
+          key.toString(),
+          new Score(
+              run.path("mode").asText(),
+              metric.path("scoreUnit").asText(),
+              metric.path("score").asDouble()));
+    }
+    return scores;
+  }
+}
@@ -0,0 +1,104 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminStatusService;
+import edu.ucsb.cs156.example.services.CurrentUserServiceImpl;
+import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * {@code CurrentUserServiceImpl.getCurrentUser()} as called by {@code /api/currentUser}, once per
+ * request: for a logged in user, who is kept in the session at login, and for an anonymous visitor.
+ * Neither queries the repository.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CurrentUserBenchmark {
+
+  @Param({"oauth2", "anonymous"})
+  String authentication;
+
+  private CurrentUserServiceImpl service;
+
+  private MockHttpSession session;
+
+  @Setup
+  public void setup() {
+    User user = User.builder().id(1L).email("cgaucho@ucsb.edu").emailVerified(true).build();
+    // stub only, so the mock does not keep every call for verification
+    UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+    when(userRepository.upsertOnPostgres(any())).thenReturn(user);
+
+    AdminStatusService adminStatusService = new AdminStatusService();
+    adminStatusService.setAdminEmails(List.of("admingaucho@ucsb.edu"));
+    ReflectionTestUtils.setField(adminStatusService, "userRepository", userRepository);
+
+    service = new CurrentUserServiceImpl();
+    ReflectionTestUtils.setField(service, "userRepository", userRepository);
+    ReflectionTestUtils.setField(
+        service, "grantedAuthoritiesService", new GrantedAuthoritiesService());
+    ReflectionTestUtils.setField(service, "adminStatusService", adminStatusService);
+
+    List<SimpleGrantedAuthority> roles =
+        List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_MEMBER"));
+    session = new MockHttpSession();
+    if (authentication.equals("oauth2")) {
+      DefaultOAuth2User principal =
+          new DefaultOAuth2User(
+              roles,
+              Map.of("sub", "1", "email", "cgaucho@ucsb.edu", "email_verified", true),
+              "sub");
+      SecurityContextHolder.getContext()
+          .setAuthentication(new OAuth2AuthenticationToken(principal, roles, "google"));
+      session.setAttribute(CurrentUserServiceImpl.class.getName() + ".user", user);
+    } else {
+      SecurityContextHolder.getContext()
+          .setAuthentication(
+              new AnonymousAuthenticationToken(
+                  "key", "anonymousUser", List.of(new SimpleGrantedAuthority("ROLE_ANONYMOUS"))));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public CurrentUser getCurrentUser() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currentUser");
+    request.setSession(session);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    return service.getCurrentUser();
+  }
+}
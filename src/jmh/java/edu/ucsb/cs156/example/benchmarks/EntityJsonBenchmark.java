@@ -0,0 +1,171 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReviews;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.entities.User;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serializing the list each {@code /all} endpoint returns, with an ObjectMapper configured the way
+ * Spring Boot configures the app's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityJsonBenchmark {
+
+  private static final LocalDateTime WHEN = LocalDateTime.parse("2022-01-03T00:00:00");
+
+  @Param({
+    "Articles",
+    "HelpRequest",
+    "MenuItemReviews",
+    "RecommendationRequest",
+    "Restaurant",
+    "UCSBDate",
+    "UCSBDiningCommons",
+    "UCSBDiningCommonsMenuItem",
+    "UCSBOrganization",
+    "User"
+  })
+  String entity;
+
+  @Param({"10", "1000"})
+  int size;
+
+  private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private List<Object> entities;
+
+  @Setup
+  public void setup() {
+    LongFunction<Object> factory =
+        switch (entity) {
+          case "Articles" ->
+              i ->
+                  Articles.builder()
+                      .id(i)
+                      .title("Article " + i)
+                      .url("https://www.ucsb.edu/news/" + i)
+                      .explanation("An article about something that happened at UCSB")
+                      .email("reporter@ucsb.edu")
+                      .dateAdded(WHEN)
+                      .build();
+          case "HelpRequest" ->
+              i ->
+                  HelpRequest.builder()
+                      .id(i)
+                      .requesterEmail("student@ucsb.edu")
+                      .teamId("s22-5pm-" + (i % 4))
+                      .tableOrBreakoutRoom("" + (i % 10))
+                      .requestTime(WHEN)
+                      .explanation("Need help with the backend tests")
+                      .solved(i % 2 == 0)
+                      .build();
+          case "MenuItemReviews" ->
+              i ->
+                  MenuItemReviews.builder()
+                      .id(i)
+                      .itemId(i % 50)
+                      .reviewerEmail("diner@ucsb.edu")
+                      .stars((int) (i % 5) + 1)
+                      .dateReviewed(WHEN)
+                      .comments("Pretty good, would eat again")
+                      .build();
+          case "RecommendationRequest" ->
+              i ->
+                  RecommendationRequest.builder()
+                      .id(i)
+                      .requesterEmail("student@ucsb.edu")
+                      .professorEmail("professor@ucsb.edu")
+                      .explanation("Applying to graduate school")
+                      .dateRequested(WHEN)
+                      .dateNeeded(WHEN.plusDays(30))
+                      .done(false)
+                      .build();
+          case "Restaurant" ->
+              i -> Restaurant.builder().id(i).name("Restaurant " + i).description("Tacos").build();
+          case "UCSBDate" ->
+              i ->
+                  UCSBDate.builder()
+                      .id(i)
+                      .quarterYYYYQ("20221")
+                      .name("Day " + i)
+                      .localDateTime(WHEN)
+                      .build();
+          case "UCSBDiningCommons" ->
+              i ->
+                  UCSBDiningCommons.builder()
+                      .code("dc" + i)
+                      .name("Dining Commons " + i)
+                      .hasSackMeal(true)
+                      .hasTakeOutMeal(false)
+                      .hasDiningCam(true)
+                      .latitude(34.409953)
+                      .longitude(-119.85277)
+                      .build();
+          case "UCSBDiningCommonsMenuItem" ->
+              i ->
+                  UCSBDiningCommonsMenuItem.builder()
+                      .id(i)
+                      .diningCommonsCode("ortega")
+                      .name("Menu item " + i)
+                      .station("Entrees")
+                      .build();
+          case "UCSBOrganization" ->
+              i ->
+                  UCSBOrganization.builder()
+                      .orgCode("ORG" + i)
+                      .orgTranslationShort("Org " + i)
+                      .orgTranslation("Student Organization " + i)
+                      .inactive(false)
+                      .build();
+          case "User" ->
+              i ->
+                  User.builder()
+                      .id(i)
+                      .email("user" + i + "@ucsb.edu")
+                      .googleSub("sub" + i)
+                      .pictureUrl("https://example.com/picture.png")
+                      .fullName("Chris Gaucho")
+                      .givenName("Chris")
+                      .familyName("Gaucho")
+                      .emailVerified(true)
+                      .locale("en")
+                      .hostedDomain("ucsb.edu")
+                      .admin(false)
+                      .build();
+          default -> throw new IllegalArgumentException(entity);
+        };
+    entities = new ArrayList<>(size);
+    for (long i = 1; i <= size; i++) {
+      entities.add(factory.apply(i));
+    }
+  }
+
+  @Benchmark
+  public byte[] serialize() throws Exception {
+    return mapper.writeValueAsBytes(entities);
+  }
+}
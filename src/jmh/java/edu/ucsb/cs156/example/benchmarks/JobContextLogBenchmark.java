@@ -0,0 +1,51 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import edu.ucsb.cs156.example.entities.Job;
+import edu.ucsb.cs156.example.services.jobs.JobContext;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Appending one line to a job log that already has {@code lines} lines. The log is a single string
+ * that is copied on every append, so the cost should grow with the size of the log.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JobContextLogBenchmark {
+
+  @Param({"10", "100", "1000", "10000"})
+  int lines;
+
+  private String existingLog;
+  private Job job;
+  private JobContext context;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    existingLog = String.join("\n", java.util.Collections.nCopies(lines, "processed item 12345"));
+    job = Job.builder().id(1L).status("running").build();
+    // no repository: measure building the log, not saving it
+    context = new JobContext(null, job);
+  }
+
+  // the log grows with every call; start each call from the same size
+  @Setup(Level.Invocation)
+  public void resetLog() {
+    job.setLog(existingLog);
+  }
+
+  @Benchmark
+  public Job log() {
+    context.log("processed item 12346");
+    return job;
+  }
+}
@@ -0,0 +1,76 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import edu.ucsb.cs156.example.aop.LoggingAspect;
+import edu.ucsb.cs156.example.services.metrics.HandlerMetricsService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * What LoggingAspect adds to a controller call: {@link #direct()} calls a trivial handler, {@link
+ * #advised()} calls it through the aspect. {@code sampleRate} 0 only records metrics; 1 also logs
+ * every call (to a no-op appender, see logback-test.xml), 100 logs one call in a hundred.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingAspectBenchmark {
+
+  /** A stand-in for a controller. */
+  public static class Handler {
+    @GetMapping("/api/ping")
+    public String ping() {
+      return "pong";
+    }
+  }
+
+  @Param({"0", "1", "100"})
+  int sampleRate;
+
+  private Handler direct;
+  private Handler advised;
+
+  @Setup
+  public void setup() {
+    LoggingAspect aspect = new LoggingAspect();
+    ReflectionTestUtils.setField(aspect, "handlerMetricsService", new HandlerMetricsService());
+    ReflectionTestUtils.setField(aspect, "sampleRate", sampleRate);
+
+    direct = new Handler();
+    AspectJProxyFactory factory = new AspectJProxyFactory(new Handler());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(aspect);
+    advised = factory.getProxy();
+
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/ping")));
+  }
+
+  @TearDown
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public String direct() {
+    return direct.ping();
+  }
+
+  @Benchmark
+  public String advised() {
+    return advised.ping();
+  }
+}
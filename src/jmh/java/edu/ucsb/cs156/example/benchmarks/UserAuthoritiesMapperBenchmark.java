@@ -0,0 +1,66 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import static org.mockito.Mockito.mock;
+
+import edu.ucsb.cs156.example.config.SecurityConfig;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminStatusService;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * The authorities mapper that runs once per OAuth2 login: for a configured admin, for a UCSB user
+ * whose (non-)admin flag is cached, and for a user from outside UCSB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserAuthoritiesMapperBenchmark {
+
+  @Param({"admingaucho@ucsb.edu", "cgaucho@ucsb.edu", "visitor@gmail.com"})
+  String email;
+
+  private GrantedAuthoritiesMapper mapper;
+  private Collection<GrantedAuthority> authorities;
+
+  @Setup
+  public void setup() {
+    AdminStatusService adminStatusService = new AdminStatusService();
+    adminStatusService.setAdminEmails(List.of("admingaucho@ucsb.edu"));
+    // findByEmail answers Optional.empty(), which the service then caches
+    ReflectionTestUtils.setField(
+        adminStatusService, "userRepository", mock(UserRepository.class));
+
+    SecurityConfig securityConfig = new SecurityConfig();
+    ReflectionTestUtils.setField(securityConfig, "adminStatusService", adminStatusService);
+    mapper = ReflectionTestUtils.invokeMethod(securityConfig, "userAuthoritiesMapper");
+
+    authorities =
+        List.of(
+            new OAuth2UserAuthority(
+                Map.of("sub", "1", "email", email, "email_verified", true, "name", "Chris")),
+            new SimpleGrantedAuthority("SCOPE_openid"),
+            new SimpleGrantedAuthority("SCOPE_email"),
+            new SimpleGrantedAuthority("SCOPE_profile"));
+  }
+
+  @Benchmark
+  public Collection<? extends GrantedAuthority> mapAuthorities() {
+    return mapper.mapAuthorities(authorities);
+  }
+}
@@ -2,7 +2,6 @@ package edu.ucsb.cs156.example;
 
 import edu.ucsb.cs156.example.services.wiremock.WiremockService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -10,6 +9,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.web.config.EnableSpringDataWebSupport;
+import org.springframework.data.web.config.EnableSpringDataWebSupport.PageSerializationMode;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
@@ -18,17 +19,19 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @Slf4j
 @EnableAsync // for @Async annotation for JobsService
 @EnableScheduling // for @Scheduled annotation for JobsService
+@EnableSpringDataWebSupport(
+    pageSerializationMode = PageSerializationMode.VIA_DTO) // stable JSON for paged endpoints
 public class ExampleApplication {
 
-  @Autowired WiremockService wiremockService;
-
   /**
    * When using the wiremock profile, this method will call the code needed to set up the wiremock
    * services
+   *
+   * @param wiremockService the service to set up
    */
   @Profile("wiremock")
   @Bean
-  public ApplicationRunner wiremockApplicationRunner() {
+  public ApplicationRunner wiremockApplicationRunner(WiremockService wiremockService) {
     return arg -> {
       log.info("wiremock mode");
       wiremockService.init();
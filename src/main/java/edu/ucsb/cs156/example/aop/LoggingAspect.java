@@ -1,21 +1,41 @@
 package edu.ucsb.cs156.example.aop;
 
+import edu.ucsb.cs156.example.services.metrics.HandlerMetricsService;
+import edu.ucsb.cs156.example.services.metrics.SqlStatementCounter;
 import jakarta.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 
 /**
- * This class is an Aspect that logs all invocations of controller methods that are annotated with
+ * This class is an Aspect that times all invocations of controller methods that are annotated with
  * {@code @RequestMapping}, {@code @GetMapping}, {@code @PostMapping}, {@code @PutMapping},
- * {@code @DeleteMapping}, or {@code @PatchMapping}.
+ * {@code @DeleteMapping}, or {@code @PatchMapping}, records them in the {@link
+ * HandlerMetricsService} together with the SQL statements they ran, and logs them.
+ *
+ * <p>Only one in {@code app.logging.sampleRate} calls is logged (every call by default; 0 turns
+ * logging off), and nothing is formatted unless INFO logging is enabled for this class.
  *
  * <p>For more information on Aspect Oriented Programming (AOP) and AspectJ, including what a {@code
  * JoinPoint} is, refer to <a
@@ -40,29 +60,127 @@ public class LoggingAspect {
       new ArrayList<String>(
           Arrays.asList("edu.ucsb.cs156.example.controllers.FrontendProxyController"));
 
+  @Autowired private HandlerMetricsService handlerMetricsService;
+
+  @Value("${app.logging.sampleRate:1}")
+  private int sampleRate = 1;
+
+  private final AtomicLong calls = new AtomicLong();
+
+  // the status a handler method returns when it completes normally, unless it returns a
+  // ResponseEntity
+  private final Map<Method, Integer> declaredStatus = new ConcurrentHashMap<>();
+
+  private final Map<Class<?>, ExceptionHandlerMethodResolver> exceptionResolvers =
+      new ConcurrentHashMap<>();
+
   /**
-   * This method is called before any controller method that is annotated with
-   * {@code @RequestMapping}, {@code @GetMapping}, {@code @PostMapping}, {@code @PutMapping},
-   * {@code @DeleteMapping}, or {@code @PatchMapping}.
+   * This method wraps any controller method that is annotated with {@code @RequestMapping},
+   * {@code @GetMapping}, {@code @PostMapping}, {@code @PutMapping}, {@code @DeleteMapping}, or
+   * {@code @PatchMapping}.
    *
    * @param joinPoint the join point (injected by Spring framework)
+   * @return whatever the controller method returns
+   * @throws Throwable whatever the controller method throws
    */
-  @Before(pointcut)
-  public void logControllers(JoinPoint joinPoint) {
-    getCurrentHttpRequest()
-        .ifPresent(
-            request -> {
-              String declaringTypeName = joinPoint.getSignature().getDeclaringTypeName();
-              if (!stoplist.contains(declaringTypeName)) {
-                log.info(
-                    "===== %s %s handled by %s in %s"
-                        .formatted(
-                            request.getMethod(),
-                            request.getRequestURI(),
-                            joinPoint.getSignature().getName(),
-                            declaringTypeName));
-              }
-            });
+  @Around(pointcut)
+  public Object logControllers(ProceedingJoinPoint joinPoint) throws Throwable {
+    MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+    if (stoplist.contains(signature.getDeclaringTypeName())) {
+      return joinPoint.proceed();
+    }
+    Method method = signature.getMethod();
+    long statements = SqlStatementCounter.statements();
+    long dbNanos = SqlStatementCounter.nanos();
+    SqlStatementCounter.resetRepeats();
+    long start = System.nanoTime();
+    Object result;
+    try {
+      result = joinPoint.proceed();
+    } catch (Throwable t) {
+      record(signature, start, statements, dbNanos, statusOf(t, joinPoint.getTarget().getClass()));
+      throw t;
+    }
+    HandlerMetricsService.Handler handler =
+        record(signature, start, statements, dbNanos, statusOf(result, method));
+    // after recording, and outside any finally block, so that it can't change the response
+    handlerMetricsService.checkSqlBudget(
+        handler,
+        SqlStatementCounter.statements() - statements,
+        SqlStatementCounter.longestRepeat());
+    return result;
+  }
+
+  /** Records one call of a handler that started at {@code start}, and logs it if sampled. */
+  private HandlerMetricsService.Handler record(
+      MethodSignature signature, long start, long statements, long dbNanos, int status) {
+    long micros = (System.nanoTime() - start) / 1000;
+    Method method = signature.getMethod();
+    HandlerMetricsService.Handler handler =
+        handlerMetricsService.handler(method, LoggingAspect::handlerName);
+    handler.record(micros, status);
+    long sqlStatements = SqlStatementCounter.statements() - statements;
+    handler.recordSql(sqlStatements, (SqlStatementCounter.nanos() - dbNanos) / 1000);
+    if (log.isInfoEnabled() && sampled()) {
+      getCurrentHttpRequest()
+          .ifPresent(
+              request ->
+                  log.info(
+                      "===== {} {} handled by {} in {} ({} µs, {} SQL, status {})",
+                      request.getMethod(),
+                      request.getRequestURI(),
+                      method.getName(),
+                      signature.getDeclaringTypeName(),
+                      micros,
+                      sqlStatements,
+                      status));
+    }
+    return handler;
+  }
+
+  private boolean sampled() {
+    return sampleRate > 0 && calls.getAndIncrement() % sampleRate == 0;
+  }
+
+  private static String handlerName(Object method) {
+    Method m = (Method) method;
+    return m.getDeclaringClass().getSimpleName() + "." + m.getName();
+  }
+
+  private int statusOf(Object result, Method method) {
+    if (result instanceof ResponseEntity<?> entity) {
+      return entity.getStatusCode().value();
+    }
+    return declaredStatus.computeIfAbsent(method, LoggingAspect::responseStatus);
+  }
+
+  private static int responseStatus(Method method) {
+    ResponseStatus annotation =
+        AnnotatedElementUtils.findMergedAnnotation(method, ResponseStatus.class);
+    return annotation == null ? 200 : annotation.code().value();
+  }
+
+  /** The status Spring MVC turns an exception from a handler in the given controller into. */
+  private int statusOf(Throwable error, Class<?> controller) {
+    if (error instanceof ErrorResponse response) {
+      return response.getStatusCode().value();
+    }
+    if (error instanceof AccessDeniedException || error instanceof AuthenticationException) {
+      // see the Http403ForbiddenEntryPoint in SecurityConfig
+      return 403;
+    }
+    if (error instanceof Exception exception) {
+      Method handler =
+          exceptionResolvers
+              .computeIfAbsent(controller, ExceptionHandlerMethodResolver::new)
+              .resolveMethod(exception);
+      if (handler != null) {
+        return responseStatus(handler);
+      }
+    }
+    ResponseStatus annotation =
+        AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+    return annotation == null ? 500 : annotation.code().value();
   }
 
   /**
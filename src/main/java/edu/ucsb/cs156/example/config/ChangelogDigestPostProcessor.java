@@ -0,0 +1,186 @@
+package edu.ucsb.cs156.example.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Skips Liquibase when the changelog has not changed since it last ran against this database.
+ *
+ * <p>Even when there is nothing to do, Liquibase lists, parses and checksums every changeset and
+ * takes the changelog lock at every start. Instead, this computes a SHA-256 digest of every file in
+ * the master changelog's directory and below (which holds everything it includes), and of the
+ * settings that choose which changesets run. If it matches the digest recorded in the {@value
+ * #TABLE} table, Liquibase is told not to run. Otherwise Liquibase runs as usual and, if it
+ * succeeds, the new digest is recorded.
+ *
+ * <p>Anything unexpected (the table does not exist yet, a file can't be read, {@code dropFirst} is
+ * set) means Liquibase runs as usual. Delete the row to force a full run.
+ */
+@Slf4j
+public class ChangelogDigestPostProcessor implements BeanPostProcessor {
+
+  /** the table the digests are recorded in, created by ChangelogDigest.json */
+  public static final String TABLE = "CHANGELOG_DIGEST";
+
+  private final boolean enabled;
+  private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+  public ChangelogDigestPostProcessor(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) {
+    if (!enabled
+        || !(bean instanceof SpringLiquibase liquibase)
+        || liquibase.isDropFirst()
+        || liquibase.isClearCheckSums()
+        || liquibase.isTestRollbackOnUpdate()) {
+      return bean;
+    }
+    String digest;
+    try {
+      digest = digest(liquibase);
+    } catch (IOException e) {
+      log.warn(
+          "Could not compute the digest of {}, running Liquibase", liquibase.getChangeLog(), e);
+      return bean;
+    }
+    if (digest.equals(recordedDigest(liquibase))) {
+      log.info("{} is unchanged (digest {}), skipping Liquibase", liquibase.getChangeLog(), digest);
+      liquibase.setShouldRun(false);
+    } else {
+      pending.put(beanName, digest);
+    }
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    String digest = pending.remove(beanName);
+    if (digest != null) {
+      record((SpringLiquibase) bean, digest);
+    }
+    return bean;
+  }
+
+  /**
+   * Computes the digest of a changelog: its settings, then the path and contents of every file in
+   * the master changelog's directory and below, in order of path.
+   *
+   * @param liquibase the Liquibase bean
+   * @return the digest, in hex
+   * @throws IOException if a file can't be read
+   */
+  static String digest(SpringLiquibase liquibase) throws IOException {
+    MessageDigest digest = sha256();
+    String settings =
+        String.join(
+            "\n",
+            Objects.toString(liquibase.getChangeLog()),
+            Objects.toString(liquibase.getContexts()),
+            Objects.toString(liquibase.getLabelFilter()),
+            Objects.toString(liquibase.getTag()),
+            Objects.toString(liquibase.getDefaultSchema()));
+    digest.update(settings.getBytes(StandardCharsets.UTF_8));
+
+    String directory = directory(liquibase.getChangeLog());
+    ResourceLoader resourceLoader = liquibase.getResourceLoader();
+    ResourcePatternResolver resolver =
+        ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+    List<Resource> files =
+        Arrays.stream(resolver.getResources("classpath*:" + directory + "**"))
+            .filter(Resource::isReadable)
+            .sorted(Comparator.comparing(resource -> path(resource, directory)))
+            .toList();
+    for (Resource file : files) {
+      digest.update(("\n" + path(file, directory) + "\n").getBytes(StandardCharsets.UTF_8));
+      try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+        StreamUtils.drain(in);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /** the directory of the master changelog, e.g. db/migration/ */
+  static String directory(String changeLog) {
+    String path = changeLog.replaceFirst("^classpath\\*?:", "").replaceFirst("^/", "");
+    return path.substring(0, path.lastIndexOf('/') + 1);
+  }
+
+  /** the path of a file from the changelog directory on, the same in a jar or a directory */
+  private static String path(Resource resource, String directory) {
+    try {
+      String uri = resource.getURI().toString();
+      int start = uri.lastIndexOf(directory);
+      return start < 0 ? uri : uri.substring(start);
+    } catch (IOException e) {
+      return resource.getDescription();
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String recordedDigest(SpringLiquibase liquibase) {
+    try {
+      return new JdbcTemplate(liquibase.getDataSource())
+              .queryForList(
+                  "SELECT DIGEST FROM " + TABLE + " WHERE CHANGE_LOG = ?",
+                  String.class,
+                  liquibase.getChangeLog())
+              .stream()
+              .findFirst()
+              .orElse(null);
+    } catch (DataAccessException e) {
+      log.info("No digest recorded for {}: {}", liquibase.getChangeLog(), e.getMessage());
+      return null;
+    }
+  }
+
+  private static void record(SpringLiquibase liquibase, String digest) {
+    try {
+      JdbcTemplate jdbcTemplate = new JdbcTemplate(liquibase.getDataSource());
+      int updated =
+          jdbcTemplate.update(
+              "UPDATE " + TABLE + " SET DIGEST = ? WHERE CHANGE_LOG = ?",
+              digest,
+              liquibase.getChangeLog());
+      if (updated == 0) {
+        jdbcTemplate.update(
+            "INSERT INTO " + TABLE + " (CHANGE_LOG, DIGEST) VALUES (?, ?)",
+            liquibase.getChangeLog(),
+            digest);
+      }
+      log.info("Recorded digest {} for {}", digest, liquibase.getChangeLog());
+    } catch (DataAccessException e) {
+      log.warn("Could not record the digest of {}", liquibase.getChangeLog(), e);
+    }
+  }
+}
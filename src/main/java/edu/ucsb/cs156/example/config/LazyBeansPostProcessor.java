@@ -0,0 +1,82 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.Lifecycle;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * Marks beans as lazy, so that they are created when first used instead of at startup. A bean is
+ * marked if its class, or the class that declares its {@code @Bean} method, starts with one of the
+ * given prefixes, e.g. {@code org.springdoc} or {@code edu.ucsb.cs156.example.services.wiremock}.
+ *
+ * <p>Only worth it for beans that are rarely used, such as the OpenAPI documentation; the first
+ * request that needs a lazy bean pays for creating it. Infrastructure beans are never marked, and
+ * neither are beans that do their work at startup ({@link InitializingBean}, {@link
+ * ApplicationListener} and the like): nothing may ever ask for them, so a lazy one would never run.
+ * springdoc's {@code SpringDocUIConfiguration}, which tells the Swagger UI which webjar version to
+ * serve, is one of these.
+ */
+@Slf4j
+public class LazyBeansPostProcessor implements BeanFactoryPostProcessor {
+
+  private static final List<Class<?>> STARTUP_CALLBACKS =
+      List.of(
+          InitializingBean.class,
+          SmartInitializingSingleton.class,
+          ApplicationListener.class,
+          Lifecycle.class);
+
+  private final List<String> prefixes;
+
+  public LazyBeansPostProcessor(List<String> prefixes) {
+    this.prefixes = prefixes;
+  }
+
+  @Override
+  public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    if (prefixes.isEmpty()) {
+      return;
+    }
+    // with AOT the definitions were marked at build time, so they are lazy already
+    int lazy = 0;
+    for (String name : beanFactory.getBeanDefinitionNames()) {
+      BeanDefinition definition = beanFactory.getBeanDefinition(name);
+      if (definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE
+          && matches(definition)
+          && (definition.isLazyInit() || !runsAtStartup(beanFactory.getType(name, false)))) {
+        definition.setLazyInit(true);
+        lazy++;
+      }
+    }
+    log.info("{} beans matching {} will be created on first use", lazy, prefixes);
+  }
+
+  private boolean matches(BeanDefinition definition) {
+    if (matches(definition.getBeanClassName())) {
+      return true;
+    }
+    if (definition instanceof AnnotatedBeanDefinition annotated) {
+      MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+      return factoryMethod != null
+          && (matches(factoryMethod.getDeclaringClassName())
+              || matches(factoryMethod.getReturnTypeName()));
+    }
+    return false;
+  }
+
+  private static boolean runsAtStartup(Class<?> type) {
+    return type != null && STARTUP_CALLBACKS.stream().anyMatch(c -> c.isAssignableFrom(type));
+  }
+
+  private boolean matches(String className) {
+    return className != null && prefixes.stream().anyMatch(className::startsWith);
+  }
+}
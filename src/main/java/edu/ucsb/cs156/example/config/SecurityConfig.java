@@ -2,10 +2,11 @@ package edu.ucsb.cs156.example.config;
 
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
-import edu.ucsb.cs156.example.entities.User;
-import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminStatusService;
+import edu.ucsb.cs156.example.services.CurrentUserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -13,7 +14,6 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +21,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -30,9 +33,12 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.oauth2.client.web.HttpSessionOAuth2AuthorizedClientRepository;
 import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.Http403ForbiddenEntryPoint;
+import org.springframework.security.web.authentication.SavedRequestAwareAuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.csrf.CsrfToken;
@@ -40,8 +46,11 @@ import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
 import org.springframework.security.web.csrf.CsrfTokenRequestHandler;
 import org.springframework.security.web.csrf.XorCsrfTokenRequestAttributeHandler;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
 
 /**
  * The `SecurityConfig` class in Java configures web security with OAuth2 login, CSRF protection,
@@ -53,10 +62,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Slf4j
 public class SecurityConfig {
 
-  @Value("${app.admin.emails}")
-  private final List<String> adminEmails = new ArrayList<>();
+  @Autowired AdminStatusService adminStatusService;
 
-  @Autowired UserRepository userRepository;
+  @Autowired CurrentUserService currentUserService;
+
+  @Value("${app.csrf.skipTokenPaths:}")
+  List<String> skipTokenPaths = List.of();
 
   /**
    * The `filterChain` method in this Java code configures various security settings for an HTTP
@@ -72,13 +83,18 @@ public class SecurityConfig {
             handling -> handling.authenticationEntryPoint(new Http403ForbiddenEntryPoint()))
         .oauth2Login(
             oauth2 ->
-                oauth2.userInfoEndpoint(
-                    userInfo -> userInfo.userAuthoritiesMapper(this.userAuthoritiesMapper())))
+                oauth2
+                    .userInfoEndpoint(
+                        userInfo -> userInfo.userAuthoritiesMapper(this.userAuthoritiesMapper()))
+                    // keep authorized clients in the session (not in memory) so that they are
+                    // shared along with it when app.session.store is jdbc
+                    .authorizedClientRepository(new HttpSessionOAuth2AuthorizedClientRepository())
+                    .successHandler(this.loginSuccessHandler()))
         .csrf(
             csrf ->
                 csrf.csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
                     .csrfTokenRequestHandler(new SpaCsrfTokenRequestHandler()))
-        .addFilterAfter(new CsrfCookieFilter(), BasicAuthenticationFilter.class)
+        .addFilterAfter(new CsrfCookieFilter(skipTokenPaths), BasicAuthenticationFilter.class)
         .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
         .logout(
             logout ->
@@ -97,6 +113,17 @@ public class SecurityConfig {
     return web -> web.ignoring().requestMatchers(antMatcher("/h2-console/**"));
   }
 
+  /**
+   * Stores the user once, when they log in, and then redirects as Spring Security normally would.
+   */
+  private AuthenticationSuccessHandler loginSuccessHandler() {
+    AuthenticationSuccessHandler redirect = new SavedRequestAwareAuthenticationSuccessHandler();
+    return (request, response, authentication) -> {
+      currentUserService.login(request, authentication);
+      redirect.onAuthenticationSuccess(request, response, authentication);
+    };
+  }
+
   private GrantedAuthoritiesMapper userAuthoritiesMapper() {
     return (authorities) -> {
       Set<GrantedAuthority> mappedAuthorities = new HashSet<>();
@@ -129,17 +156,13 @@ public class SecurityConfig {
 
   /**
    * This method checks if the given email belongs to an admin user either from a predefined list or
-   * by querying the user repository.
+   * from the (cached) admin flag in the user repository.
    *
    * @param email email address of the user
    * @return whether the user with the given email is an admin
    */
   public boolean getAdmin(String email) {
-    if (adminEmails.contains(email)) {
-      return true;
-    }
-    Optional<User> u = userRepository.findByEmail(email);
-    return u.isPresent() && u.get().getAdmin();
+    return adminStatusService.isAdmin(email);
   }
 
   @Bean
@@ -188,15 +211,59 @@ final class SpaCsrfTokenRequestHandler extends CsrfTokenRequestAttributeHandler
   }
 }
 
+/**
+ * Makes sure the browser has an XSRF-TOKEN cookie, without generating and masking a token on every
+ * request.
+ *
+ * <p>The token is rendered for HTML page loads (which bootstrap the SPA) and for any request that
+ * arrives without the cookie. Everything else already has a valid cookie, so there is nothing to
+ * do. GET and HEAD requests to the path groups in {@code app.csrf.skipTokenPaths} (for example
+ * {@code /api/**}) never render the token.
+ */
 final class CsrfCookieFilter extends OncePerRequestFilter {
 
+  /** the cookie name used by {@link CookieCsrfTokenRepository} */
+  static final String COOKIE_NAME = "XSRF-TOKEN";
+
+  private final RequestMatcher skipRendering;
+
+  CsrfCookieFilter(List<String> skipTokenPaths) {
+    List<RequestMatcher> matchers = new ArrayList<>();
+    for (String pattern : skipTokenPaths) {
+      matchers.add(antMatcher(HttpMethod.GET, pattern));
+      matchers.add(antMatcher(HttpMethod.HEAD, pattern));
+    }
+    this.skipRendering = matchers.isEmpty() ? request -> false : new OrRequestMatcher(matchers);
+  }
+
   @Override
   protected void doFilterInternal(
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
-    CsrfToken csrfToken = (CsrfToken) request.getAttribute("_csrf");
-    // Render the token value to a cookie by causing the deferred token to be loaded
-    csrfToken.getToken();
+    if (shouldRender(request)) {
+      CsrfToken csrfToken = (CsrfToken) request.getAttribute("_csrf");
+      // Render the token value to a cookie by causing the deferred token to be loaded
+      csrfToken.getToken();
+    }
     filterChain.doFilter(request, response);
   }
+
+  boolean shouldRender(HttpServletRequest request) {
+    if (skipRendering.matches(request)) {
+      return false;
+    }
+    return isPageLoad(request) || !hasCookie(request);
+  }
+
+  private static boolean isPageLoad(HttpServletRequest request) {
+    String accept = request.getHeader(HttpHeaders.ACCEPT);
+    return HttpMethod.GET.matches(request.getMethod())
+        && accept != null
+        && accept.contains(MediaType.TEXT_HTML_VALUE);
+  }
+
+  private static boolean hasCookie(HttpServletRequest request) {
+    Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+    return cookie != null && StringUtils.hasText(cookie.getValue());
+  }
 }
@@ -0,0 +1,135 @@
+package edu.ucsb.cs156.example.config;
+
+import edu.ucsb.cs156.example.services.sessions.LastAccessThrottlingSessionRepository;
+import edu.ucsb.cs156.example.services.sessions.SessionAttributeCodec;
+import jakarta.servlet.DispatcherType;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.DelegatingFilterProxyRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+import org.springframework.session.web.context.AbstractHttpSessionApplicationInitializer;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+
+/**
+ * The `SessionConfig` class chooses where HTTP sessions are stored, based on the {@code
+ * app.session.store} property: {@code container} (the default) leaves sessions to the servlet
+ * container, {@code memory} keeps them in this instance with Spring Session's {@link
+ * MapSessionRepository}, and {@code jdbc} keeps them in the database with spring-session-jdbc, so
+ * that every instance of the app shares them. The tables are created by the Sessions changesets.
+ * The database store deflates large attributes and records a session's last access time at most
+ * once every app.session.lastAccessWriteInterval, so a request that only reads its session doesn't
+ * write to the database.
+ *
+ * <p>Spring Boot's own session auto-configuration is excluded in application.properties, since it
+ * would store sessions in the database whenever spring-session-jdbc is on the classpath.
+ */
+@Configuration
+public class SessionConfig {
+
+  /** Sessions stored in the database, in SPRING_SESSION and SPRING_SESSION_ATTRIBUTES. */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc")
+  @EnableJdbcHttpSession
+  static class JdbcSessions {
+
+    /**
+     * Expires sessions after server.servlet.session.timeout, as the container would.
+     *
+     * @param timeout how long a session may be idle before it expires
+     * @return the customizer
+     */
+    @Bean
+    SessionRepositoryCustomizer<JdbcIndexedSessionRepository> sessionTimeout(
+        @Value("${server.servlet.session.timeout:30m}") Duration timeout) {
+      return repository -> repository.setDefaultMaxInactiveInterval(timeout);
+    }
+
+    /**
+     * Stores session attributes with {@link SessionAttributeCodec}, which deflates large values
+     * such as the SecurityContext. Attributes are only deserialized when they are read.
+     *
+     * @param resourceLoader gives the class loader to load deserialized classes with
+     * @return the conversion service spring-session-jdbc uses for attributes
+     */
+    @Bean
+    GenericConversionService springSessionConversionService(ResourceLoader resourceLoader) {
+      SessionAttributeCodec codec = new SessionAttributeCodec(resourceLoader.getClassLoader());
+      GenericConversionService conversionService = new GenericConversionService();
+      conversionService.addConverter(Object.class, byte[].class, new SerializingConverter(codec));
+      conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(codec));
+      return conversionService;
+    }
+
+    /**
+     * Records the last access time of a session at most once every
+     * app.session.lastAccessWriteInterval, so that requests that only read the session don't update
+     * its row. Spring Session's filter uses this repository, which stores the sessions with the
+     * JdbcIndexedSessionRepository.
+     *
+     * @param repository the repository that stores the sessions
+     * @param interval how often to record the last access time of a session
+     * @return the repository
+     */
+    @Bean
+    @Primary
+    LastAccessThrottlingSessionRepository<?> lastAccessThrottlingSessionRepository(
+        JdbcIndexedSessionRepository repository,
+        @Value("${app.session.lastAccessWriteInterval:1m}") Duration interval) {
+      return new LastAccessThrottlingSessionRepository<>(repository, interval);
+    }
+  }
+
+  /** Sessions stored in this instance; a stand-in for the database store in tests. */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnProperty(name = "app.session.store", havingValue = "memory")
+  @EnableSpringHttpSession
+  static class MemorySessions {
+
+    /**
+     * Keeps sessions in a map, expiring them after server.servlet.session.timeout.
+     *
+     * @param timeout how long a session may be idle before it expires
+     * @return the repository
+     */
+    @Bean
+    MapSessionRepository sessionRepository(
+        @Value("${server.servlet.session.timeout:30m}") Duration timeout) {
+      MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+      repository.setDefaultMaxInactiveInterval(timeout);
+      return repository;
+    }
+  }
+
+  /**
+   * Registers Spring Session's filter before Spring Security, so that the security context is
+   * stored in its sessions, for async and error dispatches as well as requests.
+   *
+   * @return the filter registration
+   */
+  @Bean
+  @ConditionalOnExpression("'${app.session.store:container}' != 'container'")
+  public DelegatingFilterProxyRegistrationBean sessionRepositoryFilterRegistration() {
+    DelegatingFilterProxyRegistrationBean registration =
+        new DelegatingFilterProxyRegistrationBean(
+            AbstractHttpSessionApplicationInitializer.DEFAULT_FILTER_NAME);
+    registration.setOrder(SessionRepositoryFilter.DEFAULT_ORDER);
+    registration.setDispatcherTypes(
+        EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR));
+    return registration;
+  }
+}
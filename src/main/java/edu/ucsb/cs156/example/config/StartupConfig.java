@@ -0,0 +1,45 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.Arrays;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+/**
+ * The `StartupConfig` class holds settings that only affect how fast the app starts. See
+ * docs/startup.md.
+ */
+@Configuration
+public class StartupConfig {
+
+  /**
+   * Makes the beans named by the {@code app.startup.lazyBeans} property lazy; static so that it
+   * runs before any other bean is created.
+   *
+   * @param environment the environment holding the property
+   * @return the post processor
+   */
+  @Bean
+  public static LazyBeansPostProcessor lazyBeansPostProcessor(Environment environment) {
+    String prefixes = environment.getProperty("app.startup.lazyBeans", "");
+    return new LazyBeansPostProcessor(
+        Arrays.stream(StringUtils.commaDelimitedListToStringArray(prefixes))
+            .map(String::trim)
+            .filter(prefix -> !prefix.isEmpty())
+            .toList());
+  }
+
+  /**
+   * Skips Liquibase when the changelog has not changed since it last ran, unless {@code
+   * app.startup.skipUnchangedChangelog} is false.
+   *
+   * @param environment the environment holding the property
+   * @return the post processor
+   */
+  @Bean
+  public static ChangelogDigestPostProcessor changelogDigestPostProcessor(Environment environment) {
+    return new ChangelogDigestPostProcessor(
+        environment.getProperty("app.startup.skipUnchangedChangelog", Boolean.class, true));
+  }
+}
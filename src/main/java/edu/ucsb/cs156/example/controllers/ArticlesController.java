@@ -2,15 +2,22 @@ package edu.ucsb.cs156.example.controllers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.errors.DuplicateEntityException;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.services.ArticlesIngestService;
+import edu.ucsb.cs156.example.services.ArticlesIngestService.OnConflict;
+import edu.ucsb.cs156.example.services.ArticlesSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -31,6 +38,10 @@ public class ArticlesController extends ApiController {
 
   @Autowired ArticlesRepository articlesRepository;
 
+  @Autowired ArticlesSearchService articlesSearchService;
+
+  @Autowired ArticlesIngestService articlesIngestService;
+
   /**
    * List all Articles
    *
@@ -44,6 +55,27 @@ public class ArticlesController extends ApiController {
     return articles;
   }
 
+  /**
+   * Search the title and explanation of all articles
+   *
+   * @param q the query; quote phrases ("taco bell") and end a word with * for a prefix match
+   * @param limit the maximum number of results
+   * @return the matching articles, best match first
+   */
+  @Operation(summary = "Search articles by title and explanation")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/search")
+  public List<Articles> searchArticles(
+      @Parameter(
+              name = "q",
+              description =
+                  "all words must match; quote phrases, e.g. \"taco bell\", and use a trailing * for prefixes, e.g. mex*")
+          @RequestParam
+          String q,
+      @Parameter(name = "limit") @RequestParam(defaultValue = "20") int limit) {
+    return articlesSearchService.search(q, limit);
+  }
+
   /**
    * Create a new article
    *
@@ -52,9 +84,11 @@ public class ArticlesController extends ApiController {
    * @param explanation the explanation of the article
    * @param email the email of the user who added the article
    * @param dateAdded the date the article was added
+   * @param onConflict what to do if an article with the same url exists: SKIP returns it unchanged,
+   *     UPDATE overwrites it with these values
    * @return the saved article
    */
-  @Operation(summary = "Create a new article")
+  @Operation(summary = "Create a new article, or resolve a duplicate url per onConflict")
   @PreAuthorize("hasRole('ROLE_ADMIN')")
   @PostMapping("/post")
   public Articles postArticles(
@@ -68,7 +102,13 @@ public class ArticlesController extends ApiController {
                   "date (in iso format, e.g. YYYY-mm-ddTHH:MM:SS; see https://en.wikipedia.org/wiki/ISO_8601)")
           @RequestParam("dateAdded")
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
-          LocalDateTime dateAdded)
+          LocalDateTime dateAdded,
+      @Parameter(
+              name = "onConflict",
+              description =
+                  "what to do if an article with the same url already exists: SKIP returns it unchanged, UPDATE overwrites it")
+          @RequestParam(defaultValue = "SKIP")
+          OnConflict onConflict)
       throws JsonProcessingException {
     log.info("dateAdded={}", dateAdded);
 
@@ -79,7 +119,8 @@ public class ArticlesController extends ApiController {
     article.setEmail(email);
     article.setDateAdded(dateAdded);
 
-    Articles savedArticle = articlesRepository.save(article);
+    Articles savedArticle = articlesIngestService.ingest(article, onConflict);
+    articlesSearchService.index(savedArticle);
 
     return savedArticle;
   }
@@ -108,6 +149,7 @@ public class ArticlesController extends ApiController {
    * @param id id of the article to update
    * @param incoming the new article
    * @return the updated article object
+   * @throws DuplicateEntityException if another article already has the same (normalized) url
    */
   @Operation(summary = "Update a single article")
   @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -120,13 +162,28 @@ public class ArticlesController extends ApiController {
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException(Articles.class, id));
 
+    String urlHash = ArticlesIngestService.urlHash(incoming.getUrl());
+    // without a url there is no hash to compare; legacy duplicates are left with a null hash too
+    Optional<Articles> sameUrl =
+        urlHash == null ? Optional.empty() : articlesRepository.findByUrlHash(urlHash);
+    if (sameUrl.isPresent() && sameUrl.get().getId() != id) {
+      throw new DuplicateEntityException(Articles.class, "url", incoming.getUrl());
+    }
+
     article.setTitle(incoming.getTitle());
     article.setUrl(incoming.getUrl());
     article.setExplanation(incoming.getExplanation());
     article.setEmail(incoming.getEmail());
     article.setDateAdded(incoming.getDateAdded());
+    article.setUrlHash(urlHash);
 
-    articlesRepository.save(article);
+    try {
+      articlesRepository.save(article);
+    } catch (DataIntegrityViolationException e) {
+      // another request gave an article this url between our lookup and our update
+      throw new DuplicateEntityException(Articles.class, "url", incoming.getUrl());
+    }
+    articlesSearchService.index(article);
 
     return article;
   }
@@ -147,6 +204,7 @@ public class ArticlesController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(Articles.class, id));
 
     articlesRepository.delete(article);
+    articlesSearchService.remove(id);
     return genericMessage("Articles with id %s deleted".formatted(id));
   }
 }
@@ -0,0 +1,52 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.models.HandlerLatency;
+import edu.ucsb.cs156.example.services.metrics.HandlerMetricsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This is a REST controller for the per-endpoint latency statistics collected by the LoggingAspect.
+ *
+ * @see edu.ucsb.cs156.example.services.metrics.HandlerMetricsService
+ */
+@Tag(name = "Handler metrics (admin only)")
+@RequestMapping("/api/admin/metrics")
+@RestController
+public class HandlerMetricsController extends ApiController {
+
+  @Autowired private HandlerMetricsService handlerMetricsService;
+
+  /**
+   * This method returns request counts, latency percentiles and status counts for every controller
+   * method that has been called since the app started (or since the last reset).
+   *
+   * @return one entry per controller method, busiest first
+   */
+  @Operation(summary = "Get latency percentiles and status counts for each endpoint")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @GetMapping("/handlers")
+  public List<HandlerLatency> handlers() {
+    return handlerMetricsService.snapshot();
+  }
+
+  /**
+   * This method clears the statistics, e.g. before a load test.
+   *
+   * @return a message saying the statistics were reset
+   */
+  @Operation(summary = "Reset the endpoint statistics")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @DeleteMapping("/handlers")
+  public Object reset() {
+    handlerMetricsService.reset();
+    return genericMessage("handler metrics reset");
+  }
+}
@@ -3,7 +3,9 @@ package edu.ucsb.cs156.example.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.ucsb.cs156.example.entities.HelpRequest;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.HelpRequestStats;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.services.HelpRequestEventsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +14,7 @@ import java.time.LocalDateTime;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /** This is a REST controller for HelpRequest */
 @Tag(name = "HelpRequests")
@@ -31,6 +35,8 @@ public class HelpRequestController extends ApiController {
 
   @Autowired HelpRequestRepository helpRequestRepository;
 
+  @Autowired HelpRequestEventsService helpRequestEventsService;
+
   /**
    * List all HelpRequests
    *
@@ -44,6 +50,48 @@ public class HelpRequestController extends ApiController {
     return helprequests;
   }
 
+  /**
+   * List the queue of unsolved HelpRequests, oldest first
+   *
+   * @return an iterable of unsolved HelpRequest
+   */
+  @Operation(summary = "List unsolved help requests, oldest first")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/queue")
+  public Iterable<HelpRequest> helpRequestQueue() {
+    return helpRequestRepository.findAllBySolvedFalseOrderByRequestTimeAsc();
+  }
+
+  /**
+   * Subscribe to changes to the queue of unsolved HelpRequests as server-sent events
+   *
+   * @return an emitter that sends the current queue, then one event per change
+   */
+  @Operation(
+      summary =
+          "Stream the help request queue: a 'queue' snapshot, then insert, update, solve and delete events")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping(value = "/queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter helpRequestQueueStream() {
+    return helpRequestEventsService.subscribe(
+        helpRequestRepository.findAllBySolvedFalseOrderByRequestTimeAsc());
+  }
+
+  /**
+   * Count the unsolved HelpRequests per team and per table/breakout room
+   *
+   * @return the open count and oldest request time of each team and each room
+   */
+  @Operation(summary = "Count unsolved help requests per team and per table/breakout room")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/stats")
+  public HelpRequestStats helpRequestStats() {
+    return HelpRequestStats.builder()
+        .byTeam(helpRequestRepository.countUnsolvedByTeam())
+        .byRoom(helpRequestRepository.countUnsolvedByRoom())
+        .build();
+  }
+
   /**
    * Get a single helprequest by id
    *
@@ -104,6 +152,7 @@ public class HelpRequestController extends ApiController {
     helpRequest.setExplanation(explanation);
     helpRequest.setSolved(solved);
     HelpRequest savedHelpRequest = helpRequestRepository.save(helpRequest);
+    helpRequestEventsService.publish("insert", savedHelpRequest);
 
     return savedHelpRequest;
   }
@@ -126,6 +175,7 @@ public class HelpRequestController extends ApiController {
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
 
+    boolean wasSolved = existing.getSolved();
     existing.setRequesterEmail(incoming.getRequesterEmail());
     existing.setTeamId(incoming.getTeamId());
     existing.setTableOrBreakoutRoom(incoming.getTableOrBreakoutRoom());
@@ -134,6 +184,8 @@ public class HelpRequestController extends ApiController {
     existing.setSolved(incoming.getSolved());
 
     helpRequestRepository.save(existing);
+    helpRequestEventsService.publish(
+        !wasSolved && existing.getSolved() ? "solve" : "update", existing);
     return existing;
   }
 
@@ -153,6 +205,7 @@ public class HelpRequestController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
 
     helpRequestRepository.delete(helpRequest);
+    helpRequestEventsService.publish("delete", helpRequest);
     return genericMessage("HelpRequest with id %s deleted".formatted(id));
   }
 }
@@ -3,13 +3,18 @@ package edu.ucsb.cs156.example.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.ucsb.cs156.example.entities.Job;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.jobs.TestJob;
+import edu.ucsb.cs156.example.jobs.UCSBDiningCommonsMenuSnapshotJob;
 import edu.ucsb.cs156.example.repositories.JobsRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuService;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuSnapshotService;
 import edu.ucsb.cs156.example.services.jobs.JobService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +23,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -33,6 +39,10 @@ public class JobsController extends ApiController {
 
   @Autowired ObjectMapper mapper;
 
+  @Autowired private UCSBDiningCommonsMenuSnapshotService menuSnapshotService;
+
+  @Autowired private UCSBDiningCommonsMenuService menuService;
+
   @Operation(summary = "List all jobs")
   @PreAuthorize("hasRole('ROLE_ADMIN')")
   @GetMapping("/all")
@@ -84,6 +94,25 @@ public class JobsController extends ApiController {
     return jobService.runAsJob(testJob);
   }
 
+  @Operation(
+      summary =
+          "Launch Menu Snapshot Job (replaces one commons' menu with the posted items; only name and station are used)")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @PostMapping("/launch/menusnapshot")
+  public Job launchMenuSnapshotJob(
+      @Parameter(name = "diningCommonsCode") @RequestParam String diningCommonsCode,
+      @RequestBody List<UCSBDiningCommonsMenuItem> items) {
+
+    UCSBDiningCommonsMenuSnapshotJob menuSnapshotJob =
+        UCSBDiningCommonsMenuSnapshotJob.builder()
+            .diningCommonsCode(diningCommonsCode)
+            .items(items)
+            .snapshotService(menuSnapshotService)
+            .menuService(menuService)
+            .build();
+    return jobService.runAsJob(menuSnapshotJob);
+  }
+
   @Operation(summary = "Get long job logs")
   @PreAuthorize("hasRole('ROLE_ADMIN')")
   @GetMapping("/logs/{id}")
@@ -11,6 +11,9 @@ import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -62,6 +65,47 @@ public class MenuItemReviewsController extends ApiController {
     return review;
   }
 
+  /**
+   * List one page of the reviews for a menu item, newest first
+   *
+   * @param itemId the id of the menu item
+   * @param page the page number (0-based)
+   * @param pageSize the number of reviews per page
+   * @return a page of MenuItemReviews
+   */
+  @Operation(summary = "List the reviews for a menu item, newest first, one page at a time")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/byItem")
+  public Page<MenuItemReviews> reviewsByItem(
+      @Parameter(name = "itemId") @RequestParam long itemId,
+      @Parameter(name = "page") @RequestParam(defaultValue = "0") int page,
+      @Parameter(name = "pageSize") @RequestParam(defaultValue = "10") int pageSize) {
+    return menuItemReviewsRepository.findByItemId(itemId, newestFirst(page, pageSize));
+  }
+
+  /**
+   * List one page of the reviews written by a reviewer, newest first
+   *
+   * @param reviewerEmail the email of the reviewer
+   * @param page the page number (0-based)
+   * @param pageSize the number of reviews per page
+   * @return a page of MenuItemReviews
+   */
+  @Operation(summary = "List the reviews written by a reviewer, newest first, one page at a time")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/byReviewer")
+  public Page<MenuItemReviews> reviewsByReviewer(
+      @Parameter(name = "reviewerEmail") @RequestParam String reviewerEmail,
+      @Parameter(name = "page") @RequestParam(defaultValue = "0") int page,
+      @Parameter(name = "pageSize") @RequestParam(defaultValue = "10") int pageSize) {
+    return menuItemReviewsRepository.findByReviewerEmail(
+        reviewerEmail, newestFirst(page, pageSize));
+  }
+
+  private static PageRequest newestFirst(int page, int pageSize) {
+    return PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "dateReviewed"));
+  }
+
   /**
    * Create a new review
    *
@@ -3,14 +3,20 @@ package edu.ucsb.cs156.example.controllers;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.ProfessorRequestCounts;
 import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -44,6 +50,114 @@ public class RecommendationRequestController extends ApiController {
     return reqs;
   }
 
+  /**
+   * List Recommendation Requests needed before a date, soonest first
+   *
+   * @param before the date the requests are needed before
+   * @param done whether to list done or open requests
+   * @return an iterable of Recommendation Requests
+   */
+  @Operation(summary = "List Recommendation Requests needed before a date, soonest first")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/dueBefore")
+  public Iterable<RecommendationRequest> dueBefore(
+      @Parameter(
+              name = "before",
+              description =
+                  "date (in iso format, e.g. YYYY-mm-ddTHH:MM:SSZ; see https://en.wikipedia.org/wiki/ISO_8601)")
+          @RequestParam("before")
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime before,
+      @Parameter(name = "done") @RequestParam(defaultValue = "false") boolean done) {
+    return recReqRepository.findByDoneAndDateNeededBeforeOrderByDateNeededAsc(done, before);
+  }
+
+  /**
+   * List Recommendation Requests needed between two dates, soonest first
+   *
+   * @param from the earliest date needed (inclusive)
+   * @param to the latest date needed (inclusive)
+   * @param done whether to list done or open requests
+   * @return an iterable of Recommendation Requests
+   */
+  @Operation(summary = "List Recommendation Requests needed between two dates, soonest first")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/dueBetween")
+  public Iterable<RecommendationRequest> dueBetween(
+      @Parameter(
+              name = "from",
+              description =
+                  "date (in iso format, e.g. YYYY-mm-ddTHH:MM:SSZ; see https://en.wikipedia.org/wiki/ISO_8601)")
+          @RequestParam("from")
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @Parameter(
+              name = "to",
+              description =
+                  "date (in iso format, e.g. YYYY-mm-ddTHH:MM:SSZ; see https://en.wikipedia.org/wiki/ISO_8601)")
+          @RequestParam("to")
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @Parameter(name = "done") @RequestParam(defaultValue = "false") boolean done) {
+    return recReqRepository.findByDoneAndDateNeededBetweenOrderByDateNeededAsc(done, from, to);
+  }
+
+  /**
+   * List one page of the Recommendation Requests sent to a professor, soonest needed first
+   *
+   * @param professorEmail the email of the professor
+   * @param page the page number (0-based)
+   * @param pageSize the number of requests per page
+   * @return a page of Recommendation Requests
+   */
+  @Operation(
+      summary =
+          "List the Recommendation Requests sent to a professor, soonest needed first, one page at a time")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/byProfessor")
+  public Page<RecommendationRequest> byProfessor(
+      @Parameter(name = "professorEmail") @RequestParam String professorEmail,
+      @Parameter(name = "page") @RequestParam(defaultValue = "0") int page,
+      @Parameter(name = "pageSize") @RequestParam(defaultValue = "10") int pageSize) {
+    return recReqRepository.findByProfessorEmail(professorEmail, soonestFirst(page, pageSize));
+  }
+
+  /**
+   * List one page of the Recommendation Requests made by a requester, soonest needed first
+   *
+   * @param requesterEmail the email of the requester
+   * @param page the page number (0-based)
+   * @param pageSize the number of requests per page
+   * @return a page of Recommendation Requests
+   */
+  @Operation(
+      summary =
+          "List the Recommendation Requests made by a requester, soonest needed first, one page at a time")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/byRequester")
+  public Page<RecommendationRequest> byRequester(
+      @Parameter(name = "requesterEmail") @RequestParam String requesterEmail,
+      @Parameter(name = "page") @RequestParam(defaultValue = "0") int page,
+      @Parameter(name = "pageSize") @RequestParam(defaultValue = "10") int pageSize) {
+    return recReqRepository.findByRequesterEmail(requesterEmail, soonestFirst(page, pageSize));
+  }
+
+  private static PageRequest soonestFirst(int page, int pageSize) {
+    return PageRequest.of(page, pageSize, Sort.by(Sort.Direction.ASC, "dateNeeded"));
+  }
+
+  /**
+   * Count the open and done Recommendation Requests of each professor
+   *
+   * @return one entry per professor
+   */
+  @Operation(summary = "Count the open and done Recommendation Requests of each professor")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/countsByProfessor")
+  public List<ProfessorRequestCounts> countsByProfessor() {
+    return recReqRepository.countByProfessor();
+  }
+
   /**
    * Create a new recommendation request
    *
@@ -134,6 +248,11 @@ public class RecommendationRequestController extends ApiController {
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException(RecommendationRequest.class, id));
 
+    if (!Objects.equals(req.getDateNeeded(), incoming.getDateNeeded())
+        || req.getDone() != incoming.getDone()) {
+      // a new deadline, or a reopened request, is reported again
+      req.setDeadlineNotifiedAt(null);
+    }
     req.setRequesterEmail(incoming.getRequesterEmail());
     req.setProfessorEmail(incoming.getProfessorEmail());
     req.setExplanation(incoming.getExplanation());
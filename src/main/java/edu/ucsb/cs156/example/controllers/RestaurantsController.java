@@ -3,10 +3,12 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.Restaurant;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import edu.ucsb.cs156.example.services.RestaurantSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -26,6 +28,8 @@ public class RestaurantsController extends ApiController {
 
   @Autowired RestaurantRepository restaurantRepository;
 
+  @Autowired RestaurantSearchService restaurantSearchService;
+
   /**
    * This method returns a list of all restaurants.
    *
@@ -39,6 +43,22 @@ public class RestaurantsController extends ApiController {
     return restaurants;
   }
 
+  /**
+   * This method searches the name and description of all restaurants, tolerating typos.
+   *
+   * @param q the query
+   * @param limit the maximum number of results
+   * @return the matching restaurants, best match first
+   */
+  @Operation(summary = "Search restaurants by name and description")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/search")
+  public List<Restaurant> searchRestaurants(
+      @Parameter(name = "q") @RequestParam String q,
+      @Parameter(name = "limit") @RequestParam(defaultValue = "20") int limit) {
+    return restaurantSearchService.search(q, limit);
+  }
+
   /**
    * This method returns a single restaurant.
    *
@@ -76,6 +96,7 @@ public class RestaurantsController extends ApiController {
     restaurant.setDescription(description);
 
     Restaurant savedrestaurant = restaurantRepository.save(restaurant);
+    restaurantSearchService.index(savedrestaurant);
     return savedrestaurant;
   }
 
@@ -95,6 +116,7 @@ public class RestaurantsController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(Restaurant.class, id));
 
     restaurantRepository.delete(restaurant);
+    restaurantSearchService.remove(id);
     return genericMessage("Restaurant with id %s deleted".formatted(id));
   }
 
@@ -120,6 +142,7 @@ public class RestaurantsController extends ApiController {
     restaurant.setDescription(incoming.getDescription());
 
     restaurantRepository.save(restaurant);
+    restaurantSearchService.index(restaurant);
 
     return restaurant;
   }
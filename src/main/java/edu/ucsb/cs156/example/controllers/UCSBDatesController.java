@@ -4,17 +4,20 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.UCSBDateQuarterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -31,6 +34,8 @@ public class UCSBDatesController extends ApiController {
 
   @Autowired UCSBDateRepository ucsbDateRepository;
 
+  @Autowired UCSBDateQuarterService ucsbDateQuarterService;
+
   /**
    * List all UCSB dates
    *
@@ -44,6 +49,49 @@ public class UCSBDatesController extends ApiController {
     return dates;
   }
 
+  /**
+   * List the dates of one quarter, in date order
+   *
+   * @param yyyyq the quarter in the format YYYYQ
+   * @return a list of UCSBDate
+   */
+  @Operation(summary = "List the dates of one quarter, in date order")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/quarter/{yyyyq}")
+  public List<UCSBDate> datesByQuarter(
+      @Parameter(name = "yyyyq", description = "quarter, e.g. 20241 for Winter 2024") @PathVariable
+          String yyyyq) {
+    return ucsbDateQuarterService.getQuarter(yyyyq);
+  }
+
+  /**
+   * List the dates between two dates, in date order
+   *
+   * @param from the earliest date (inclusive)
+   * @param to the latest date (inclusive)
+   * @return an iterable of UCSBDate
+   */
+  @Operation(summary = "List the dates between two dates, in date order")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/range")
+  public Iterable<UCSBDate> datesInRange(
+      @Parameter(
+              name = "from",
+              description =
+                  "date (in iso format, e.g. YYYY-mm-ddTHH:MM:SS; see https://en.wikipedia.org/wiki/ISO_8601)")
+          @RequestParam("from")
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @Parameter(
+              name = "to",
+              description =
+                  "date (in iso format, e.g. YYYY-mm-ddTHH:MM:SS; see https://en.wikipedia.org/wiki/ISO_8601)")
+          @RequestParam("to")
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to) {
+    return ucsbDateRepository.findAllByLocalDateTimeBetweenOrderByLocalDateTimeAsc(from, to);
+  }
+
   /**
    * Get a single date by id
    *
@@ -96,6 +144,7 @@ public class UCSBDatesController extends ApiController {
     ucsbDate.setLocalDateTime(localDateTime);
 
     UCSBDate savedUcsbDate = ucsbDateRepository.save(ucsbDate);
+    ucsbDateQuarterService.invalidate(quarterYYYYQ);
 
     return savedUcsbDate;
   }
@@ -116,6 +165,7 @@ public class UCSBDatesController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
 
     ucsbDateRepository.delete(ucsbDate);
+    ucsbDateQuarterService.invalidate(ucsbDate.getQuarterYYYYQ());
     return genericMessage("UCSBDate with id %s deleted".formatted(id));
   }
 
@@ -137,11 +187,14 @@ public class UCSBDatesController extends ApiController {
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
 
+    String oldQuarterYYYYQ = ucsbDate.getQuarterYYYYQ();
     ucsbDate.setQuarterYYYYQ(incoming.getQuarterYYYYQ());
     ucsbDate.setName(incoming.getName());
     ucsbDate.setLocalDateTime(incoming.getLocalDateTime());
 
     ucsbDateRepository.save(ucsbDate);
+    ucsbDateQuarterService.invalidate(oldQuarterYYYYQ);
+    ucsbDateQuarterService.invalidate(ucsbDate.getQuarterYYYYQ());
 
     return ucsbDate;
   }
@@ -2,11 +2,14 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.DiningCommonsDistance;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsLocatorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +31,8 @@ public class UCSBDiningCommonsController extends ApiController {
 
   @Autowired UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
 
+  @Autowired UCSBDiningCommonsLocatorService ucsbDiningCommonsLocatorService;
+
   /**
    * THis method returns a list of all ucsbdiningcommons.
    *
@@ -41,6 +46,24 @@ public class UCSBDiningCommonsController extends ApiController {
     return commons;
   }
 
+  /**
+   * This method returns the dining commons nearest to a point, nearest first.
+   *
+   * @param lat latitude of the point, in degrees
+   * @param lon longitude of the point, in degrees
+   * @param k the maximum number of commons to return
+   * @return the nearest commons and their distances in meters
+   */
+  @Operation(summary = "List the dining commons nearest to a point, nearest first")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/nearest")
+  public List<DiningCommonsDistance> nearestCommons(
+      @Parameter(name = "lat") @RequestParam double lat,
+      @Parameter(name = "lon") @RequestParam double lon,
+      @Parameter(name = "k") @RequestParam(defaultValue = "3") int k) {
+    return ucsbDiningCommonsLocatorService.nearest(lat, lon, k);
+  }
+
   /**
    * This method returns a single diningcommons.
    *
@@ -93,6 +116,7 @@ public class UCSBDiningCommonsController extends ApiController {
     commons.setLongitude(longitude);
 
     UCSBDiningCommons savedCommons = ucsbDiningCommonsRepository.save(commons);
+    ucsbDiningCommonsLocatorService.rebuild();
 
     return savedCommons;
   }
@@ -113,6 +137,7 @@ public class UCSBDiningCommonsController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
 
     ucsbDiningCommonsRepository.delete(commons);
+    ucsbDiningCommonsLocatorService.rebuild();
     return genericMessage("UCSBDiningCommons with id %s deleted".formatted(code));
   }
 
@@ -143,6 +168,7 @@ public class UCSBDiningCommonsController extends ApiController {
     commons.setLongitude(incoming.getLongitude());
 
     ucsbDiningCommonsRepository.save(commons);
+    ucsbDiningCommonsLocatorService.rebuild();
 
     return commons;
   }
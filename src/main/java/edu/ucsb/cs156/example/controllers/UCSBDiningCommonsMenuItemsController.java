@@ -4,10 +4,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -29,6 +32,8 @@ public class UCSBDiningCommonsMenuItemsController extends ApiController {
 
   @Autowired UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
 
+  @Autowired UCSBDiningCommonsMenuService ucsbDiningCommonsMenuService;
+
   /**
    * List all UCSB dining commons menu items
    *
@@ -42,6 +47,20 @@ public class UCSBDiningCommonsMenuItemsController extends ApiController {
     return menuItems;
   }
 
+  /**
+   * Get the menu of one dining commons, grouped by station
+   *
+   * @param diningCommonsCode the dining commons
+   * @return a map from station to the menu items at that station
+   */
+  @Operation(summary = "Get the menu of a dining commons, grouped by station")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/menu")
+  public Map<String, List<UCSBDiningCommonsMenuItem>> menuByStation(
+      @Parameter(name = "diningCommonsCode") @RequestParam String diningCommonsCode) {
+    return ucsbDiningCommonsMenuService.getMenu(diningCommonsCode);
+  }
+
   /**
    * Create a new menu item
    *
@@ -66,6 +85,7 @@ public class UCSBDiningCommonsMenuItemsController extends ApiController {
 
     UCSBDiningCommonsMenuItem savedUCSBDiningCommonsMenuItem =
         ucsbDiningCommonsMenuItemRepository.save(ucsbDiningCommonsMenuItem);
+    ucsbDiningCommonsMenuService.invalidate(diningCommonsCode);
 
     return savedUCSBDiningCommonsMenuItem;
   }
@@ -107,11 +127,14 @@ public class UCSBDiningCommonsMenuItemsController extends ApiController {
             .findById(id)
             .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
 
+    String oldDiningCommonsCode = ucsbDiningCommonsMenuItem.getDiningCommonsCode();
     ucsbDiningCommonsMenuItem.setDiningCommonsCode(incoming.getDiningCommonsCode());
     ucsbDiningCommonsMenuItem.setName(incoming.getName());
     ucsbDiningCommonsMenuItem.setStation(incoming.getStation());
 
     ucsbDiningCommonsMenuItemRepository.save(ucsbDiningCommonsMenuItem);
+    ucsbDiningCommonsMenuService.invalidate(oldDiningCommonsCode);
+    ucsbDiningCommonsMenuService.invalidate(incoming.getDiningCommonsCode());
 
     return ucsbDiningCommonsMenuItem;
   }
@@ -132,6 +155,7 @@ public class UCSBDiningCommonsMenuItemsController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
 
     ucsbDiningCommonsMenuItemRepository.delete(ucsbDiningCommonsMenuItem);
+    ucsbDiningCommonsMenuService.invalidate(ucsbDiningCommonsMenuItem.getDiningCommonsCode());
     return genericMessage("UCSBDiningCommonsMenuItem with id %s deleted".formatted(id));
   }
 }
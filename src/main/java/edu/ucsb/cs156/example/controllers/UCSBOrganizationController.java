@@ -3,10 +3,12 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.UCSBOrganizationAutocompleteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +30,8 @@ public class UCSBOrganizationController extends ApiController {
 
   @Autowired UCSBOrganizationRepository ucsbOrganizationRepository;
 
+  @Autowired UCSBOrganizationAutocompleteService ucsbOrganizationAutocompleteService;
+
   /**
    * This method returns a list of all ucsborganization.
    *
@@ -41,6 +45,25 @@ public class UCSBOrganizationController extends ApiController {
     return organizations;
   }
 
+  /**
+   * This method suggests organizations whose code, short translation or translation (or a word in
+   * them) starts with a prefix.
+   *
+   * @param prefix the text typed so far
+   * @param limit the maximum number of suggestions
+   * @param inactive if present, only suggest organizations with this inactive flag
+   * @return the suggested organizations
+   */
+  @Operation(summary = "Suggest organizations matching a prefix")
+  @PreAuthorize("hasRole('ROLE_USER')")
+  @GetMapping("/autocomplete")
+  public List<UCSBOrganization> autocomplete(
+      @Parameter(name = "prefix") @RequestParam String prefix,
+      @Parameter(name = "limit") @RequestParam(defaultValue = "10") int limit,
+      @Parameter(name = "inactive") @RequestParam(required = false) Boolean inactive) {
+    return ucsbOrganizationAutocompleteService.suggest(prefix, limit, inactive);
+  }
+
   /**
    * This method creates a new UCSB organization. Accessible only to users with the role
    * "ROLE_ADMIN".
@@ -67,6 +90,7 @@ public class UCSBOrganizationController extends ApiController {
     organization.setInactive(inactive);
 
     UCSBOrganization savedOrganization = ucsbOrganizationRepository.save(organization);
+    ucsbOrganizationAutocompleteService.rebuild();
 
     return savedOrganization;
   }
@@ -114,6 +138,7 @@ public class UCSBOrganizationController extends ApiController {
     organization.setInactive(incoming.getInactive());
 
     ucsbOrganizationRepository.save(organization);
+    ucsbOrganizationAutocompleteService.rebuild();
 
     return organization;
   }
@@ -134,6 +159,7 @@ public class UCSBOrganizationController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, code));
 
     ucsbOrganizationRepository.delete(organization);
+    ucsbOrganizationAutocompleteService.rebuild();
     return genericMessage("UCSBOrganization with id %s deleted".formatted(code));
   }
 }
@@ -1,5 +1,6 @@
 package edu.ucsb.cs156.example.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -25,4 +26,7 @@ public class Articles {
   private String explanation;
   private String email;
   private LocalDateTime dateAdded;
+
+  // SHA-256 of the normalized url; unique, so duplicate urls are found with one index lookup
+  @JsonIgnore private String urlHash;
 }
@@ -1,5 +1,6 @@
 package edu.ucsb.cs156.example.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -30,4 +31,7 @@ public class RecommendationRequest {
   LocalDateTime dateRequested;
   LocalDateTime dateNeeded;
   boolean done;
+
+  /** when the deadline scanner reported this request; null until then, or after a change */
+  @JsonIgnore LocalDateTime deadlineNotifiedAt;
 }
@@ -0,0 +1,20 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * This is an error class for a custom RuntimeException in Java that is used to indicate that a
+ * change would give an entity the same value of a unique field as another entity.
+ */
+public class DuplicateEntityException extends RuntimeException {
+  /**
+   * Constructor for the exception
+   *
+   * @param entityType The class of the entity, e.g. Articles.class
+   * @param field the name of the unique field, e.g. url
+   * @param value the value that is already taken
+   */
+  public DuplicateEntityException(Class<?> entityType, String field, Object value) {
+    super(
+        "%s with %s %s already exists"
+            .formatted(entityType.getSimpleName(), field, String.valueOf(value)));
+  }
+}
@@ -0,0 +1,31 @@
+package edu.ucsb.cs156.example.jobs;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuService;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuSnapshotService;
+import edu.ucsb.cs156.example.services.jobs.JobContext;
+import edu.ucsb.cs156.example.services.jobs.JobContextConsumer;
+import java.util.List;
+import lombok.Builder;
+
+/** A job that replaces the menu of one dining commons with a daily snapshot. */
+@Builder
+public class UCSBDiningCommonsMenuSnapshotJob implements JobContextConsumer {
+
+  private String diningCommonsCode;
+  private List<UCSBDiningCommonsMenuItem> items;
+  private UCSBDiningCommonsMenuSnapshotService snapshotService;
+  private UCSBDiningCommonsMenuService menuService;
+
+  @Override
+  public void accept(JobContext ctx) throws Exception {
+    ctx.log("Applying menu snapshot of %d items to %s".formatted(items.size(), diningCommonsCode));
+    UCSBDiningCommonsMenuSnapshotService.Result result =
+        snapshotService.applySnapshot(diningCommonsCode, items);
+    // only after the snapshot transaction has committed
+    menuService.invalidate(diningCommonsCode);
+    ctx.log(
+        "Inserted %d, deleted %d, unchanged %d"
+            .formatted(result.inserted(), result.deleted(), result.unchanged()));
+  }
+}
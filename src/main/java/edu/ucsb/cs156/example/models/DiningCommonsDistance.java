@@ -0,0 +1,17 @@
+package edu.ucsb.cs156.example.models;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** This is a model class that pairs a UCSBDiningCommons with its distance from a point. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DiningCommonsDistance {
+  private UCSBDiningCommons commons;
+  private double distanceMeters; // great-circle distance
+}
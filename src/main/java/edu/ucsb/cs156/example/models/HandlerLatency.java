@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.models;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This is a model class for the latency of one controller method: request count, latency
+ * percentiles in microseconds, the number of responses with each HTTP status, and the SQL
+ * statements it runs.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HandlerLatency {
+  private String handler;
+  private long count;
+  private double meanMicros;
+  private long p50Micros;
+  private long p99Micros;
+  private long p999Micros;
+  private long maxMicros;
+  private Map<String, Long> statuses;
+  private double meanSqlStatements;
+  private long maxSqlStatements;
+  private double meanDbMicros;
+}
@@ -0,0 +1,23 @@
+package edu.ucsb.cs156.example.models;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This is a model class that summarizes the open HelpRequests of one team or one table/breakout
+ * room.
+ *
+ * <p>Instances are built directly by the GROUP BY queries in HelpRequestRepository.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HelpRequestGroupStats {
+  private String group; // the teamId or tableOrBreakoutRoom
+  private long openCount;
+  private LocalDateTime oldestRequestTime; // when the longest-waiting request was made
+}
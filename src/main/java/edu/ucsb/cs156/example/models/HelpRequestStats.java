@@ -0,0 +1,20 @@
+package edu.ucsb.cs156.example.models;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This is a model class for the staff dashboard: open HelpRequests grouped by team and by
+ * table/breakout room, longest-waiting group first.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HelpRequestStats {
+  private List<HelpRequestGroupStats> byTeam;
+  private List<HelpRequestGroupStats> byRoom;
+}
@@ -0,0 +1,21 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This is a model class that counts the open and done RecommendationRequests sent to one professor.
+ *
+ * <p>Instances are built directly by a GROUP BY query in RecommendationRequestRepository.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProfessorRequestCounts {
+  private String professorEmail;
+  private long openCount;
+  private long doneCount;
+}
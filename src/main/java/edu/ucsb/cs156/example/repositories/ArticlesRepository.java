@@ -1,6 +1,7 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.Articles;
+import java.util.Optional;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,4 +15,21 @@ public interface ArticlesRepository extends CrudRepository<Articles, Long> {
    * @return all Articles entities with the given email
    */
   Iterable<Articles> findAllByEmail(String email);
+
+  /**
+   * This method returns the Articles entity whose normalized url has a given hash. It is backed by
+   * the unique ARTICLES_URL_HASH_IDX index.
+   *
+   * @param urlHash the hash of the normalized url
+   * @return Optional of Articles (empty if not found)
+   */
+  Optional<Articles> findByUrlHash(String urlHash);
+
+  /**
+   * This method returns all Articles entities that do not have a url hash yet, i.e. rows created
+   * before the URL_HASH column was added.
+   *
+   * @return all Articles entities without a url hash
+   */
+  Iterable<Articles> findAllByUrlHashIsNull();
 }
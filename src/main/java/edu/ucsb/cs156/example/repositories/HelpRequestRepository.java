@@ -1,9 +1,46 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.models.HelpRequestGroupStats;
+import java.util.List;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 /** The HelpRequestRepository is a repository for HelpRequest entities. */
 @Repository
-public interface HelpRequestRepository extends CrudRepository<HelpRequest, Long> {}
+public interface HelpRequestRepository extends CrudRepository<HelpRequest, Long> {
+  /**
+   * This method returns the queue of unsolved HelpRequests, oldest first. It is backed by the
+   * HELPREQUESTS_UNSOLVED_IDX index (a partial index on Postgres).
+   *
+   * @return all unsolved HelpRequests ordered by requestTime
+   */
+  Iterable<HelpRequest> findAllBySolvedFalseOrderByRequestTimeAsc();
+
+  /**
+   * This method counts the unsolved HelpRequests of each team. It is backed by the
+   * HELPREQUESTS_TEAM_IDX index on (solved, team_id, request_time).
+   *
+   * @return one row per team with open requests, longest-waiting team first
+   */
+  @Query(
+      "SELECT new edu.ucsb.cs156.example.models.HelpRequestGroupStats("
+          + "h.teamId, COUNT(h), MIN(h.requestTime)) "
+          + "FROM helprequests h WHERE h.solved = false "
+          + "GROUP BY h.teamId ORDER BY MIN(h.requestTime)")
+  List<HelpRequestGroupStats> countUnsolvedByTeam();
+
+  /**
+   * This method counts the unsolved HelpRequests of each table or breakout room. It is backed by
+   * the HELPREQUESTS_ROOM_IDX index on (solved, table_or_breakout_room, request_time).
+   *
+   * @return one row per table or breakout room with open requests, longest-waiting room first
+   */
+  @Query(
+      "SELECT new edu.ucsb.cs156.example.models.HelpRequestGroupStats("
+          + "h.tableOrBreakoutRoom, COUNT(h), MIN(h.requestTime)) "
+          + "FROM helprequests h WHERE h.solved = false "
+          + "GROUP BY h.tableOrBreakoutRoom ORDER BY MIN(h.requestTime)")
+  List<HelpRequestGroupStats> countUnsolvedByRoom();
+}
@@ -1,9 +1,31 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.MenuItemReviews;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
-/** The UCSBDiningCommonsRepository is a repository for UCSBDiningCommons entities */
+/** The MenuItemReviewsRepository is a repository for MenuItemReviews entities */
 @Repository
-public interface MenuItemReviewsRepository extends CrudRepository<MenuItemReviews, Long> {}
+public interface MenuItemReviewsRepository extends CrudRepository<MenuItemReviews, Long> {
+  /**
+   * This method returns one page of the MenuItemReviews for a given menu item. It is backed by the
+   * (ITEM_ID, DATE_REVIEWED) index.
+   *
+   * @param itemId the id of the menu item
+   * @param pageable the page to return, including sort order
+   * @return a page of MenuItemReviews for the given item
+   */
+  Page<MenuItemReviews> findByItemId(long itemId, Pageable pageable);
+
+  /**
+   * This method returns one page of the MenuItemReviews written by a given reviewer. It is backed
+   * by the (REVIEWER_EMAIL, DATE_REVIEWED) index.
+   *
+   * @param reviewerEmail the email of the reviewer
+   * @param pageable the page to return, including sort order
+   * @return a page of MenuItemReviews by the given reviewer
+   */
+  Page<MenuItemReviews> findByReviewerEmail(String reviewerEmail, Pageable pageable);
+}
@@ -1,9 +1,110 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.models.ProfessorRequestCounts;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface RecommendationRequestRepository
-    extends CrudRepository<RecommendationRequest, Long> {}
+    extends CrudRepository<RecommendationRequest, Long> {
+  /**
+   * This method returns requests with the given status that are needed before a date, soonest
+   * first. It is backed by the RECOMMENDATION_REQUEST_DONE_DATE_NEEDED_IDX index.
+   *
+   * @param done whether the request is done
+   * @param before exclusive upper bound on dateNeeded
+   * @return the matching requests ordered by dateNeeded
+   */
+  Iterable<RecommendationRequest> findByDoneAndDateNeededBeforeOrderByDateNeededAsc(
+      boolean done, LocalDateTime before);
+
+  /**
+   * This method returns requests with the given status that are needed between two dates
+   * (inclusive), soonest first. It is backed by the RECOMMENDATION_REQUEST_DONE_DATE_NEEDED_IDX
+   * index.
+   *
+   * @param done whether the request is done
+   * @param from lower bound on dateNeeded
+   * @param to upper bound on dateNeeded
+   * @return the matching requests ordered by dateNeeded
+   */
+  Iterable<RecommendationRequest> findByDoneAndDateNeededBetweenOrderByDateNeededAsc(
+      boolean done, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * This method marks the open requests due between two instants (inclusive) that the deadline
+   * scanner has not reported yet as reported at {@code notifiedAt}, in one statement on the
+   * RECOMMENDATION_REQUEST_DONE_DATE_NEEDED_IDX index. When several instances scan at once, each
+   * request is marked by only one of them.
+   *
+   * @param from lower bound on dateNeeded
+   * @param to upper bound on dateNeeded
+   * @param notifiedAt when they were reported
+   * @return the number of requests this call marked
+   */
+  @Modifying(clearAutomatically = true)
+  @Transactional
+  @Query(
+      "UPDATE recommendation_request r SET r.deadlineNotifiedAt = :notifiedAt "
+          + "WHERE r.done = false AND r.deadlineNotifiedAt IS NULL "
+          + "AND r.dateNeeded BETWEEN :from AND :to")
+  int markDeadlinesNotified(
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      @Param("notifiedAt") LocalDateTime notifiedAt);
+
+  /**
+   * This method returns the open requests due between two instants (inclusive) that were reported
+   * at {@code notifiedAt}, soonest first. It is backed by the
+   * RECOMMENDATION_REQUEST_DONE_DATE_NEEDED_IDX index, which also holds DEADLINE_NOTIFIED_AT.
+   *
+   * @param from lower bound on dateNeeded
+   * @param to upper bound on dateNeeded
+   * @param notifiedAt when they were reported
+   * @return the matching requests ordered by dateNeeded
+   */
+  List<RecommendationRequest>
+      findByDoneFalseAndDateNeededBetweenAndDeadlineNotifiedAtOrderByDateNeededAsc(
+          LocalDateTime from, LocalDateTime to, LocalDateTime notifiedAt);
+
+  /**
+   * This method returns one page of the requests sent to a professor. It is backed by the
+   * RECOMMENDATION_REQUEST_PROFESSOR_IDX index.
+   *
+   * @param professorEmail the email of the professor
+   * @param pageable the page to return and its sort order
+   * @return a page of RecommendationRequests
+   */
+  Page<RecommendationRequest> findByProfessorEmail(String professorEmail, Pageable pageable);
+
+  /**
+   * This method returns one page of the requests made by a requester. It is backed by the
+   * RECOMMENDATION_REQUEST_REQUESTER_IDX index.
+   *
+   * @param requesterEmail the email of the requester
+   * @param pageable the page to return and its sort order
+   * @return a page of RecommendationRequests
+   */
+  Page<RecommendationRequest> findByRequesterEmail(String requesterEmail, Pageable pageable);
+
+  /**
+   * This method counts the open and done requests of each professor in a single GROUP BY query.
+   *
+   * @return one row per professor, ordered by professor email
+   */
+  @Query(
+      "SELECT new edu.ucsb.cs156.example.models.ProfessorRequestCounts(r.professorEmail, "
+          + "SUM(CASE WHEN r.done = false THEN 1 ELSE 0 END), "
+          + "SUM(CASE WHEN r.done = true THEN 1 ELSE 0 END)) "
+          + "FROM recommendation_request r GROUP BY r.professorEmail ORDER BY r.professorEmail")
+  List<ProfessorRequestCounts> countByProfessor();
+}
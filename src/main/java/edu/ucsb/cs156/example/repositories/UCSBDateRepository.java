@@ -1,6 +1,7 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBDate;
+import java.time.LocalDateTime;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -15,4 +16,15 @@ public interface UCSBDateRepository extends CrudRepository<UCSBDate, Long> {
    * @return all UCSBDate entities with a given quarterYYYYQ
    */
   Iterable<UCSBDate> findAllByQuarterYYYYQ(String quarterYYYYQ);
+
+  /**
+   * This method returns all UCSBDate entities between two dates (inclusive), in date order. It is
+   * backed by the UCSBDATES_LOCAL_DATE_TIME_IDX index.
+   *
+   * @param from the earliest date
+   * @param to the latest date
+   * @return all UCSBDate entities from from to to
+   */
+  Iterable<UCSBDate> findAllByLocalDateTimeBetweenOrderByLocalDateTimeAsc(
+      LocalDateTime from, LocalDateTime to);
 }
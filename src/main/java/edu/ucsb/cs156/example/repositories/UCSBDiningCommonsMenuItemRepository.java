@@ -1,7 +1,12 @@
 package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +14,26 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UCSBDiningCommonsMenuItemRepository
-    extends CrudRepository<UCSBDiningCommonsMenuItem, Long> {}
+    extends CrudRepository<UCSBDiningCommonsMenuItem, Long> {
+  /**
+   * This method returns the menu items of one dining commons, ordered by station and then name. It
+   * is backed by the UCSBDININGCOMMONSMENUITEMS_MENU_IDX index on (DINING_COMMONS_CODE, STATION,
+   * NAME).
+   *
+   * @param diningCommonsCode the code of the dining commons
+   * @return the menu items of that commons
+   */
+  List<UCSBDiningCommonsMenuItem> findByDiningCommonsCodeOrderByStationAscNameAsc(
+      String diningCommonsCode);
+
+  /**
+   * This method deletes menu items by id with a single DELETE statement, rather than loading and
+   * deleting each entity. It must be called inside a transaction.
+   *
+   * @param ids the ids of the items to delete
+   * @return the number of items deleted
+   */
+  @Modifying
+  @Query("DELETE FROM ucsbdiningcommonsmenuitems i WHERE i.id IN :ids")
+  int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -2,8 +2,11 @@ package edu.ucsb.cs156.example.repositories;
 
 import edu.ucsb.cs156.example.entities.User;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /** The UserRepository is a repository for User entities. */
 @Repository
@@ -15,4 +18,56 @@ public interface UserRepository extends CrudRepository<User, Long> {
    * @return Optional of User (empty if not found)
    */
   Optional<User> findByEmail(String email);
+
+  /**
+   * This method inserts a user, or if a user with the same email already exists, makes them an
+   * admin if the given user is one. It is a single atomic statement on PostgreSQL.
+   *
+   * @param user the user to insert (its id is ignored)
+   * @return the stored user
+   */
+  @Transactional
+  @Query(
+      nativeQuery = true,
+      value =
+          """
+          INSERT INTO users (email, google_sub, picture_url, full_name, given_name, family_name,
+                             email_verified, locale, hosted_domain, admin)
+          VALUES (:#{#user.email}, :#{#user.googleSub}, :#{#user.pictureUrl},
+                  :#{#user.fullName}, :#{#user.givenName}, :#{#user.familyName},
+                  :#{#user.emailVerified}, :#{#user.locale}, :#{#user.hostedDomain},
+                  :#{#user.admin})
+          ON CONFLICT (email) DO UPDATE SET admin = users.admin OR EXCLUDED.admin
+          RETURNING *
+          """)
+  User upsertOnPostgres(@Param("user") User user);
+
+  /**
+   * This method is {@link #upsertOnPostgres(User)} for H2, which uses MERGE instead of ON CONFLICT.
+   * Unlike ON CONFLICT, MERGE fails with a unique index violation if a concurrent transaction
+   * inserts the same email first; running it again then updates that user.
+   *
+   * @param user the user to insert (its id is ignored)
+   * @return the stored user
+   */
+  @Transactional
+  @Query(
+      nativeQuery = true,
+      value =
+          """
+          SELECT * FROM FINAL TABLE (
+            MERGE INTO users u
+            USING (SELECT CAST(:#{#user.email} AS VARCHAR(255)) AS email,
+                          CAST(:#{#user.admin} AS BOOLEAN) AS admin) s
+            ON u.email = s.email
+            WHEN MATCHED THEN UPDATE SET admin = u.admin OR s.admin
+            WHEN NOT MATCHED THEN
+              INSERT (email, google_sub, picture_url, full_name, given_name, family_name,
+                      email_verified, locale, hosted_domain, admin)
+              VALUES (s.email, :#{#user.googleSub}, :#{#user.pictureUrl},
+                      :#{#user.fullName}, :#{#user.givenName}, :#{#user.familyName},
+                      :#{#user.emailVerified}, :#{#user.locale}, :#{#user.hostedDomain},
+                      s.admin))
+          """)
+  User upsertOnH2(@Param("user") User user);
 }
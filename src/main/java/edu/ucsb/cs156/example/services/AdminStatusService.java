@@ -0,0 +1,125 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that decides whether an email belongs to an admin.
+ *
+ * <p>An email is an admin if it is one of the configured admin emails (kept in a hash set), or if
+ * the user with that email has the admin flag set in the database. The database flag is cached for
+ * {@code app.admin.cacheTtl}, for at most {@code app.admin.cacheSize} emails, so that repeated
+ * logins do not query the users table. Code that changes a user's admin flag calls {@link
+ * #update(User)} so the cache never holds a stale value written by this application; {@link
+ * #cachedAdmin(String)} lets callers that remember users notice such changes.
+ */
+@Service
+public class AdminStatusService {
+
+  private record Cached(boolean admin, long loadedAt) {}
+
+  @Autowired private UserRepository userRepository;
+
+  private Set<String> adminEmails = Set.of();
+
+  @Value("${app.admin.cacheTtl:PT5M}")
+  private Duration cacheTtl = Duration.ofMinutes(5);
+
+  @Value("${app.admin.cacheSize:10000}")
+  private int cacheSize = 10000;
+
+  private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+
+  LongSupplier nanoTime = System::nanoTime;
+
+  /**
+   * Sets the configured admin emails.
+   *
+   * @param adminEmails the admin emails
+   */
+  @Value("${app.admin.emails}")
+  public void setAdminEmails(List<String> adminEmails) {
+    this.adminEmails = Set.copyOf(adminEmails);
+  }
+
+  /**
+   * Returns whether an email is one of the configured admin emails.
+   *
+   * @param email the email (may be null)
+   * @return whether the email is a configured admin email
+   */
+  public boolean isAdminEmail(String email) {
+    return email != null && adminEmails.contains(email);
+  }
+
+  /**
+   * Returns whether an email belongs to an admin, either configured or flagged in the database.
+   *
+   * @param email the email (may be null)
+   * @return whether the email belongs to an admin
+   */
+  public boolean isAdmin(String email) {
+    if (email == null) {
+      return false;
+    }
+    if (adminEmails.contains(email)) {
+      return true;
+    }
+    Optional<Boolean> cached = cachedAdmin(email);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    boolean admin = userRepository.findByEmail(email).map(User::getAdmin).orElse(false);
+    remember(email, admin, nanoTime.getAsLong());
+    return admin;
+  }
+
+  /**
+   * Records the admin flag of a user that was just written to the database.
+   *
+   * @param user the stored user
+   */
+  public void update(User user) {
+    remember(user.getEmail(), user.getAdmin(), nanoTime.getAsLong());
+  }
+
+  /**
+   * Returns the admin flag of the user with an email, if it was loaded or recorded within {@code
+   * app.admin.cacheTtl}, without querying the database. Callers that remember users compare it with
+   * the remembered flag to notice changes.
+   *
+   * @param email the email
+   * @return the cached flag, or empty if none is cached
+   */
+  public Optional<Boolean> cachedAdmin(String email) {
+    Cached cached = cache.get(email);
+    if (cached == null || nanoTime.getAsLong() - cached.loadedAt() >= cacheTtl.toNanos()) {
+      return Optional.empty();
+    }
+    return Optional.of(cached.admin());
+  }
+
+  int cachedCount() {
+    return cache.size();
+  }
+
+  private void remember(String email, boolean admin, long now) {
+    if (cache.size() >= cacheSize && !cache.containsKey(email)) {
+      cache.values().removeIf(cached -> now - cached.loadedAt() >= cacheTtl.toNanos());
+      if (cache.size() >= cacheSize) {
+        cache.clear();
+      }
+    }
+    cache.put(email, new Cached(admin, now));
+  }
+}
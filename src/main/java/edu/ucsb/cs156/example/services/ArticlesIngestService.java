@@ -0,0 +1,178 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that adds Articles while keeping at most one article per url.
+ *
+ * <p>Urls are normalized (see {@link #normalizeUrl(String)}) and hashed into the URL_HASH column,
+ * which has a unique index. Checking for a duplicate is a single index lookup, and the unique index
+ * settles races between concurrent requests that add the same url.
+ */
+@Slf4j
+@Service
+public class ArticlesIngestService {
+
+  /** What to do when an article with the same normalized url already exists. */
+  public enum OnConflict {
+    /** keep the existing article unchanged and return it */
+    SKIP,
+    /** overwrite the existing article with the incoming fields and return it */
+    UPDATE
+  }
+
+  @Autowired private ArticlesRepository articlesRepository;
+
+  /**
+   * Saves a new article, or resolves the conflict with the existing article that has the same
+   * normalized url.
+   *
+   * @param article the incoming article (not yet saved)
+   * @param onConflict what to do if the url is already present
+   * @return the saved article
+   */
+  public Articles ingest(Articles article, OnConflict onConflict) {
+    article.setUrlHash(urlHash(article.getUrl()));
+
+    Optional<Articles> existing = articlesRepository.findByUrlHash(article.getUrlHash());
+    if (existing.isEmpty()) {
+      try {
+        return articlesRepository.save(article);
+      } catch (DataIntegrityViolationException e) {
+        // another request added the same url between our lookup and our insert
+        existing = articlesRepository.findByUrlHash(article.getUrlHash());
+        if (existing.isEmpty()) {
+          throw e;
+        }
+      }
+    }
+
+    Articles current = existing.get();
+    if (onConflict == OnConflict.SKIP) {
+      return current;
+    }
+    current.setTitle(article.getTitle());
+    current.setUrl(article.getUrl());
+    current.setExplanation(article.getExplanation());
+    current.setEmail(article.getEmail());
+    current.setDateAdded(article.getDateAdded());
+    return articlesRepository.save(current);
+  }
+
+  /**
+   * Fills in the url hash of articles created before the URL_HASH column existed. When two old
+   * articles share a url, only the first gets a hash; the others are logged and left alone.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillUrlHashes() {
+    for (Articles article : articlesRepository.findAllByUrlHashIsNull()) {
+      String hash = urlHash(article.getUrl());
+      if (hash == null) {
+        continue;
+      }
+      if (articlesRepository.findByUrlHash(hash).isPresent()) {
+        log.warn("article {} duplicates the url {}", article.getId(), article.getUrl());
+        continue;
+      }
+      article.setUrlHash(hash);
+      articlesRepository.save(article);
+    }
+  }
+
+  /**
+   * Returns the hex SHA-256 hash of a normalized url.
+   *
+   * @param url the url (may be null)
+   * @return the hash, or null if the url is null
+   */
+  public static String urlHash(String url) {
+    if (url == null) {
+      return null;
+    }
+    return hexDigest(normalizeUrl(url), "SHA-256");
+  }
+
+  static String hexDigest(String text, String algorithm) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance(algorithm);
+      return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Normalizes a url so that trivially different spellings of the same address are equal: the
+   * scheme and host are lower cased, default ports, fragments, trailing slashes and tracking
+   * parameters ({@code utm_*}, {@code fbclid}, {@code gclid}) are removed, and the remaining query
+   * parameters are sorted. Strings that are not absolute urls are only trimmed.
+   *
+   * @param url the url
+   * @return the normalized url
+   */
+  public static String normalizeUrl(String url) {
+    String trimmed = url.trim();
+    URI uri;
+    try {
+      uri = new URI(trimmed);
+    } catch (URISyntaxException e) {
+      return trimmed;
+    }
+    if (uri.getScheme() == null || uri.getHost() == null) {
+      return trimmed;
+    }
+
+    String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+    StringBuilder normalized = new StringBuilder(scheme).append("://");
+    if (uri.getRawUserInfo() != null) {
+      normalized.append(uri.getRawUserInfo()).append('@');
+    }
+    normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+    int port = uri.getPort();
+    boolean defaultPort =
+        (port == 80 && scheme.equals("http")) || (port == 443 && scheme.equals("https"));
+    if (port != -1 && !defaultPort) {
+      normalized.append(':').append(port);
+    }
+
+    String path = uri.getRawPath();
+    while (path.endsWith("/")) {
+      path = path.substring(0, path.length() - 1);
+    }
+    normalized.append(path.isEmpty() ? "/" : path);
+
+    if (uri.getRawQuery() != null) {
+      String query =
+          Arrays.stream(uri.getRawQuery().split("&"))
+              .filter(parameter -> !parameter.isEmpty() && !isTrackingParameter(parameter))
+              .sorted()
+              .collect(Collectors.joining("&"));
+      if (!query.isEmpty()) {
+        normalized.append('?').append(query);
+      }
+    }
+    return normalized.toString();
+  }
+
+  private static boolean isTrackingParameter(String parameter) {
+    String name = parameter.split("=", 2)[0].toLowerCase(Locale.ROOT);
+    return name.startsWith("utm_") || name.equals("fbclid") || name.equals("gclid");
+  }
+}
@@ -0,0 +1,484 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that provides full-text search over the title and explanation of Articles.
+ *
+ * <p>It keeps an in-memory positional inverted index that is built from the database when the
+ * application starts, and is kept current by the ArticlesController, which calls {@link
+ * #index(Articles)} and {@link #remove(long)} on every write.
+ *
+ * <p>Each indexed article gets a dense document number, and each term maps to a posting list of
+ * document numbers in increasing order. Updates and deletes leave a tombstone that is skipped at
+ * query time; once half of the document numbers are tombstones the index is compacted in memory.
+ *
+ * <p>Queries are made up of clauses that must all match: plain terms ({@code taco}), prefix terms
+ * ({@code tac*}) and quoted phrases ({@code "taco bell"}). Results are ranked with BM25.
+ */
+@Slf4j
+@Service
+public class ArticlesSearchService {
+
+  /** BM25 term frequency saturation */
+  static final double K1 = 1.2;
+
+  /** BM25 document length normalization */
+  static final double B = 0.75;
+
+  private static final Pattern QUERY_CLAUSE = Pattern.compile("\"([^\"]*)\"?|(\\S+)");
+
+  @Autowired private ArticlesRepository articlesRepository;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final NavigableMap<String, PostingList> dictionary = new TreeMap<>();
+  private final Map<Long, Integer> docNumbers = new HashMap<>();
+
+  // indexed by document number; a null article is a tombstone
+  private Articles[] articles = new Articles[16];
+  private int[] lengths = new int[16];
+  private PostingList[][] docTerms = new PostingList[16][];
+  private int maxDoc = 0;
+
+  private int liveDocs = 0;
+  private long totalLength = 0;
+
+  /** Rebuilds the whole index from the database. Runs once when the application starts. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      clear();
+      articlesRepository.findAll().forEach(this::add);
+      log.info("indexed {} articles for search", liveDocs);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds an article to the index, replacing any previous version with the same id.
+   *
+   * @param article the article to index
+   */
+  public void index(Articles article) {
+    lock.writeLock().lock();
+    try {
+      delete(article.getId());
+      add(article);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes an article from the index.
+   *
+   * @param id the id of the article to remove
+   */
+  public void remove(long id) {
+    lock.writeLock().lock();
+    try {
+      delete(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Searches the title and explanation of all articles.
+   *
+   * @param query the query, e.g. {@code "taco bell" mex*}
+   * @param limit the maximum number of results to return
+   * @return the matching articles, best match first
+   */
+  public List<Articles> search(String query, int limit) {
+    List<Clause> clauses = parse(query);
+    if (clauses.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      List<Hits> clauseHits = new ArrayList<>(clauses.size());
+      for (Clause clause : clauses) {
+        Hits hits = score(clause);
+        if (hits.size == 0) {
+          return List.of();
+        }
+        clauseHits.add(hits);
+      }
+      clauseHits.sort((a, b) -> Integer.compare(a.size, b.size));
+
+      Hits matches = clauseHits.get(0);
+      for (int i = 1; i < clauseHits.size() && matches.size > 0; i++) {
+        matches = matches.intersect(clauseHits.get(i));
+      }
+      return top(matches, limit);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Splits text into lower case terms made of letters and digits.
+   *
+   * @param text the text to split (may be null)
+   * @return the terms, in order
+   */
+  static List<String> tokenize(String text) {
+    List<String> terms = new ArrayList<>();
+    if (text == null) {
+      return terms;
+    }
+    String lower = text.toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i <= lower.length(); i++) {
+      boolean inTerm = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+      if (inTerm && start < 0) {
+        start = i;
+      } else if (!inTerm && start >= 0) {
+        terms.add(lower.substring(start, i));
+        start = -1;
+      }
+    }
+    return terms;
+  }
+
+  sealed interface Clause permits Term, Prefix, Phrase {}
+
+  record Term(String term) implements Clause {}
+
+  record Prefix(String prefix) implements Clause {}
+
+  record Phrase(List<String> terms) implements Clause {}
+
+  /**
+   * Parses a query into clauses. Quoted text is a phrase, a trailing {@code *} makes a prefix.
+   *
+   * @param query the query
+   * @return the clauses of the query
+   */
+  static List<Clause> parse(String query) {
+    List<Clause> clauses = new ArrayList<>();
+    if (query == null) {
+      return clauses;
+    }
+    Matcher matcher = QUERY_CLAUSE.matcher(query);
+    while (matcher.find()) {
+      if (matcher.group(2) == null) {
+        List<String> terms = tokenize(matcher.group(1));
+        if (terms.size() == 1) {
+          clauses.add(new Term(terms.get(0)));
+        } else if (terms.size() > 1) {
+          clauses.add(new Phrase(terms));
+        }
+        continue;
+      }
+      String word = matcher.group(2);
+      boolean prefix = word.endsWith("*");
+      List<String> terms = tokenize(word);
+      for (int i = 0; i < terms.size(); i++) {
+        boolean last = i == terms.size() - 1;
+        clauses.add(prefix && last ? new Prefix(terms.get(i)) : new Term(terms.get(i)));
+      }
+    }
+    return clauses;
+  }
+
+  /** Document numbers in increasing order, with the positions of one term in each document. */
+  private static final class PostingList {
+    private final String term;
+    private int size = 0;
+    private int[] docs = new int[1];
+    private int[][] positions = new int[1][];
+    private int documentFrequency = 0;
+
+    private PostingList(String term) {
+      this.term = term;
+    }
+
+    private void add(int doc, int[] termPositions) {
+      if (size == docs.length) {
+        docs = Arrays.copyOf(docs, size * 2);
+        positions = Arrays.copyOf(positions, size * 2);
+      }
+      docs[size] = doc;
+      positions[size] = termPositions;
+      size++;
+      documentFrequency++;
+    }
+  }
+
+  /** Matching document numbers in increasing order, with a score for each. */
+  private static final class Hits {
+    private int size = 0;
+    private final int[] docs;
+    private final double[] scores;
+
+    private Hits(int capacity) {
+      docs = new int[capacity];
+      scores = new double[capacity];
+    }
+
+    private void add(int doc, double score) {
+      docs[size] = doc;
+      scores[size] = score;
+      size++;
+    }
+
+    private Hits intersect(Hits other) {
+      Hits result = new Hits(size);
+      int j = 0;
+      for (int i = 0; i < size && j < other.size; i++) {
+        while (j < other.size && other.docs[j] < docs[i]) {
+          j++;
+        }
+        if (j < other.size && other.docs[j] == docs[i]) {
+          result.add(docs[i], scores[i] + other.scores[j]);
+        }
+      }
+      return result;
+    }
+  }
+
+  private void clear() {
+    dictionary.clear();
+    docNumbers.clear();
+    articles = new Articles[16];
+    lengths = new int[16];
+    docTerms = new PostingList[16][];
+    maxDoc = 0;
+    liveDocs = 0;
+    totalLength = 0;
+  }
+
+  private void add(Articles article) {
+    List<String> titleTerms = tokenize(article.getTitle());
+    List<String> explanationTerms = tokenize(article.getExplanation());
+
+    Map<String, List<Integer>> positions = new HashMap<>();
+    for (int i = 0; i < titleTerms.size(); i++) {
+      positions.computeIfAbsent(titleTerms.get(i), t -> new ArrayList<>()).add(i);
+    }
+    // leave a gap so that phrases cannot span the title and the explanation
+    int offset = titleTerms.size() + 1;
+    for (int i = 0; i < explanationTerms.size(); i++) {
+      positions.computeIfAbsent(explanationTerms.get(i), t -> new ArrayList<>()).add(offset + i);
+    }
+
+    if (maxDoc == articles.length) {
+      articles = Arrays.copyOf(articles, maxDoc * 2);
+      lengths = Arrays.copyOf(lengths, maxDoc * 2);
+      docTerms = Arrays.copyOf(docTerms, maxDoc * 2);
+    }
+    int doc = maxDoc++;
+
+    PostingList[] terms = new PostingList[positions.size()];
+    int t = 0;
+    for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+      PostingList postingList = dictionary.computeIfAbsent(entry.getKey(), PostingList::new);
+      postingList.add(doc, entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+      terms[t++] = postingList;
+    }
+
+    articles[doc] = article;
+    lengths[doc] = titleTerms.size() + explanationTerms.size();
+    docTerms[doc] = terms;
+    docNumbers.put(article.getId(), doc);
+    liveDocs++;
+    totalLength += lengths[doc];
+  }
+
+  private void delete(long id) {
+    Integer doc = docNumbers.remove(id);
+    if (doc == null) {
+      return;
+    }
+    for (PostingList postingList : docTerms[doc]) {
+      postingList.documentFrequency--;
+      if (postingList.documentFrequency == 0) {
+        dictionary.remove(postingList.term);
+      }
+    }
+    articles[doc] = null;
+    docTerms[doc] = null;
+    liveDocs--;
+    totalLength -= lengths[doc];
+
+    if (maxDoc > 16 && liveDocs < maxDoc / 2) {
+      compact();
+    }
+  }
+
+  /** Renumbers the live documents, dropping tombstones from every posting list. */
+  private void compact() {
+    List<Articles> live = new ArrayList<>(liveDocs);
+    for (int doc = 0; doc < maxDoc; doc++) {
+      if (articles[doc] != null) {
+        live.add(articles[doc]);
+      }
+    }
+    clear();
+    live.forEach(this::add);
+  }
+
+  private Hits score(Clause clause) {
+    return switch (clause) {
+      case Term term -> termHits(dictionary.get(term.term()));
+      case Prefix prefix -> prefixHits(prefix.prefix());
+      case Phrase phrase -> phraseHits(phrase.terms());
+    };
+  }
+
+  private Hits termHits(PostingList postingList) {
+    if (postingList == null) {
+      return new Hits(0);
+    }
+    double idf = idf(postingList.documentFrequency);
+    Hits hits = new Hits(postingList.documentFrequency);
+    for (int i = 0; i < postingList.size; i++) {
+      int doc = postingList.docs[i];
+      if (articles[doc] != null) {
+        hits.add(doc, bm25(idf, postingList.positions[i].length, doc));
+      }
+    }
+    return hits;
+  }
+
+  private Hits prefixHits(String prefix) {
+    Map<String, PostingList> expansions =
+        dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    if (expansions.size() <= 1) {
+      return termHits(expansions.isEmpty() ? null : expansions.values().iterator().next());
+    }
+
+    double[] accumulator = new double[maxDoc];
+    for (PostingList postingList : expansions.values()) {
+      Hits hits = termHits(postingList);
+      for (int i = 0; i < hits.size; i++) {
+        accumulator[hits.docs[i]] += hits.scores[i];
+      }
+    }
+    int count = 0;
+    for (double score : accumulator) {
+      if (score > 0) {
+        count++;
+      }
+    }
+    Hits hits = new Hits(count);
+    for (int doc = 0; doc < maxDoc; doc++) {
+      if (accumulator[doc] > 0) {
+        hits.add(doc, accumulator[doc]);
+      }
+    }
+    return hits;
+  }
+
+  private Hits phraseHits(List<String> terms) {
+    PostingList[] postingLists = new PostingList[terms.size()];
+    double idfSum = 0;
+    for (int i = 0; i < postingLists.length; i++) {
+      postingLists[i] = dictionary.get(terms.get(i));
+      if (postingLists[i] == null) {
+        return new Hits(0);
+      }
+      idfSum += idf(postingLists[i].documentFrequency);
+    }
+
+    PostingList first = postingLists[0];
+    Hits hits = new Hits(first.size);
+    int[] cursors = new int[postingLists.length];
+    candidates:
+    for (int c = 0; c < first.size; c++) {
+      int doc = first.docs[c];
+      if (articles[doc] == null) {
+        continue;
+      }
+      int[][] termPositions = new int[postingLists.length][];
+      termPositions[0] = first.positions[c];
+      for (int i = 1; i < postingLists.length; i++) {
+        PostingList postingList = postingLists[i];
+        while (cursors[i] < postingList.size && postingList.docs[cursors[i]] < doc) {
+          cursors[i]++;
+        }
+        if (cursors[i] == postingList.size || postingList.docs[cursors[i]] != doc) {
+          continue candidates;
+        }
+        termPositions[i] = postingList.positions[cursors[i]];
+      }
+      int phraseCount = countPhrase(termPositions);
+      if (phraseCount > 0) {
+        hits.add(doc, bm25(idfSum, phraseCount, doc));
+      }
+    }
+    return hits;
+  }
+
+  private static int countPhrase(int[][] termPositions) {
+    int count = 0;
+    starts:
+    for (int start : termPositions[0]) {
+      for (int i = 1; i < termPositions.length; i++) {
+        if (Arrays.binarySearch(termPositions[i], start + i) < 0) {
+          continue starts;
+        }
+      }
+      count++;
+    }
+    return count;
+  }
+
+  private List<Articles> top(Hits hits, int limit) {
+    // min-heap on (score, then larger id first) so the worst hit is evicted first
+    PriorityQueue<Integer> heap =
+        new PriorityQueue<>(
+            (a, b) -> {
+              int byScore = Double.compare(hits.scores[a], hits.scores[b]);
+              return byScore != 0
+                  ? byScore
+                  : Long.compare(articles[hits.docs[b]].getId(), articles[hits.docs[a]].getId());
+            });
+    for (int i = 0; i < hits.size; i++) {
+      heap.add(i);
+      if (heap.size() > limit) {
+        heap.poll();
+      }
+    }
+    Articles[] result = new Articles[heap.size()];
+    for (int i = result.length - 1; i >= 0; i--) {
+      result[i] = articles[hits.docs[heap.poll()]];
+    }
+    return List.of(result);
+  }
+
+  private double idf(int documentFrequency) {
+    return Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+  }
+
+  private double bm25(double idf, int termFrequency, int doc) {
+    double averageLength = (double) totalLength / liveDocs;
+    double norm = 1 - B + B * lengths[doc] / averageLength;
+    return idf * termFrequency * (K1 + 1) / (termFrequency + K1 * norm);
+  }
+}
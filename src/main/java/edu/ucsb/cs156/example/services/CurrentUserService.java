@@ -2,8 +2,10 @@ package edu.ucsb.cs156.example.services;
 
 import edu.ucsb.cs156.example.entities.User;
 import edu.ucsb.cs156.example.models.CurrentUser;
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.Collection;
 import java.util.List;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
 /**
@@ -34,6 +36,15 @@ public abstract class CurrentUserService {
    */
   public abstract Collection<? extends GrantedAuthority> getRoles();
 
+  /**
+   * This method is called once when a user logs in, so that implementations can do per-login work
+   * (such as storing the user) there instead of on every request. The default does nothing.
+   *
+   * @param request the login request
+   * @param authentication the new authentication
+   */
+  public void login(HttpServletRequest request, Authentication authentication) {}
+
   /**
    * This method returns whether the current user is logged in.
    *
@@ -3,37 +3,57 @@ package edu.ucsb.cs156.example.services;
 import edu.ucsb.cs156.example.entities.User;
 import edu.ucsb.cs156.example.models.CurrentUser;
 import edu.ucsb.cs156.example.repositories.UserRepository;
-import java.util.ArrayList;
+import jakarta.servlet.http.HttpServletRequest;
+import java.sql.DatabaseMetaData;
 import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
+import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * This is a service that provides information about the current user.
  *
  * <p>This is the version of the service used in production.
+ *
+ * <p>The user is stored in (or updated in) the database once, when they log in with OAuth2, and the
+ * stored User is kept in the session, so requests do not query the users table to find the current
+ * user. The User in the session is loaded again when {@link AdminStatusService} has a different
+ * admin flag cached for them, so changes to the admin flag that this instance has seen are picked
+ * up right away. Other details, like the roles, which are decided at login, change the next time
+ * the user logs in.
  */
 @Slf4j
 @Service("currentUser")
 @Primary
 public class CurrentUserServiceImpl extends CurrentUserService {
+  /** session attribute that holds the User stored at login */
+  static final String USER_ATTRIBUTE = CurrentUserServiceImpl.class.getName() + ".user";
+
   @Autowired private UserRepository userRepository;
 
   @Autowired GrantedAuthoritiesService grantedAuthoritiesService;
 
-  @Value("${app.admin.emails}")
-  private final List<String> adminEmails = new ArrayList<String>();
+  @Autowired private AdminStatusService adminStatusService;
+
+  // lazy, since only upserts need it and web layer tests have no datasource
+  @Lazy @Autowired private DataSource dataSource;
+
+  /** the database product name from the JDBC metadata, read on the first upsert */
+  private volatile String databaseProductName;
 
   /**
    * This method returns the current user as a User object.
@@ -47,19 +67,29 @@ public class CurrentUserServiceImpl extends CurrentUserService {
   }
 
   /**
-   * This method obtains the current user that is logged in with OAuth2, if any. The parameters are
-   * automatically injected by Spring.
+   * This method stores the user that just logged in with OAuth2 in the database, and in the
+   * session.
    *
-   * <p>This method also has a side effect of storing the user in the database if they are not
-   * already there.
+   * @param request the login request
+   * @param authentication the new authentication
+   */
+  @Override
+  public void login(HttpServletRequest request, Authentication authentication) {
+    if (authentication instanceof OAuth2AuthenticationToken token) {
+      request.getSession().setAttribute(USER_ATTRIBUTE, upsertUser(token.getPrincipal()));
+    }
+  }
+
+  /**
+   * This method stores a user that logged in with OAuth2 in the database if they are not already
+   * there, and makes them an admin if their email is one of the admin emails. It is one statement
+   * on the unique email index, so concurrent logins cannot insert the same user twice; the
+   * statement for the database is chosen from its JDBC metadata.
    *
-   * @param securityContext the security context (provided by Spring)
-   * @param authentication the authentication token (provided by Spring)
-   * @return the User object representing the current user
+   * @param oAuthUser the user as described by the OAuth2 provider
+   * @return the User object representing the user
    */
-  public User getOAuth2AuthenticatedUser(
-      SecurityContext securityContext, Authentication authentication) {
-    OAuth2User oAuthUser = ((OAuth2AuthenticationToken) authentication).getPrincipal();
+  public User upsertUser(OAuth2User oAuthUser) {
     String email = oAuthUser.getAttribute("email");
     String googleSub = oAuthUser.getAttribute("sub");
     String pictureUrl = oAuthUser.getAttribute("picture");
@@ -73,16 +103,6 @@ public class CurrentUserServiceImpl extends CurrentUserService {
     java.util.Map<java.lang.String, java.lang.Object> attrs = oAuthUser.getAttributes();
     log.info("attrs={}", attrs);
 
-    Optional<User> ou = userRepository.findByEmail(email);
-    if (ou.isPresent()) {
-      User u = ou.get();
-      if (adminEmails.contains(email) && !u.getAdmin()) {
-        u.setAdmin(true);
-        userRepository.save(u);
-      }
-      return u;
-    }
-
     User u =
         User.builder()
             .googleSub(googleSub)
@@ -94,25 +114,78 @@ public class CurrentUserServiceImpl extends CurrentUserService {
             .emailVerified(emailVerified)
             .locale(locale)
             .hostedDomain(hostedDomain)
-            .admin(adminEmails.contains(email))
+            .admin(adminStatusService.isAdminEmail(email))
             .build();
-    userRepository.save(u);
-    return u;
+    User stored;
+    try {
+      stored = upsert(u);
+    } catch (DataIntegrityViolationException e) {
+      // H2's MERGE is not atomic: a concurrent login inserted the same email first, so the
+      // second attempt finds and updates that row
+      log.info("Concurrent upsert of {}, retrying: {}", email, e.getMessage());
+      stored = upsert(u);
+    }
+    adminStatusService.update(stored);
+    return stored;
+  }
+
+  private User upsert(User user) {
+    return "H2".equals(databaseProductName())
+        ? userRepository.upsertOnH2(user)
+        : userRepository.upsertOnPostgres(user);
+  }
+
+  private String databaseProductName() {
+    if (databaseProductName == null) {
+      try {
+        databaseProductName =
+            JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+      } catch (MetaDataAccessException e) {
+        throw new IllegalStateException("Could not read the database product name", e);
+      }
+    }
+    return databaseProductName;
   }
 
   /**
-   * This method returns the current user as a User object.
+   * This method returns the current user as a User object, from the session.
    *
    * @return the current user
+   * @throws IllegalStateException if a user is logged in but no request is being handled, since the
+   *     user is kept in the session
    */
   public User getUser() {
-    SecurityContext securityContext = SecurityContextHolder.getContext();
-    Authentication authentication = securityContext.getAuthentication();
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-    if (authentication instanceof OAuth2AuthenticationToken) {
-      return getOAuth2AuthenticatedUser(securityContext, authentication);
+    if (!(authentication instanceof OAuth2AuthenticationToken token)) {
+      return null;
     }
-    return null;
+
+    OAuth2User oAuthUser = token.getPrincipal();
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request == null) {
+      throw new IllegalStateException(
+          "The current user is kept in the session, so it can only be found during a request");
+    }
+    if (!(request.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_SESSION)
+            instanceof User user)
+        || !user.getEmail().equals(oAuthUser.getAttribute("email"))) {
+      // the session started before users were kept in it at login
+      return storeUser(request, upsertUser(oAuthUser));
+    }
+    Optional<Boolean> admin = adminStatusService.cachedAdmin(user.getEmail());
+    if (admin.isPresent() && admin.get() != user.getAdmin()) {
+      // the admin flag changed since the user was kept in the session
+      User reloaded = userRepository.findById(user.getId()).orElseGet(() -> upsertUser(oAuthUser));
+      adminStatusService.update(reloaded);
+      return storeUser(request, reloaded);
+    }
+    return user;
+  }
+
+  private User storeUser(RequestAttributes request, User user) {
+    request.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_SESSION);
+    return user;
   }
 
   /**
@@ -0,0 +1,87 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * This is a service that pushes changes to the queue of unsolved HelpRequests to subscribed clients
+ * as server-sent events.
+ *
+ * <p>A new subscriber first receives a {@code queue} event with the current unsolved requests
+ * (oldest first). After that it receives one event per change: {@code insert}, {@code update},
+ * {@code solve} or {@code delete}, each carrying the affected HelpRequest.
+ */
+@Slf4j
+@Service
+public class HelpRequestEventsService {
+
+  /** Subscriptions end after this long; EventSource clients reconnect automatically. */
+  static final long TIMEOUT_MS = 30 * 60 * 1000L;
+
+  private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+  /**
+   * Subscribes a new client.
+   *
+   * @param queue the current unsolved HelpRequests, oldest first
+   * @return the emitter to return from the controller
+   */
+  public SseEmitter subscribe(Iterable<HelpRequest> queue) {
+    SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+    register(emitter);
+    send(emitter, SseEmitter.event().name("queue").data(queue));
+    return emitter;
+  }
+
+  /**
+   * Pushes a change to every subscriber.
+   *
+   * @param type one of {@code insert}, {@code update}, {@code solve} or {@code delete}
+   * @param helpRequest the HelpRequest that changed
+   */
+  public void publish(String type, HelpRequest helpRequest) {
+    for (SseEmitter emitter : emitters) {
+      send(emitter, SseEmitter.event().name(type).data(helpRequest));
+    }
+  }
+
+  /** Keeps idle connections open through proxies that close silent connections. */
+  @Scheduled(fixedRate = 20_000)
+  public void heartbeat() {
+    for (SseEmitter emitter : emitters) {
+      send(emitter, SseEmitter.event().comment("heartbeat"));
+    }
+  }
+
+  /**
+   * Returns the number of connected subscribers.
+   *
+   * @return the number of subscribers
+   */
+  public int subscriberCount() {
+    return emitters.size();
+  }
+
+  void register(SseEmitter emitter) {
+    emitters.add(emitter);
+    emitter.onCompletion(() -> emitters.remove(emitter));
+    emitter.onTimeout(() -> emitters.remove(emitter));
+    emitter.onError(e -> emitters.remove(emitter));
+  }
+
+  private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+    try {
+      emitter.send(event);
+    } catch (IOException | IllegalStateException e) {
+      // the client went away; drop it rather than failing the write that triggered the event
+      log.debug("dropping help request subscriber: {}", e.getMessage());
+      emitters.remove(emitter);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that periodically finds open RecommendationRequests entering their deadline
+ * window, i.e. whose dateNeeded is now less than {@code app.recommendationRequest.deadlineWindow}
+ * away.
+ *
+ * <p>Each tick claims the open requests due within the window that have not been reported yet with
+ * one UPDATE on the (DONE, DATE_NEEDED, DEADLINE_NOTIFIED_AT) index, which sets their
+ * DEADLINE_NOTIFIED_AT to the time of the tick, and then, only if it claimed any, reads them back
+ * by that time. Requests that were already overdue when first scanned are not reported. The mark
+ * lives on the row, so a restart does not report a request again, and when several instances scan
+ * at once each request is claimed by only one of them. Changing a request's dateNeeded, or
+ * reopening it, clears the mark (see RecommendationRequestController), so it is reported again when
+ * it next enters the window.
+ */
+@Slf4j
+@Service
+public class RecommendationRequestDeadlineService {
+
+  @Autowired private RecommendationRequestRepository recReqRepository;
+
+  @Value("${app.recommendationRequest.deadlineWindow:P3D}")
+  private Duration deadlineWindow = Duration.ofDays(3);
+
+  /** Scans for requests entering their deadline window. */
+  @Scheduled(fixedDelayString = "${app.recommendationRequest.deadlineScanMs:900000}")
+  public void scanDeadlines() {
+    scan(LocalDateTime.now());
+  }
+
+  /**
+   * Claims the open requests due within the deadline window from {@code now} that have not been
+   * reported yet, and reports them.
+   *
+   * @param now the current time
+   * @return the requests this call reported, soonest first
+   */
+  List<RecommendationRequest> scan(LocalDateTime now) {
+    // the precision of the column, so the claimed rows are found by the time they were given
+    LocalDateTime claimedAt = now.truncatedTo(ChronoUnit.MICROS);
+    LocalDateTime horizon = claimedAt.plus(deadlineWindow);
+    if (recReqRepository.markDeadlinesNotified(claimedAt, horizon, claimedAt) == 0) {
+      return List.of();
+    }
+    List<RecommendationRequest> entering =
+        recReqRepository
+            .findByDoneFalseAndDateNeededBetweenAndDeadlineNotifiedAtOrderByDateNeededAsc(
+                claimedAt, horizon, claimedAt);
+    for (RecommendationRequest req : entering) {
+      log.info(
+          "recommendation request {} from {} to {} is due {}",
+          req.getId(),
+          req.getRequesterEmail(),
+          req.getProfessorEmail(),
+          req.getDateNeeded());
+    }
+    return entering;
+  }
+}
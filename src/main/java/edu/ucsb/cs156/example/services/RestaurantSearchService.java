@@ -0,0 +1,232 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that provides typo tolerant search over the name and description of
+ * Restaurants.
+ *
+ * <p>Text is split into trigrams the way PostgreSQL's pg_trgm does it: each lower case word is
+ * padded with two spaces in front and one behind, and every three character window is a trigram. An
+ * in-memory inverted index maps each trigram to the restaurants whose name (or description)
+ * contains it, so a query only looks at restaurants that share at least one trigram with it. The
+ * index is built from the database when the application starts, and is kept current by the
+ * RestaurantsController, which calls {@link #index(Restaurant)} and {@link #remove(long)} on every
+ * write.
+ *
+ * <p>A restaurant matches when its score is at least {@value #MIN_SCORE}. The name scores the
+ * average of its trigram similarity to the query and the fraction of query trigrams it contains;
+ * the description scores half of the fraction of query trigrams it contains, so that name matches
+ * rank first.
+ */
+@Slf4j
+@Service
+public class RestaurantSearchService {
+
+  /** lowest score that counts as a match (the pg_trgm default similarity threshold) */
+  static final double MIN_SCORE = 0.3;
+
+  /** weight of a description match relative to a name match */
+  static final double DESCRIPTION_WEIGHT = 0.5;
+
+  @Autowired private RestaurantRepository restaurantRepository;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Long, Entry> entries = new HashMap<>();
+  private final Map<String, Set<Long>> nameIndex = new HashMap<>();
+  private final Map<String, Set<Long>> descriptionIndex = new HashMap<>();
+
+  private record Entry(
+      Restaurant restaurant, Set<String> nameTrigrams, Set<String> descriptionTrigrams) {}
+
+  private record Match(Restaurant restaurant, double score) {}
+
+  /** Rebuilds the whole index from the database. Runs once when the application starts. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      entries.clear();
+      nameIndex.clear();
+      descriptionIndex.clear();
+      restaurantRepository.findAll().forEach(this::add);
+      log.info("indexed {} restaurants for search", entries.size());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds a restaurant to the index, replacing any previous version with the same id.
+   *
+   * @param restaurant the restaurant to index
+   */
+  public void index(Restaurant restaurant) {
+    lock.writeLock().lock();
+    try {
+      delete(restaurant.getId());
+      add(restaurant);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes a restaurant from the index.
+   *
+   * @param id the id of the restaurant to remove
+   */
+  public void remove(long id) {
+    lock.writeLock().lock();
+    try {
+      delete(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Searches the name and description of all restaurants, tolerating typos.
+   *
+   * @param query the query, e.g. {@code tacco bel}
+   * @param limit the maximum number of results to return
+   * @return the matching restaurants, best match first
+   */
+  public List<Restaurant> search(String query, int limit) {
+    Set<String> queryTrigrams = trigrams(query);
+    if (queryTrigrams.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    lock.readLock().lock();
+    try {
+      // per candidate id: {trigrams shared with the name, trigrams shared with the description}
+      Map<Long, int[]> shared = new HashMap<>();
+      for (String trigram : queryTrigrams) {
+        for (Long id : nameIndex.getOrDefault(trigram, Set.of())) {
+          shared.computeIfAbsent(id, k -> new int[2])[0]++;
+        }
+        for (Long id : descriptionIndex.getOrDefault(trigram, Set.of())) {
+          shared.computeIfAbsent(id, k -> new int[2])[1]++;
+        }
+      }
+
+      List<Match> matches = new ArrayList<>();
+      for (Map.Entry<Long, int[]> candidate : shared.entrySet()) {
+        Entry entry = entries.get(candidate.getKey());
+        double score =
+            score(
+                queryTrigrams.size(),
+                entry.nameTrigrams().size(),
+                candidate.getValue()[0],
+                candidate.getValue()[1]);
+        if (score >= MIN_SCORE) {
+          matches.add(new Match(entry.restaurant(), score));
+        }
+      }
+      return matches.stream()
+          .sorted(
+              Comparator.comparingDouble(Match::score)
+                  .reversed()
+                  .thenComparingLong(match -> match.restaurant().getId()))
+          .limit(limit)
+          .map(Match::restaurant)
+          .toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Scores a restaurant against a query.
+   *
+   * @param queryCount the number of trigrams in the query
+   * @param nameCount the number of trigrams in the name
+   * @param nameShared the number of query trigrams in the name
+   * @param descriptionShared the number of query trigrams in the description
+   * @return the score, between 0 and 1
+   */
+  static double score(int queryCount, int nameCount, int nameShared, int descriptionShared) {
+    double similarity = (double) nameShared / (queryCount + nameCount - nameShared);
+    double nameScore = (similarity + (double) nameShared / queryCount) / 2;
+    double descriptionScore = DESCRIPTION_WEIGHT * descriptionShared / queryCount;
+    return Math.max(nameScore, descriptionScore);
+  }
+
+  /**
+   * Returns the pg_trgm style trigrams of some text.
+   *
+   * @param text the text (may be null)
+   * @return the distinct trigrams
+   */
+  static Set<String> trigrams(String text) {
+    Set<String> trigrams = new HashSet<>();
+    if (text == null) {
+      return trigrams;
+    }
+    String lower = text.toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i <= lower.length(); i++) {
+      boolean inWord = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+      if (inWord && start < 0) {
+        start = i;
+      } else if (!inWord && start >= 0) {
+        String padded = "  " + lower.substring(start, i) + " ";
+        for (int j = 0; j + 3 <= padded.length(); j++) {
+          trigrams.add(padded.substring(j, j + 3));
+        }
+        start = -1;
+      }
+    }
+    return trigrams;
+  }
+
+  private void add(Restaurant restaurant) {
+    Entry entry =
+        new Entry(
+            restaurant, trigrams(restaurant.getName()), trigrams(restaurant.getDescription()));
+    entries.put(restaurant.getId(), entry);
+    for (String trigram : entry.nameTrigrams()) {
+      nameIndex.computeIfAbsent(trigram, t -> new HashSet<>()).add(restaurant.getId());
+    }
+    for (String trigram : entry.descriptionTrigrams()) {
+      descriptionIndex.computeIfAbsent(trigram, t -> new HashSet<>()).add(restaurant.getId());
+    }
+  }
+
+  private void delete(long id) {
+    Entry entry = entries.remove(id);
+    if (entry == null) {
+      return;
+    }
+    unindex(nameIndex, entry.nameTrigrams(), id);
+    unindex(descriptionIndex, entry.descriptionTrigrams(), id);
+  }
+
+  private static void unindex(Map<String, Set<Long>> index, Set<String> trigrams, long id) {
+    for (String trigram : trigrams) {
+      Set<Long> ids = index.get(trigram);
+      ids.remove(id);
+      if (ids.isEmpty()) {
+        index.remove(trigram);
+      }
+    }
+  }
+}
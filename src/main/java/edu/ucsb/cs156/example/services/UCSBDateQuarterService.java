@@ -0,0 +1,69 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that caches the UCSBDates of each quarter.
+ *
+ * <p>Academic calendars change rarely and are read constantly, so each quarter is loaded once and
+ * kept as an immutable list until a write to that quarter calls {@link #invalidate(String)}. A
+ * quarter is loaded inside {@link ConcurrentHashMap#computeIfAbsent}, so an invalidation that races
+ * with a load waits for it and then removes the possibly stale result.
+ *
+ * <p>The cache is local to each server instance; writes made directly to the database, or by
+ * another instance, are not seen until that quarter is invalidated here.
+ */
+@Service
+public class UCSBDateQuarterService {
+
+  private static final Pattern QUARTER = Pattern.compile("\\d{4}[1-4]");
+
+  private static final Comparator<UCSBDate> BY_DATE =
+      Comparator.comparing(
+          UCSBDate::getLocalDateTime, Comparator.nullsLast(Comparator.naturalOrder()));
+
+  @Autowired private UCSBDateRepository ucsbDateRepository;
+
+  private final Map<String, List<UCSBDate>> byQuarter = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the dates of a quarter, in date order.
+   *
+   * @param quarterYYYYQ quarter in the format YYYYQ (e.g. 20241 for Winter 2024)
+   * @return an immutable list of UCSBDates
+   */
+  public List<UCSBDate> getQuarter(String quarterYYYYQ) {
+    if (!QUARTER.matcher(quarterYYYYQ).matches()) {
+      // not a real quarter; don't let arbitrary strings fill the cache
+      return load(quarterYYYYQ);
+    }
+    return byQuarter.computeIfAbsent(quarterYYYYQ, this::load);
+  }
+
+  /**
+   * Drops a quarter from the cache; call this after any write to a date in that quarter.
+   *
+   * @param quarterYYYYQ the quarter that changed (may be null)
+   */
+  public void invalidate(String quarterYYYYQ) {
+    if (quarterYYYYQ != null) {
+      byQuarter.remove(quarterYYYYQ);
+    }
+  }
+
+  private List<UCSBDate> load(String quarterYYYYQ) {
+    List<UCSBDate> dates = new ArrayList<>();
+    ucsbDateRepository.findAllByQuarterYYYYQ(quarterYYYYQ).forEach(dates::add);
+    dates.sort(BY_DATE);
+    return List.copyOf(dates);
+  }
+}
@@ -0,0 +1,171 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.models.DiningCommonsDistance;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that finds the dining commons nearest to a point.
+ *
+ * <p>Commons are kept in a k-d tree over their positions on the unit sphere (x, y, z). Straight
+ * line distance between two points on the sphere grows with great-circle distance, so the k nearest
+ * neighbours in 3D are exactly the k nearest by haversine distance, without the wrap around
+ * problems of splitting on latitude and longitude. The tree is immutable and rebuilt from the
+ * database by {@link #rebuild()} after every write; readers use whichever tree was current when
+ * they started.
+ */
+@Service
+public class UCSBDiningCommonsLocatorService {
+
+  /** mean radius of the earth */
+  static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+  @Autowired private UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  private volatile KdTree tree = KdTree.build(List.of());
+
+  /** Reloads every commons that has a location and replaces the tree. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<UCSBDiningCommons> located = new ArrayList<>();
+    for (UCSBDiningCommons commons : ucsbDiningCommonsRepository.findAll()) {
+      if (commons.getLatitude() != null && commons.getLongitude() != null) {
+        located.add(commons);
+      }
+    }
+    tree = KdTree.build(located);
+  }
+
+  /**
+   * Returns the commons nearest to a point, nearest first. Commons without a location are never
+   * returned.
+   *
+   * @param latitude latitude of the point, in degrees
+   * @param longitude longitude of the point, in degrees
+   * @param k the maximum number of commons to return
+   * @return up to k commons with their distances
+   */
+  public List<DiningCommonsDistance> nearest(double latitude, double longitude, int k) {
+    KdTree current = tree;
+    double[] target = toUnitVector(latitude, longitude);
+    List<DiningCommonsDistance> result = new ArrayList<>();
+    for (int node : current.nearest(target, k)) {
+      double chord = Math.sqrt(squaredDistance(current.points[node], target));
+      result.add(
+          new DiningCommonsDistance(
+              current.commons[node], 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, chord / 2))));
+    }
+    return result;
+  }
+
+  static double[] toUnitVector(double latitude, double longitude) {
+    double lat = Math.toRadians(latitude);
+    double lon = Math.toRadians(longitude);
+    return new double[] {
+      Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)
+    };
+  }
+
+  private static double squaredDistance(double[] a, double[] b) {
+    double dx = a[0] - b[0];
+    double dy = a[1] - b[1];
+    double dz = a[2] - b[2];
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  /**
+   * An implicit k-d tree: the node for the range [lo, hi) is at mid = (lo + hi) / 2, its children
+   * are the ranges [lo, mid) and [mid + 1, hi), and it splits on axis depth % 3.
+   */
+  static final class KdTree {
+    final UCSBDiningCommons[] commons;
+    final double[][] points;
+
+    private KdTree(UCSBDiningCommons[] commons, double[][] points) {
+      this.commons = commons;
+      this.points = points;
+    }
+
+    static KdTree build(List<UCSBDiningCommons> located) {
+      Integer[] order = new Integer[located.size()];
+      double[][] unsorted = new double[located.size()][];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+        UCSBDiningCommons commons = located.get(i);
+        unsorted[i] = toUnitVector(commons.getLatitude(), commons.getLongitude());
+      }
+      arrange(order, unsorted, 0, order.length, 0);
+
+      UCSBDiningCommons[] commons = new UCSBDiningCommons[order.length];
+      double[][] points = new double[order.length][];
+      for (int i = 0; i < order.length; i++) {
+        commons[i] = located.get(order[i]);
+        points[i] = unsorted[order[i]];
+      }
+      return new KdTree(commons, points);
+    }
+
+    private static void arrange(Integer[] order, double[][] points, int lo, int hi, int depth) {
+      if (hi - lo <= 1) {
+        return;
+      }
+      int axis = depth % 3;
+      Arrays.sort(order, lo, hi, Comparator.comparingDouble(i -> points[i][axis]));
+      int mid = (lo + hi) >>> 1;
+      arrange(order, points, lo, mid, depth + 1);
+      arrange(order, points, mid + 1, hi, depth + 1);
+    }
+
+    /** Returns the indexes of the k nodes nearest to target, nearest first. */
+    List<Integer> nearest(double[] target, int k) {
+      if (k <= 0) {
+        return List.of();
+      }
+      // farthest of the best k so far on top
+      PriorityQueue<double[]> best =
+          new PriorityQueue<>(Comparator.comparingDouble((double[] e) -> e[0]).reversed());
+      search(target, k, 0, points.length, 0, best);
+
+      List<double[]> sorted = new ArrayList<>(best);
+      sorted.sort(Comparator.comparingDouble((double[] e) -> e[0]).thenComparingDouble(e -> e[1]));
+      List<Integer> nodes = new ArrayList<>(sorted.size());
+      for (double[] entry : sorted) {
+        nodes.add((int) entry[1]);
+      }
+      return nodes;
+    }
+
+    private void search(
+        double[] target, int k, int lo, int hi, int depth, PriorityQueue<double[]> best) {
+      if (lo >= hi) {
+        return;
+      }
+      int mid = (lo + hi) >>> 1;
+      double distance = squaredDistance(points[mid], target);
+      if (best.size() < k) {
+        best.add(new double[] {distance, mid});
+      } else if (distance < best.peek()[0]) {
+        best.poll();
+        best.add(new double[] {distance, mid});
+      }
+
+      int axis = depth % 3;
+      double delta = target[axis] - points[mid][axis];
+      boolean leftFirst = delta < 0;
+      search(target, k, leftFirst ? lo : mid + 1, leftFirst ? mid : hi, depth + 1, best);
+      // the far side can only hold something closer if the splitting plane is within reach
+      if (best.size() < k || delta * delta < best.peek()[0]) {
+        search(target, k, leftFirst ? mid + 1 : lo, leftFirst ? hi : mid, depth + 1, best);
+      }
+    }
+  }
+}
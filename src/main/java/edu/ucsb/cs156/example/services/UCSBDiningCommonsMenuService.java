@@ -0,0 +1,71 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that builds and caches the menu of each dining commons, i.e. its menu items
+ * grouped by station.
+ *
+ * <p>Each menu is loaded with one indexed query and kept until a write to one of that commons'
+ * items calls {@link #invalidate(String)}. Loads run inside {@link
+ * ConcurrentHashMap#computeIfAbsent}, so an invalidation that races with a load removes the
+ * possibly stale result. Only commons that have menu items are cached.
+ */
+@Service
+public class UCSBDiningCommonsMenuService {
+
+  @Autowired private UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  private final Map<String, Map<String, List<UCSBDiningCommonsMenuItem>>> menus =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns the menu of a dining commons.
+   *
+   * @param diningCommonsCode the code of the dining commons
+   * @return an immutable map from station (in order) to the items at that station (by name)
+   */
+  public Map<String, List<UCSBDiningCommonsMenuItem>> getMenu(String diningCommonsCode) {
+    Map<String, List<UCSBDiningCommonsMenuItem>> menu =
+        menus.computeIfAbsent(diningCommonsCode, this::load);
+    return menu == null ? Map.of() : menu;
+  }
+
+  /**
+   * Drops a commons' menu from the cache; call this after any write to one of its items.
+   *
+   * @param diningCommonsCode the commons that changed (may be null)
+   */
+  public void invalidate(String diningCommonsCode) {
+    if (diningCommonsCode != null) {
+      menus.remove(diningCommonsCode);
+    }
+  }
+
+  /** Returns null for a commons with no items, so that it is not cached. */
+  private Map<String, List<UCSBDiningCommonsMenuItem>> load(String diningCommonsCode) {
+    Map<String, List<UCSBDiningCommonsMenuItem>> byStation = new LinkedHashMap<>();
+    for (UCSBDiningCommonsMenuItem item :
+        ucsbDiningCommonsMenuItemRepository.findByDiningCommonsCodeOrderByStationAscNameAsc(
+            diningCommonsCode)) {
+      byStation
+          .computeIfAbsent(Objects.toString(item.getStation(), ""), station -> new ArrayList<>())
+          .add(item);
+    }
+    if (byStation.isEmpty()) {
+      return null;
+    }
+    byStation.replaceAll((station, items) -> List.copyOf(items));
+    return Collections.unmodifiableMap(byStation);
+  }
+}
@@ -0,0 +1,92 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This is a service that replaces the menu of one dining commons with a full snapshot.
+ *
+ * <p>The snapshot is compared in memory with the current rows, keyed by (name, station) within the
+ * commons. Rows that are still on the menu are left untouched; only the differences are written, as
+ * one DELETE statement and one batch of inserts in a single transaction. Duplicate rows left behind
+ * by re-posting items one at a time are removed along the way.
+ */
+@Service
+public class UCSBDiningCommonsMenuSnapshotService {
+
+  /**
+   * What a snapshot changed.
+   *
+   * @param inserted number of items added
+   * @param deleted number of rows removed
+   * @param unchanged number of items that were already on the menu
+   */
+  public record Result(int inserted, int deleted, int unchanged) {}
+
+  /** identifies a menu item within one commons */
+  record Key(String name, String station) {
+    static Key of(UCSBDiningCommonsMenuItem item) {
+      return new Key(item.getName(), item.getStation());
+    }
+  }
+
+  @Autowired private UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  /**
+   * Makes the menu of a commons match a snapshot. The id and diningCommonsCode of the snapshot
+   * items are ignored.
+   *
+   * @param diningCommonsCode the commons whose menu is replaced
+   * @param snapshot every item now on that commons' menu
+   * @return the number of items inserted, deleted and left unchanged
+   */
+  @Transactional
+  public Result applySnapshot(
+      String diningCommonsCode, Collection<UCSBDiningCommonsMenuItem> snapshot) {
+    Set<Key> wanted = new LinkedHashSet<>();
+    for (UCSBDiningCommonsMenuItem item : snapshot) {
+      wanted.add(Key.of(item));
+    }
+
+    Set<Key> kept = new HashSet<>();
+    List<Long> deletes = new ArrayList<>();
+    for (UCSBDiningCommonsMenuItem current :
+        ucsbDiningCommonsMenuItemRepository.findByDiningCommonsCodeOrderByStationAscNameAsc(
+            diningCommonsCode)) {
+      Key key = Key.of(current);
+      if (!wanted.contains(key) || !kept.add(key)) {
+        // off the menu, or a duplicate of a row we are keeping
+        deletes.add(current.getId());
+      }
+    }
+
+    List<UCSBDiningCommonsMenuItem> inserts = new ArrayList<>();
+    for (Key key : wanted) {
+      if (!kept.contains(key)) {
+        inserts.add(
+            UCSBDiningCommonsMenuItem.builder()
+                .diningCommonsCode(diningCommonsCode)
+                .name(key.name())
+                .station(key.station())
+                .build());
+      }
+    }
+
+    if (!deletes.isEmpty()) {
+      ucsbDiningCommonsMenuItemRepository.deleteByIds(deletes);
+    }
+    if (!inserts.isEmpty()) {
+      ucsbDiningCommonsMenuItemRepository.saveAll(inserts);
+    }
+    return new Result(inserts.size(), deletes.size(), kept.size());
+  }
+}
@@ -0,0 +1,164 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that suggests UCSBOrganizations whose orgCode, orgTranslationShort or
+ * orgTranslation starts with a prefix.
+ *
+ * <p>Every field is indexed from its start ("leading" keys) and from the start of each later word
+ * ("inner" keys), in two sorted arrays. A lookup binary searches each array for the prefix and
+ * walks forward while keys still match, so it touches only matching keys and allocates little more
+ * than the result list. Leading matches are suggested before inner ones. The index is immutable and
+ * rebuilt by {@link #rebuild()} after every write.
+ */
+@Service
+public class UCSBOrganizationAutocompleteService {
+
+  /** upper bound on suggestions per lookup */
+  static final int MAX_LIMIT = 50;
+
+  @Autowired private UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  private volatile Index index = Index.build(List.of());
+
+  /** Reloads every organization and replaces the index. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<UCSBOrganization> organizations = new ArrayList<>();
+    ucsbOrganizationRepository.findAll().forEach(organizations::add);
+    index = Index.build(organizations);
+  }
+
+  /**
+   * Suggests organizations for a prefix.
+   *
+   * @param prefix the text typed so far (case insensitive)
+   * @param limit the maximum number of suggestions (at most {@value #MAX_LIMIT})
+   * @param inactive if not null, only suggest organizations with this inactive flag
+   * @return matching organizations, leading matches first, each in key order
+   */
+  public List<UCSBOrganization> suggest(String prefix, int limit, Boolean inactive) {
+    Index current = index;
+    String key = normalize(prefix).strip();
+    int max = Math.min(limit, MAX_LIMIT);
+    List<UCSBOrganization> result = new ArrayList<>(Math.max(max, 0));
+    if (key.isEmpty()) {
+      return result;
+    }
+    current.collect(current.leadingKeys, current.leadingOrgs, key, max, inactive, result);
+    current.collect(current.innerKeys, current.innerOrgs, key, max, inactive, result);
+    return result;
+  }
+
+  static String normalize(String text) {
+    return text == null ? "" : text.toLowerCase(Locale.ROOT);
+  }
+
+  static final class Index {
+    private final UCSBOrganization[] organizations;
+    final String[] leadingKeys;
+    final int[] leadingOrgs;
+    final String[] innerKeys;
+    final int[] innerOrgs;
+
+    private Index(UCSBOrganization[] organizations, List<Entry> leading, List<Entry> inner) {
+      this.organizations = organizations;
+      leading.sort(Entry.ORDER);
+      inner.sort(Entry.ORDER);
+      leadingKeys = leading.stream().map(Entry::key).toArray(String[]::new);
+      leadingOrgs = leading.stream().mapToInt(Entry::organization).toArray();
+      innerKeys = inner.stream().map(Entry::key).toArray(String[]::new);
+      innerOrgs = inner.stream().mapToInt(Entry::organization).toArray();
+    }
+
+    private record Entry(String key, int organization) {
+      static final Comparator<Entry> ORDER =
+          Comparator.comparing(Entry::key).thenComparingInt(Entry::organization);
+    }
+
+    static Index build(List<UCSBOrganization> unordered) {
+      UCSBOrganization[] organizations =
+          unordered.stream()
+              .sorted(Comparator.comparing(UCSBOrganization::getOrgCode))
+              .toArray(UCSBOrganization[]::new);
+      List<Entry> leading = new ArrayList<>();
+      List<Entry> inner = new ArrayList<>();
+      for (int i = 0; i < organizations.length; i++) {
+        UCSBOrganization organization = organizations[i];
+        for (String field :
+            new String[] {
+              organization.getOrgCode(),
+              organization.getOrgTranslationShort(),
+              organization.getOrgTranslation()
+            }) {
+          addKeys(normalize(field), i, leading, inner);
+        }
+      }
+      return new Index(organizations, leading, inner);
+    }
+
+    private static void addKeys(
+        String field, int organization, List<Entry> leading, List<Entry> inner) {
+      boolean first = true;
+      for (int start = 0; start < field.length(); start++) {
+        boolean wordStart =
+            Character.isLetterOrDigit(field.charAt(start))
+                && (start == 0 || !Character.isLetterOrDigit(field.charAt(start - 1)));
+        if (wordStart) {
+          (first ? leading : inner).add(new Entry(field.substring(start), organization));
+          first = false;
+        }
+      }
+    }
+
+    void collect(
+        String[] keys,
+        int[] orgs,
+        String prefix,
+        int limit,
+        Boolean inactive,
+        List<UCSBOrganization> result) {
+      int i = lowerBound(keys, prefix);
+      for (; i < keys.length && result.size() < limit && keys[i].startsWith(prefix); i++) {
+        UCSBOrganization organization = organizations[orgs[i]];
+        if ((inactive == null || organization.getInactive() == inactive)
+            && !containsSame(result, organization)) {
+          result.add(organization);
+        }
+      }
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+      int found = Arrays.binarySearch(keys, prefix);
+      if (found < 0) {
+        return -found - 1;
+      }
+      // step back over equal keys so none are skipped
+      while (found > 0 && keys[found - 1].equals(prefix)) {
+        found--;
+      }
+      return found;
+    }
+
+    private static boolean containsSame(
+        List<UCSBOrganization> result, UCSBOrganization organization) {
+      for (UCSBOrganization existing : result) {
+        if (existing == organization) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -3,8 +3,8 @@ package edu.ucsb.cs156.example.services.jobs;
 import edu.ucsb.cs156.example.entities.Job;
 import edu.ucsb.cs156.example.repositories.JobsRepository;
 import edu.ucsb.cs156.example.services.CurrentUserService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -14,13 +14,15 @@ public class JobService {
 
   @Autowired private CurrentUserService currentUserService;
 
-  @Lazy @Autowired private JobService self;
+  // the @Async proxy of this service; looked up on use rather than injected as a @Lazy proxy,
+  // whose generated class would clash with the @Async proxy's in an AOT-processed build
+  @Autowired private ObjectProvider<JobService> self;
 
   public Job runAsJob(JobContextConsumer jobFunction) {
     Job job = Job.builder().createdBy(currentUserService.getUser()).status("running").build();
 
     jobsRepository.save(job);
-    self.runJobAsync(job, jobFunction);
+    self.getObject().runJobAsync(job, jobFunction);
 
     return job;
   }
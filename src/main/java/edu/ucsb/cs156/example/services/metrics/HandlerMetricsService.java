@@ -0,0 +1,194 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import edu.ucsb.cs156.example.models.HandlerLatency;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is a service that keeps a latency histogram, status counts and SQL statement counts for
+ * every controller method, fed by {@link edu.ucsb.cs156.example.aop.LoggingAspect}.
+ *
+ * <p>Handlers are keyed by an object that identifies them (the aspect uses the {@code Method}), so
+ * recording a request does no string work and allocates nothing once the handler has been seen.
+ */
+@Slf4j
+@Service
+public class HandlerMetricsService {
+
+  /** The statistics of one handler. */
+  public static final class Handler {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    // index is status - 100; anything outside 100-599 is counted as 599
+    private final AtomicLongArray statuses = new AtomicLongArray(500);
+    private final LongAdder sqlStatements = new LongAdder();
+    private final LongAdder dbMicros = new LongAdder();
+    private final LongAccumulator maxSqlStatements = new LongAccumulator(Math::max, 0);
+
+    private Handler(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Records one request.
+     *
+     * @param micros how long the handler took, in microseconds
+     * @param status the HTTP status of the response
+     */
+    public void record(long micros, int status) {
+      latency.record(micros);
+      int index = status < 100 || status > 599 ? 499 : status - 100;
+      statuses.incrementAndGet(index);
+    }
+
+    /**
+     * Records the SQL run by one request.
+     *
+     * @param statements the number of statements
+     * @param micros the time spent executing them, in microseconds
+     */
+    public void recordSql(long statements, long micros) {
+      sqlStatements.add(statements);
+      dbMicros.add(micros);
+      maxSqlStatements.accumulate(statements);
+    }
+
+    private HandlerLatency snapshot() {
+      Map<String, Long> byStatus = new LinkedHashMap<>();
+      for (int i = 0; i < statuses.length(); i++) {
+        long count = statuses.get(i);
+        if (count > 0) {
+          byStatus.put(Integer.toString(i + 100), count);
+        }
+      }
+      long count = latency.getCount();
+      return HandlerLatency.builder()
+          .handler(name)
+          .count(count)
+          .meanMicros(latency.getMean())
+          .p50Micros(latency.getValueAtPercentile(50))
+          .p99Micros(latency.getValueAtPercentile(99))
+          .p999Micros(latency.getValueAtPercentile(99.9))
+          .maxMicros(latency.getMax())
+          .statuses(byStatus)
+          .meanSqlStatements(count == 0 ? 0 : (double) sqlStatements.sum() / count)
+          .maxSqlStatements(maxSqlStatements.get())
+          .meanDbMicros(count == 0 ? 0 : (double) dbMicros.sum() / count)
+          .build();
+    }
+  }
+
+  private final Map<Object, Handler> handlers = new ConcurrentHashMap<>();
+
+  @Value("${app.sql.budget:0}")
+  int sqlBudget = 0;
+
+  @Value("${app.sql.maxRepeats:0}")
+  int sqlMaxRepeats = 0;
+
+  @Value("${app.sql.failOverBudget:false}")
+  boolean failOverBudget = false;
+
+  // calls over budget, kept for the tests when failOverBudget is set
+  private static final int MAX_VIOLATIONS = 100;
+  private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Returns the statistics of a handler, creating them the first time the handler is seen.
+   *
+   * @param key identifies the handler
+   * @param name the name to report the handler under, computed only for a new handler
+   * @return the handler's statistics
+   */
+  public Handler handler(Object key, Function<Object, String> name) {
+    Handler handler = handlers.get(key);
+    if (handler == null) {
+      handler = handlers.computeIfAbsent(key, k -> new Handler(name.apply(k)));
+    }
+    return handler;
+  }
+
+  /**
+   * Returns the statistics of every handler that has been called, busiest first.
+   *
+   * @return one entry per handler
+   */
+  public List<HandlerLatency> snapshot() {
+    List<HandlerLatency> result = new ArrayList<>();
+    for (Handler handler : handlers.values()) {
+      result.add(handler.snapshot());
+    }
+    result.sort(
+        Comparator.comparingLong(HandlerLatency::getCount)
+            .reversed()
+            .thenComparing(HandlerLatency::getHandler));
+    return result;
+  }
+
+  /**
+   * Checks one call of a handler against the SQL budget: at most {@code app.sql.budget} statements,
+   * and no statement repeated more than {@code app.sql.maxRepeats} times in a row (a likely N+1
+   * query). A limit of 0 is not checked. A call over budget is logged as a warning; if {@code
+   * app.sql.failOverBudget} is set (as it is in the integration profile) it is also kept, until
+   * {@link #takeSqlBudgetViolations()}, so that the test that made the call can fail. The response
+   * is never changed.
+   *
+   * @param handler the handler
+   * @param statements the number of statements the call ran
+   * @param longestRepeat the longest run of one statement repeated back to back
+   */
+  public void checkSqlBudget(Handler handler, long statements, int longestRepeat) {
+    String problem = null;
+    if (sqlBudget > 0 && statements > sqlBudget) {
+      problem =
+          "%s ran %d SQL statements (budget %d)".formatted(handler.name, statements, sqlBudget);
+    } else if (sqlMaxRepeats > 0 && longestRepeat > sqlMaxRepeats) {
+      problem =
+          "%s ran the same SQL statement %d times in a row, a likely N+1 query (limit %d)"
+              .formatted(handler.name, longestRepeat, sqlMaxRepeats);
+    }
+    if (problem == null) {
+      return;
+    }
+    log.warn(problem);
+    if (failOverBudget && violations.size() < MAX_VIOLATIONS) {
+      violations.add(problem);
+    }
+  }
+
+  /**
+   * Returns the calls over the SQL budget kept since the last call, and forgets them. Only calls
+   * made while {@code app.sql.failOverBudget} is set are kept.
+   *
+   * @return one message per call over budget, oldest first
+   */
+  public List<String> takeSqlBudgetViolations() {
+    List<String> taken = new ArrayList<>();
+    for (String problem = violations.poll(); problem != null; problem = violations.poll()) {
+      taken.add(problem);
+    }
+    return taken;
+  }
+
+  /** Forgets all statistics. */
+  public void reset() {
+    handlers.clear();
+  }
+}
@@ -0,0 +1,103 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, thread-safe latency histogram in the style of HdrHistogram.
+ *
+ * <p>Values (microseconds) below {@value #SUB_BUCKETS} get a bucket each. Above that, every power
+ * of two is split into {@value #HALF} equal buckets, so a bucket is never wider than about 1.6% of
+ * the values in it. Recording a value is one array increment plus three counter updates; nothing is
+ * allocated. Values above {@link #MAX_VALUE} (about 19 hours) are recorded as {@link #MAX_VALUE}.
+ */
+public class LatencyHistogram {
+
+  static final int SUB_BITS = 7;
+  static final int SUB_BUCKETS = 1 << SUB_BITS;
+  static final int HALF = SUB_BUCKETS / 2;
+  static final long MAX_VALUE = (1L << 36) - 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final LongAdder totalValue = new LongAdder();
+  private final LongAccumulator maxValue = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records one value.
+   *
+   * @param micros the value in microseconds; negative values are recorded as 0
+   */
+  public void record(long micros) {
+    long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+    counts.incrementAndGet(indexOf(value));
+    totalValue.add(value);
+    maxValue.accumulate(value);
+    totalCount.incrementAndGet();
+  }
+
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  public long getMax() {
+    return maxValue.get();
+  }
+
+  /**
+   * Returns the mean of the recorded values.
+   *
+   * @return the mean in microseconds, or 0 if nothing was recorded
+   */
+  public double getMean() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : (double) totalValue.sum() / count;
+  }
+
+  /**
+   * Returns the value at a percentile: the highest value in the bucket that holds it, so the result
+   * is never below the true value.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the value in microseconds, or 0 if nothing was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    long total = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      total += counts.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+    long seen = 0;
+    int i = 0;
+    while (true) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(highestEquivalentValue(i), getMax());
+      }
+      i++;
+    }
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    // shift so that the value's top SUB_BITS bits are left, i.e. a number in [HALF, SUB_BUCKETS)
+    int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+    return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKETS) / HALF + 1;
+    long sub = (index - SUB_BUCKETS) % HALF + HALF;
+    return ((sub + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,82 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate runs on each thread, and the time spent executing them.
+ *
+ * <p>Hibernate calls {@link #inspect(String)} for every statement it prepares (see {@code
+ * hibernate.session_factory.statement_inspector} in application.properties), and {@link
+ * SqlTimingListener} reports execution times. The totals only ever grow. To measure a request or a
+ * handler, read them before and after and subtract.
+ *
+ * <p>It also tracks the longest run of one statement repeated back to back since {@link
+ * #resetRepeats()}. That is the signature of an N+1 query: the same select issued once per row of
+ * an earlier result.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+  private static final class Totals {
+    private long statements;
+    private long nanos;
+    private String lastSql;
+    private int run;
+    private int longestRun;
+  }
+
+  private static final ThreadLocal<Totals> TOTALS = ThreadLocal.withInitial(Totals::new);
+
+  @Override
+  public String inspect(String sql) {
+    Totals totals = TOTALS.get();
+    totals.statements++;
+    if (sql.equals(totals.lastSql)) {
+      totals.run++;
+    } else {
+      totals.lastSql = sql;
+      totals.run = 1;
+    }
+    totals.longestRun = Math.max(totals.longestRun, totals.run);
+    return sql;
+  }
+
+  /**
+   * Returns the number of statements prepared on this thread so far.
+   *
+   * @return the number of statements
+   */
+  public static long statements() {
+    return TOTALS.get().statements;
+  }
+
+  /**
+   * Returns the time spent executing statements on this thread so far.
+   *
+   * @return the time in nanoseconds
+   */
+  public static long nanos() {
+    return TOTALS.get().nanos;
+  }
+
+  /**
+   * Returns the longest run of one statement repeated back to back since the last {@link
+   * #resetRepeats()}.
+   *
+   * @return the length of the run
+   */
+  public static int longestRepeat() {
+    return TOTALS.get().longestRun;
+  }
+
+  /** Starts tracking repeated statements afresh, e.g. at the start of a handler. */
+  public static void resetRepeats() {
+    Totals totals = TOTALS.get();
+    totals.lastSql = null;
+    totals.run = 0;
+    totals.longestRun = 0;
+  }
+
+  static void addNanos(long nanos) {
+    TOTALS.get().nanos += nanos;
+  }
+}
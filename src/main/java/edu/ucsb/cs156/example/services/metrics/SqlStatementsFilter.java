@@ -0,0 +1,54 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Adds the number of SQL statements a request ran, and the time they took, as the {@value
+ * #COUNT_HEADER} and {@value #TIME_HEADER} response headers. Enabled by {@code
+ * app.sql.headers=true}, which the development profiles set.
+ *
+ * <p>Headers are added just before the response is committed, so statements run while the body is
+ * being written are not included.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sql.headers", havingValue = "true")
+public class SqlStatementsFilter extends OncePerRequestFilter {
+
+  /** number of statements */
+  public static final String COUNT_HEADER = "X-SQL-Count";
+
+  /** time spent executing statements, in microseconds */
+  public static final String TIME_HEADER = "X-SQL-Time-Micros";
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long statements = SqlStatementCounter.statements();
+    long nanos = SqlStatementCounter.nanos();
+    OnCommittedResponseWrapper wrapper =
+        new OnCommittedResponseWrapper(response) {
+          @Override
+          protected void onResponseCommitted() {
+            addHeaders(response, statements, nanos);
+          }
+        };
+    filterChain.doFilter(request, wrapper);
+    if (!wrapper.isCommitted()) {
+      addHeaders(response, statements, nanos);
+    }
+  }
+
+  private static void addHeaders(HttpServletResponse response, long statements, long nanos) {
+    response.setHeader(COUNT_HEADER, Long.toString(SqlStatementCounter.statements() - statements));
+    response.setHeader(TIME_HEADER, Long.toString((SqlStatementCounter.nanos() - nanos) / 1000));
+  }
+}
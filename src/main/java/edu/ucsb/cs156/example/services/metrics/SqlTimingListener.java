@@ -0,0 +1,45 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import java.util.function.LongSupplier;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the time Hibernate spends executing statements and batches to {@link SqlStatementCounter}.
+ *
+ * <p>Hibernate creates one listener per session (see {@code hibernate.session.events.auto} in
+ * application.properties); a session is only used by one thread at a time.
+ */
+public class SqlTimingListener extends BaseSessionEventListener {
+
+  private final LongSupplier nanoTime;
+  private long start;
+
+  /** Creates a listener; called by Hibernate for every session. */
+  public SqlTimingListener() {
+    this(System::nanoTime);
+  }
+
+  SqlTimingListener(LongSupplier nanoTime) {
+    this.nanoTime = nanoTime;
+  }
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    start = nanoTime.getAsLong();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    SqlStatementCounter.addNanos(nanoTime.getAsLong() - start);
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    start = nanoTime.getAsLong();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    SqlStatementCounter.addNanos(nanoTime.getAsLong() - start);
+  }
+}
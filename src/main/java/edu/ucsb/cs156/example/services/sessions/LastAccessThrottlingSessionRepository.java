@@ -0,0 +1,133 @@
+package edu.ucsb.cs156.example.services.sessions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+/**
+ * Wraps a session repository so that reading a session only records the access time if the recorded
+ * one is at least {@code interval} old.
+ *
+ * <p>Spring Session sets the last access time of the session on every request that uses it, and the
+ * database store then updates the session's row when the request completes, even if nothing else
+ * changed. With this wrapper, a request within {@code interval} of the recorded access leaves the
+ * session unchanged, so nothing is written; changes to attributes, the id or the timeout are saved
+ * as usual. In exchange, a session may expire up to {@code interval} earlier than it would
+ * otherwise.
+ *
+ * @param <S> the type of the wrapped repository's sessions
+ */
+public class LastAccessThrottlingSessionRepository<S extends Session>
+    implements SessionRepository<LastAccessThrottlingSessionRepository.ThrottledSession<S>> {
+
+  private final SessionRepository<S> delegate;
+  private final Duration interval;
+
+  /**
+   * @param delegate the repository that stores the sessions
+   * @param interval how old the recorded access time must be to record a new one; zero records
+   *     every access
+   */
+  public LastAccessThrottlingSessionRepository(SessionRepository<S> delegate, Duration interval) {
+    this.delegate = delegate;
+    this.interval = interval;
+  }
+
+  @Override
+  public ThrottledSession<S> createSession() {
+    return new ThrottledSession<>(delegate.createSession(), interval);
+  }
+
+  @Override
+  public void save(ThrottledSession<S> session) {
+    delegate.save(session.delegate);
+  }
+
+  @Override
+  public ThrottledSession<S> findById(String id) {
+    S session = delegate.findById(id);
+    return session == null ? null : new ThrottledSession<>(session, interval);
+  }
+
+  @Override
+  public void deleteById(String id) {
+    delegate.deleteById(id);
+  }
+
+  /** A session that ignores access times within {@code interval} of the recorded one. */
+  public static class ThrottledSession<S extends Session> implements Session {
+
+    private final S delegate;
+    private final Duration interval;
+
+    ThrottledSession(S delegate, Duration interval) {
+      this.delegate = delegate;
+      this.interval = interval;
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+      if (Duration.between(delegate.getLastAccessedTime(), lastAccessedTime).compareTo(interval)
+          >= 0) {
+        delegate.setLastAccessedTime(lastAccessedTime);
+      }
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+      return delegate.getLastAccessedTime();
+    }
+
+    @Override
+    public String getId() {
+      return delegate.getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+      return delegate.changeSessionId();
+    }
+
+    @Override
+    public <T> T getAttribute(String attributeName) {
+      return delegate.getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return delegate.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+      delegate.setAttribute(attributeName, attributeValue);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+      delegate.removeAttribute(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+      return delegate.getCreationTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+      delegate.setMaxInactiveInterval(interval);
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+      return delegate.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+      return delegate.isExpired();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package edu.ucsb.cs156.example.services.sessions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+
+/**
+ * Turns session attribute values into bytes and back, for the database session store.
+ *
+ * <p>Values are written with Java serialization, which everything Spring Security keeps in the
+ * session supports. Values longer than {@value #DEFLATE_THRESHOLD} bytes (such as a serialized
+ * SecurityContext) are deflated, which typically halves them. The first byte of the result says
+ * which form follows.
+ */
+public class SessionAttributeCodec implements Serializer<Object>, Deserializer<Object> {
+
+  /** serialized values at least this long are deflated */
+  static final int DEFLATE_THRESHOLD = 256;
+
+  static final byte PLAIN = 0;
+  static final byte DEFLATED = 1;
+
+  private final ClassLoader classLoader;
+
+  /**
+   * @param classLoader the class loader to load the classes of deserialized values with
+   */
+  public SessionAttributeCodec(ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
+  @Override
+  public void serialize(Object value, OutputStream out) throws IOException {
+    ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+      objects.writeObject(value);
+    }
+    byte[] bytes = serialized.toByteArray();
+
+    if (bytes.length < DEFLATE_THRESHOLD) {
+      out.write(PLAIN);
+      out.write(bytes);
+      return;
+    }
+    out.write(DEFLATED);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      byte[] buffer = new byte[1024];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+    } finally {
+      deflater.end();
+    }
+  }
+
+  @Override
+  public Object deserialize(InputStream in) throws IOException {
+    int form = in.read();
+    Inflater inflater = form == DEFLATED ? new Inflater() : null;
+    if (form != PLAIN && inflater == null) {
+      throw new IOException("unknown session attribute encoding " + form);
+    }
+    try (ObjectInputStream objects =
+        new ConfigurableObjectInputStream(
+            inflater == null ? in : new InflaterInputStream(in, inflater), classLoader)) {
+      return objects.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("session attribute cannot be deserialized", e);
+    } finally {
+      if (inflater != null) {
+        inflater.end();
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.UUID;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class ChangelogDigestPostProcessorTests {
+
+  private DriverManagerDataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  public void setUp() {
+    dataSource =
+        new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  private SpringLiquibase liquibase(String contexts) {
+    SpringLiquibase liquibase = new SpringLiquibase();
+    liquibase.setDataSource(dataSource);
+    liquibase.setChangeLog("classpath:db/digest/changelog.json");
+    liquibase.setContexts(contexts);
+    return liquibase;
+  }
+
+  /** Starts Liquibase the way the application context would. */
+  private void start(ChangelogDigestPostProcessor processor, SpringLiquibase liquibase)
+      throws Exception {
+    processor.postProcessBeforeInitialization(liquibase, "liquibase");
+    liquibase.afterPropertiesSet();
+    processor.postProcessAfterInitialization(liquibase, "liquibase");
+  }
+
+  private int changeSetsRun() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM DATABASECHANGELOG", Integer.class);
+  }
+
+  private String recordedDigest() {
+    return jdbcTemplate.queryForObject("SELECT DIGEST FROM CHANGELOG_DIGEST", String.class);
+  }
+
+  @Test
+  public void first_start_runs_liquibase_and_records_the_digest() throws Exception {
+    SpringLiquibase liquibase = liquibase(null);
+
+    start(new ChangelogDigestPostProcessor(true), liquibase);
+
+    assertEquals(1, changeSetsRun());
+    assertEquals(ChangelogDigestPostProcessor.digest(liquibase), recordedDigest());
+  }
+
+  @Test
+  public void unchanged_changelog_skips_liquibase() throws Exception {
+    ChangelogDigestPostProcessor processor = new ChangelogDigestPostProcessor(true);
+    start(processor, liquibase(null));
+    // Liquibase would run the change set again if it looked
+    jdbcTemplate.update("DELETE FROM DATABASECHANGELOG");
+
+    start(processor, liquibase(null));
+
+    assertEquals(0, changeSetsRun());
+  }
+
+  @Test
+  public void changed_settings_run_liquibase_and_record_the_new_digest() throws Exception {
+    ChangelogDigestPostProcessor processor = new ChangelogDigestPostProcessor(true);
+    start(processor, liquibase(null));
+    String first = recordedDigest();
+    jdbcTemplate.update("DELETE FROM DATABASECHANGELOG");
+
+    start(processor, liquibase("test"));
+
+    assertEquals(1, changeSetsRun());
+    assertNotEquals(first, recordedDigest());
+  }
+
+  @Test
+  public void drop_first_always_runs_liquibase() throws Exception {
+    ChangelogDigestPostProcessor processor = new ChangelogDigestPostProcessor(true);
+    start(processor, liquibase(null));
+    jdbcTemplate.update("DELETE FROM DATABASECHANGELOG");
+    SpringLiquibase liquibase = liquibase(null);
+    liquibase.setDropFirst(true);
+
+    start(processor, liquibase);
+
+    assertEquals(1, changeSetsRun());
+  }
+
+  @Test
+  public void disabled_always_runs_liquibase() throws Exception {
+    start(new ChangelogDigestPostProcessor(true), liquibase(null));
+    jdbcTemplate.update("DELETE FROM DATABASECHANGELOG");
+
+    start(new ChangelogDigestPostProcessor(false), liquibase(null));
+
+    assertEquals(1, changeSetsRun());
+  }
+
+  @Test
+  public void directory_is_that_of_the_master_changelog() {
+    assertEquals("db/migration/", ChangelogDigestPostProcessor.directory("db/migration/a.json"));
+    assertEquals("db/", ChangelogDigestPostProcessor.directory("classpath:/db/a.json"));
+    assertEquals("", ChangelogDigestPostProcessor.directory("classpath*:a.json"));
+  }
+
+  @Test
+  public void digest_depends_on_the_settings() throws Exception {
+    assertEquals(
+        ChangelogDigestPostProcessor.digest(liquibase(null)),
+        ChangelogDigestPostProcessor.digest(liquibase(null)));
+    assertNotEquals(
+        ChangelogDigestPostProcessor.digest(liquibase(null)),
+        ChangelogDigestPostProcessor.digest(liquibase("test")));
+  }
+}
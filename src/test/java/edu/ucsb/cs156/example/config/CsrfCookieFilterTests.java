@@ -0,0 +1,94 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import jakarta.servlet.http.Cookie;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.csrf.CsrfToken;
+
+public class CsrfCookieFilterTests {
+
+  private final CsrfCookieFilter filter = new CsrfCookieFilter(List.of("/api/**"));
+
+  private static MockHttpServletRequest request(String method, String uri) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+    request.setServletPath(uri);
+    return request;
+  }
+
+  private static MockHttpServletRequest withCookie(MockHttpServletRequest request, String value) {
+    request.setCookies(new Cookie(CsrfCookieFilter.COOKIE_NAME, value));
+    return request;
+  }
+
+  @Test
+  public void requests_without_the_cookie_render_the_token() {
+    assertTrue(filter.shouldRender(request("GET", "/")));
+    assertTrue(filter.shouldRender(request("POST", "/api/restaurants/post")));
+    assertTrue(filter.shouldRender(withCookie(request("GET", "/"), "")));
+  }
+
+  @Test
+  public void requests_with_the_cookie_skip_the_token() {
+    assertFalse(filter.shouldRender(withCookie(request("GET", "/static/app.js"), "token")));
+    assertFalse(filter.shouldRender(withCookie(request("POST", "/logout"), "token")));
+  }
+
+  @Test
+  public void page_loads_always_render_the_token() {
+    MockHttpServletRequest request = withCookie(request("GET", "/restaurants"), "token");
+    request.addHeader("Accept", "text/html,application/xhtml+xml");
+
+    assertTrue(filter.shouldRender(request));
+  }
+
+  @Test
+  public void html_accept_only_counts_for_get() {
+    MockHttpServletRequest request = withCookie(request("POST", "/restaurants"), "token");
+    request.addHeader("Accept", "text/html");
+
+    assertFalse(filter.shouldRender(request));
+  }
+
+  @Test
+  public void safe_requests_to_skipped_paths_never_render_the_token() {
+    MockHttpServletRequest get = request("GET", "/api/currentUser");
+    get.addHeader("Accept", "text/html");
+
+    assertFalse(filter.shouldRender(get));
+    assertFalse(filter.shouldRender(request("HEAD", "/api/restaurants/all")));
+    assertTrue(filter.shouldRender(request("PUT", "/api/restaurants")));
+  }
+
+  @Test
+  public void nothing_is_skipped_by_default() {
+    CsrfCookieFilter defaults = new CsrfCookieFilter(List.of());
+
+    assertTrue(defaults.shouldRender(request("GET", "/api/currentUser")));
+  }
+
+  @Test
+  public void filter_loads_the_deferred_token_only_when_rendering() throws Exception {
+    CsrfToken token = mock(CsrfToken.class);
+
+    MockHttpServletRequest render = request("GET", "/");
+    render.setAttribute("_csrf", token);
+    filter.doFilter(render, new MockHttpServletResponse(), new MockFilterChain());
+    verify(token, times(1)).getToken();
+
+    MockHttpServletRequest skip = request("GET", "/api/currentUser");
+    CsrfToken skipped = mock(CsrfToken.class);
+    skip.setAttribute("_csrf", skipped);
+    filter.doFilter(skip, new MockHttpServletResponse(), new MockFilterChain());
+    verify(skipped, never()).getToken();
+  }
+}
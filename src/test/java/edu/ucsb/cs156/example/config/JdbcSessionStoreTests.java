@@ -0,0 +1,129 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.ucsb.cs156.example.services.sessions.LastAccessThrottlingSessionRepository;
+import edu.ucsb.cs156.example.services.sessions.LastAccessThrottlingSessionRepository.ThrottledSession;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs spring-session-jdbc against the session tables from the Liquibase changelog, as it is used
+ * when app.session.store is jdbc.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class JdbcSessionStoreTests {
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private JdbcIndexedSessionRepository jdbcRepository;
+
+  // JdbcIndexedSessionRepository's session class is not public
+  private FindByIndexNameSessionRepository<Session> repository;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    jdbcRepository =
+        new JdbcIndexedSessionRepository(
+            new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager));
+    repository = (FindByIndexNameSessionRepository<Session>) (Object) jdbcRepository;
+  }
+
+  @AfterEach
+  public void cleanup() {
+    new JdbcTemplate(dataSource).update("DELETE FROM SPRING_SESSION");
+  }
+
+  @Test
+  public void sessions_and_their_attributes_are_stored() {
+    Session session = repository.createSession();
+    session.setAttribute("userId", 1L);
+    session.setAttribute(
+        FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "cgaucho@ucsb.edu");
+    repository.save(session);
+
+    Session loaded = repository.findById(session.getId());
+    assertEquals(1L, (Long) loaded.getAttribute("userId"));
+    assertEquals(
+        Set.of(session.getId()),
+        repository
+            .findByIndexNameAndIndexValue(
+                FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "cgaucho@ucsb.edu")
+            .keySet());
+
+    loaded.removeAttribute("userId");
+    repository.save(loaded);
+    assertNull(repository.findById(session.getId()).getAttribute("userId"));
+
+    repository.deleteById(session.getId());
+    assertNull(repository.findById(session.getId()));
+  }
+
+  @Test
+  public void reading_a_session_within_the_write_interval_writes_nothing() {
+    jdbcRepository.setConversionService(
+        new SessionConfig.JdbcSessions()
+            .springSessionConversionService(new DefaultResourceLoader()));
+    LastAccessThrottlingSessionRepository<Session> throttled =
+        new LastAccessThrottlingSessionRepository<>(repository, Duration.ofMinutes(1));
+    ThrottledSession<Session> session = throttled.createSession();
+    session.setAttribute("context", "security context ".repeat(100));
+    throttled.save(session);
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    Long recorded =
+        jdbcTemplate.queryForObject("SELECT LAST_ACCESS_TIME FROM SPRING_SESSION", Long.class);
+
+    // what Spring Session's filter does on a request that reads the session
+    ThrottledSession<Session> loaded = throttled.findById(session.getId());
+    loaded.setLastAccessedTime(loaded.getLastAccessedTime().plusSeconds(30));
+    assertEquals("security context ".repeat(100), loaded.getAttribute("context"));
+    throttled.save(loaded);
+
+    assertEquals(
+        recorded,
+        jdbcTemplate.queryForObject("SELECT LAST_ACCESS_TIME FROM SPRING_SESSION", Long.class));
+    byte[] stored =
+        jdbcTemplate.queryForObject(
+            "SELECT ATTRIBUTE_BYTES FROM SPRING_SESSION_ATTRIBUTES", byte[].class);
+    // SessionAttributeCodec marks deflated values with a leading 1
+    assertEquals(1, stored[0]);
+  }
+
+  @Test
+  public void expired_sessions_are_cleaned_up() {
+    Session session = repository.createSession();
+    session.setAttribute("userId", 1L);
+    session.setMaxInactiveInterval(Duration.ofMinutes(30));
+    session.setLastAccessedTime(Instant.now().minus(Duration.ofHours(1)));
+    repository.save(session);
+
+    jdbcRepository.cleanUpExpiredSessions();
+
+    assertEquals(
+        0,
+        new JdbcTemplate(dataSource)
+            .queryForObject("SELECT COUNT(*) FROM SPRING_SESSION_ATTRIBUTES", Integer.class));
+    assertNull(repository.findById(session.getId()));
+  }
+}
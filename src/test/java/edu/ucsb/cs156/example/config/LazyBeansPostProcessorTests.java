@@ -0,0 +1,127 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.context.support.TestPropertySourceUtils;
+
+public class LazyBeansPostProcessorTests {
+
+  static final AtomicInteger created = new AtomicInteger();
+
+  /** Created at startup unless made lazy. */
+  public static class Expensive {
+    public Expensive() {
+      created.incrementAndGet();
+    }
+  }
+
+  /** Does its work at startup, so must never be made lazy. */
+  public static class Initializing implements InitializingBean {
+    boolean initialized;
+
+    @Override
+    public void afterPropertiesSet() {
+      initialized = true;
+    }
+  }
+
+  @Configuration
+  static class Beans {
+    @Bean
+    Expensive expensive() {
+      return new Expensive();
+    }
+
+    @Bean
+    Initializing initializing() {
+      return new Initializing();
+    }
+
+    @Bean
+    StringBuilder builder() {
+      return new StringBuilder();
+    }
+  }
+
+  private AnnotationConfigApplicationContext context(String lazyBeans) {
+    created.set(0);
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    StandardEnvironment environment = new StandardEnvironment();
+    TestPropertySourceUtils.addInlinedPropertiesToEnvironment(
+        environment, "app.startup.lazyBeans=" + lazyBeans);
+    context.setEnvironment(environment);
+    context.register(StartupConfig.class, Beans.class);
+    context.registerBean("component", Expensive.class);
+    RootBeanDefinition infrastructure = new RootBeanDefinition(Expensive.class);
+    infrastructure.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+    context.registerBeanDefinition("infrastructure", infrastructure);
+    context.refresh();
+    return context;
+  }
+
+  @Test
+  public void beans_are_eager_by_default() {
+    try (AnnotationConfigApplicationContext context = context("")) {
+      assertEquals(3, created.get());
+      assertFalse(context.getBeanDefinition("expensive").isLazyInit());
+    }
+  }
+
+  @Test
+  public void beans_declared_in_a_matching_class_are_created_on_first_use() {
+    try (AnnotationConfigApplicationContext context =
+        context(" " + LazyBeansPostProcessorTests.class.getName() + "$Beans , unused.prefix")) {
+      assertEquals(2, created.get());
+      assertTrue(context.getBeanDefinition("expensive").isLazyInit());
+      assertTrue(context.getBeanDefinition("builder").isLazyInit());
+      assertFalse(context.getBeanDefinition("initializing").isLazyInit());
+      assertFalse(context.getBeanDefinition("component").isLazyInit());
+
+      context.getBean("expensive");
+      assertEquals(3, created.get());
+    }
+  }
+
+  @Test
+  public void beans_of_a_matching_class_are_lazy_but_infrastructure_is_not() {
+    try (AnnotationConfigApplicationContext context = context(Expensive.class.getName())) {
+      assertEquals(1, created.get());
+      assertTrue(context.getBeanDefinition("component").isLazyInit());
+      assertTrue(context.getBeanDefinition("expensive").isLazyInit());
+      assertFalse(context.getBeanDefinition("infrastructure").isLazyInit());
+      assertFalse(context.getBeanDefinition("builder").isLazyInit());
+    }
+  }
+
+  @Test
+  public void bean_methods_returning_a_matching_class_are_lazy() {
+    try (AnnotationConfigApplicationContext context = context("java.lang.StringBuilder")) {
+      assertTrue(context.getBeanDefinition("builder").isLazyInit());
+      assertFalse(context.getBeanDefinition("expensive").isLazyInit());
+    }
+  }
+
+  @Test
+  public void definitions_without_a_class_are_left_alone() {
+    DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerBeanDefinition("supplied", new GenericBeanDefinition());
+
+    new LazyBeansPostProcessor(List.of("edu")).postProcessBeanFactory(beanFactory);
+
+    assertFalse(beanFactory.getBeanDefinition("supplied").isLazyInit());
+  }
+}
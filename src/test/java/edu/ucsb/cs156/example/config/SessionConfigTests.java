@@ -0,0 +1,115 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.ucsb.cs156.example.services.sessions.LastAccessThrottlingSessionRepository;
+import jakarta.servlet.DispatcherType;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.DelegatingFilterProxyRegistrationBean;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class SessionConfigTests {
+
+  // the application converts durations such as 30m the same way
+  private final WebApplicationContextRunner runner =
+      new WebApplicationContextRunner()
+          .withInitializer(
+              context ->
+                  context
+                      .getBeanFactory()
+                      .setConversionService(ApplicationConversionService.getSharedInstance()))
+          .withUserConfiguration(SessionConfig.class);
+
+  @Test
+  public void container_sessions_leave_spring_session_off() {
+    runner
+        .withPropertyValues("app.session.store=container")
+        .run(
+            context -> {
+              assertTrue(context.getBeansOfType(SessionRepository.class).isEmpty());
+              assertTrue(context.getBeansOfType(SessionRepositoryFilter.class).isEmpty());
+              assertFalse(context.containsBean("sessionRepositoryFilterRegistration"));
+            });
+  }
+
+  @Test
+  public void memory_sessions_use_a_map_with_the_session_timeout() {
+    runner
+        .withPropertyValues("app.session.store=memory", "server.servlet.session.timeout=5m")
+        .run(
+            context -> {
+              MapSessionRepository repository = context.getBean(MapSessionRepository.class);
+              MapSession session = repository.createSession();
+              assertEquals(Duration.ofMinutes(5), session.getMaxInactiveInterval());
+              assertEquals(1, context.getBeansOfType(SessionRepositoryFilter.class).size());
+            });
+  }
+
+  @Test
+  public void jdbc_sessions_go_through_the_throttling_repository_with_the_codec() {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    runner
+        .withBean(DataSource.class, () -> dataSource)
+        .withBean(
+            PlatformTransactionManager.class, () -> new DataSourceTransactionManager(dataSource))
+        .withPropertyValues(
+            "app.session.store=jdbc",
+            "server.servlet.session.timeout=5m",
+            "app.session.lastAccessWriteInterval=2m")
+        .run(
+            context -> {
+              SessionRepositoryFilter<?> filter = context.getBean(SessionRepositoryFilter.class);
+              LastAccessThrottlingSessionRepository<?> throttled =
+                  context.getBean(LastAccessThrottlingSessionRepository.class);
+              assertSame(throttled, ReflectionTestUtils.getField(filter, "sessionRepository"));
+              assertEquals(
+                  Duration.ofMinutes(2), ReflectionTestUtils.getField(throttled, "interval"));
+
+              JdbcIndexedSessionRepository jdbc =
+                  context.getBean(JdbcIndexedSessionRepository.class);
+              assertSame(jdbc, ReflectionTestUtils.getField(throttled, "delegate"));
+              assertSame(
+                  context.getBean("springSessionConversionService"),
+                  ReflectionTestUtils.getField(jdbc, "conversionService"));
+              assertEquals(
+                  Duration.ofMinutes(5),
+                  ReflectionTestUtils.getField(jdbc, "defaultMaxInactiveInterval"));
+            });
+  }
+
+  @Test
+  public void the_filter_runs_for_async_and_error_dispatches_before_spring_security() {
+    runner
+        .withPropertyValues("app.session.store=memory")
+        .run(
+            context -> {
+              DelegatingFilterProxyRegistrationBean registration =
+                  context.getBean(DelegatingFilterProxyRegistrationBean.class);
+              assertEquals(
+                  "springSessionRepositoryFilter",
+                  ReflectionTestUtils.invokeMethod(registration, "getTargetBeanName"));
+              assertEquals(SessionRepositoryFilter.DEFAULT_ORDER, registration.getOrder());
+              assertEquals(
+                  EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC, DispatcherType.ERROR),
+                  ReflectionTestUtils.getField(registration, "dispatcherTypes"));
+            });
+  }
+}
@@ -1,8 +1,10 @@
 package edu.ucsb.cs156.example.controllers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,6 +19,8 @@ import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Articles;
 import edu.ucsb.cs156.example.repositories.ArticlesRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.ArticlesIngestService;
+import edu.ucsb.cs156.example.services.ArticlesSearchService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -27,18 +31,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(controllers = ArticlesController.class)
-@Import(TestConfig.class)
+@Import({TestConfig.class, ArticlesIngestService.class})
 public class ArticlesControllerTests extends ControllerTestCase {
 
   @MockBean ArticlesRepository articlesRepository;
 
   @MockBean UserRepository userRepository;
 
+  @MockBean ArticlesSearchService articlesSearchService;
+
   // Authorization tests for /api/articles/all
 
   @Test
@@ -171,6 +178,53 @@ public class ArticlesControllerTests extends ControllerTestCase {
     assertEquals(expectedJson, responseString);
   }
 
+  // Tests for /api/articles/search
+
+  @Test
+  public void logged_out_users_cannot_search() throws Exception {
+    mockMvc.perform(get("/api/articles/search?q=taco")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_search_articles() throws Exception {
+
+    // arrange
+    Articles article =
+        Articles.builder()
+            .id(3L)
+            .title("Taco Bell review")
+            .url("https://example.org/taco")
+            .explanation("Mexican food")
+            .email("article1@test.com")
+            .dateAdded(LocalDateTime.parse("2022-01-03T00:00:00"))
+            .build();
+
+    when(articlesSearchService.search(eq("\"taco bell\" mex*"), eq(5)))
+        .thenReturn(Arrays.asList(article));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(
+                get("/api/articles/search").param("q", "\"taco bell\" mex*").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(articlesSearchService, times(1)).search("\"taco bell\" mex*", 5);
+    String expectedJson = mapper.writeValueAsString(Arrays.asList(article));
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void search_uses_default_limit() throws Exception {
+    mockMvc.perform(get("/api/articles/search?q=taco")).andExpect(status().isOk());
+    verify(articlesSearchService, times(1)).search("taco", 20);
+  }
+
   @WithMockUser(roles = {"ADMIN", "USER"})
   @Test
   public void an_admin_user_can_post_a_new_article() throws Exception {
@@ -185,6 +239,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
             .explanation("test")
             .email("article1@test.com")
             .dateAdded(ldt1)
+            .urlHash(ArticlesIngestService.urlHash("https://www.google.com"))
             .build();
 
     when(articlesRepository.save(eq(article1))).thenReturn(article1);
@@ -200,11 +255,96 @@ public class ArticlesControllerTests extends ControllerTestCase {
 
     // assert
     verify(articlesRepository, times(1)).save(article1);
+    verify(articlesSearchService, times(1)).index(article1);
     String expectedJson = mapper.writeValueAsString(article1);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
   }
 
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void posting_a_duplicate_url_returns_the_existing_article_by_default() throws Exception {
+    // arrange
+
+    Articles existing =
+        Articles.builder()
+            .id(12L)
+            .title("Original")
+            .url("https://www.google.com/")
+            .explanation("first")
+            .email("first@test.com")
+            .dateAdded(LocalDateTime.parse("2021-01-01T00:00:00"))
+            .urlHash(ArticlesIngestService.urlHash("https://www.google.com/"))
+            .build();
+
+    when(articlesRepository.findByUrlHash(eq(existing.getUrlHash())))
+        .thenReturn(Optional.of(existing));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(
+                post("/api/articles/post?title=Article1&url=https://WWW.GOOGLE.COM&explanation=test&email=article1@test.com&dateAdded=2022-01-03T00:00:00")
+                    .with(csrf()))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(articlesRepository, times(0)).save(any());
+    String expectedJson = mapper.writeValueAsString(existing);
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void posting_a_duplicate_url_with_update_overwrites_the_existing_article()
+      throws Exception {
+    // arrange
+
+    String urlHash = ArticlesIngestService.urlHash("https://www.google.com");
+    Articles existing =
+        Articles.builder()
+            .id(12L)
+            .title("Original")
+            .url("https://www.google.com/")
+            .explanation("first")
+            .email("first@test.com")
+            .dateAdded(LocalDateTime.parse("2021-01-01T00:00:00"))
+            .urlHash(urlHash)
+            .build();
+
+    Articles updated =
+        Articles.builder()
+            .id(12L)
+            .title("Article1")
+            .url("https://www.google.com")
+            .explanation("test")
+            .email("article1@test.com")
+            .dateAdded(LocalDateTime.parse("2022-01-03T00:00:00"))
+            .urlHash(urlHash)
+            .build();
+
+    when(articlesRepository.findByUrlHash(eq(urlHash))).thenReturn(Optional.of(existing));
+    when(articlesRepository.save(eq(updated))).thenReturn(updated);
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(
+                post("/api/articles/post?title=Article1&url=https://www.google.com&explanation=test&email=article1@test.com&dateAdded=2022-01-03T00:00:00&onConflict=UPDATE")
+                    .with(csrf()))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(articlesRepository, times(1)).save(updated);
+    verify(articlesSearchService, times(1)).index(updated);
+    String expectedJson = mapper.writeValueAsString(updated);
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+  }
+
   @WithMockUser(roles = {"ADMIN", "USER"})
   @Test
   public void admin_can_edit_an_existing_article() throws Exception {
@@ -232,6 +372,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
             .build();
 
     String requestBody = mapper.writeValueAsString(articleEdited);
+    articleEdited.setUrlHash(ArticlesIngestService.urlHash("https://www.article2.com"));
 
     when(articlesRepository.findById(eq(67L))).thenReturn(Optional.of(articleOrig));
 
@@ -250,6 +391,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
     // assert
     verify(articlesRepository, times(1)).findById(67L);
     verify(articlesRepository, times(1)).save(articleEdited); // should be saved with correct user
+    verify(articlesSearchService, times(1)).index(articleEdited);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(requestBody, responseString);
   }
@@ -292,6 +434,136 @@ public class ArticlesControllerTests extends ControllerTestCase {
     assertEquals("Articles with id 67 not found", json.get("message"));
   }
 
+  private Articles article(long id, String url) {
+    return Articles.builder()
+        .id(id)
+        .title("Article" + id)
+        .url(url)
+        .explanation("This is a test explanation")
+        .email("article@test.com")
+        .dateAdded(LocalDateTime.parse("2022-01-03T00:00:00"))
+        .build();
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void admin_cannot_give_an_article_the_url_of_another_article() throws Exception {
+    // arrange
+
+    Articles other = article(12, "https://www.article2.com");
+    String requestBody = mapper.writeValueAsString(article(0, "https://WWW.article2.com/"));
+
+    when(articlesRepository.findById(eq(67L)))
+        .thenReturn(Optional.of(article(67, "https://www.google.com")));
+    when(articlesRepository.findByUrlHash(eq(ArticlesIngestService.urlHash(other.getUrl()))))
+        .thenReturn(Optional.of(other));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(
+                put("/api/articles?id=67")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content(requestBody)
+                    .with(csrf()))
+            .andExpect(status().isConflict())
+            .andReturn();
+
+    // assert
+    verify(articlesRepository, never()).save(any());
+    verify(articlesSearchService, never()).index(any());
+    Map<String, Object> json = responseToJson(response);
+    assertEquals("DuplicateEntityException", json.get("type"));
+    assertEquals("Articles with url https://WWW.article2.com/ already exists", json.get("message"));
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void admin_can_edit_an_article_keeping_its_url() throws Exception {
+    // arrange
+
+    Articles original = article(67, "https://www.google.com");
+    Articles edited = article(67, "https://www.google.com");
+    edited.setTitle("New title");
+    String requestBody = mapper.writeValueAsString(edited);
+
+    when(articlesRepository.findById(eq(67L))).thenReturn(Optional.of(original));
+    when(articlesRepository.findByUrlHash(eq(ArticlesIngestService.urlHash(original.getUrl()))))
+        .thenReturn(Optional.of(original));
+
+    // act
+    mockMvc
+        .perform(
+            put("/api/articles?id=67")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(requestBody)
+                .with(csrf()))
+        .andExpect(status().isOk());
+
+    // assert
+    verify(articlesRepository, times(1)).save(original);
+    assertEquals("New title", original.getTitle());
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void admin_can_edit_an_article_without_a_url() throws Exception {
+    // arrange
+
+    Articles original = article(67, "https://www.google.com");
+    String requestBody = mapper.writeValueAsString(article(0, null));
+
+    when(articlesRepository.findById(eq(67L))).thenReturn(Optional.of(original));
+
+    // act
+    mockMvc
+        .perform(
+            put("/api/articles?id=67")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(requestBody)
+                .with(csrf()))
+        .andExpect(status().isOk());
+
+    // assert: URL_HASH IS NULL would match the legacy duplicates left without a hash
+    verify(articlesRepository, never()).findByUrlHash(any());
+    verify(articlesRepository, times(1)).save(original);
+    assertNull(original.getUrl());
+    assertNull(original.getUrlHash());
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void a_concurrent_edit_to_the_same_url_is_a_conflict() throws Exception {
+    // arrange
+
+    String requestBody = mapper.writeValueAsString(article(0, "https://www.article2.com"));
+
+    when(articlesRepository.findById(eq(67L)))
+        .thenReturn(Optional.of(article(67, "https://www.google.com")));
+    when(articlesRepository.save(any()))
+        .thenThrow(new DataIntegrityViolationException("unique index on URL_HASH"));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(
+                put("/api/articles?id=67")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content(requestBody)
+                    .with(csrf()))
+            .andExpect(status().isConflict())
+            .andReturn();
+
+    // assert
+    verify(articlesSearchService, never()).index(any());
+    Map<String, Object> json = responseToJson(response);
+    assertEquals("Articles with url https://www.article2.com already exists", json.get("message"));
+  }
+
   @WithMockUser(roles = {"ADMIN", "USER"})
   @Test
   public void admin_can_delete_a_article() throws Exception {
@@ -320,6 +592,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
     // assert
     verify(articlesRepository, times(1)).findById(15L);
     verify(articlesRepository, times(1)).delete(any());
+    verify(articlesSearchService, times(1)).remove(15L);
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("Articles with id 15 deleted", json.get("message"));
@@ -0,0 +1,100 @@
+package edu.ucsb.cs156.example.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.HandlerLatency;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.metrics.HandlerMetricsService;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(controllers = HandlerMetricsController.class)
+@Import(TestConfig.class)
+public class HandlerMetricsControllerTests extends ControllerTestCase {
+
+  @MockBean UserRepository userRepository;
+
+  @MockBean HandlerMetricsService handlerMetricsService;
+
+  @Test
+  public void handlers__logged_out() throws Exception {
+    mockMvc.perform(get("/api/admin/metrics/handlers")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void handlers__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/metrics/handlers")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void handlers__admin_logged_in() throws Exception {
+
+    // arrange
+
+    List<HandlerLatency> expected =
+        List.of(
+            HandlerLatency.builder()
+                .handler("RestaurantsController.allRestaurants")
+                .count(3)
+                .meanMicros(150.0)
+                .p50Micros(120)
+                .p99Micros(300)
+                .p999Micros(300)
+                .maxMicros(300)
+                .statuses(Map.of("200", 3L))
+                .build());
+    when(handlerMetricsService.snapshot()).thenReturn(expected);
+    String expectedJson = mapper.writeValueAsString(expected);
+
+    // act
+
+    MvcResult response =
+        mockMvc.perform(get("/api/admin/metrics/handlers")).andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    assertEquals(expectedJson, response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void reset__user_logged_in() throws Exception {
+    mockMvc.perform(delete("/api/admin/metrics/handlers").with(csrf())).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void reset__admin_logged_in() throws Exception {
+
+    // act
+
+    MvcResult response =
+        mockMvc
+            .perform(delete("/api/admin/metrics/handlers").with(csrf()))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+
+    verify(handlerMetricsService, times(1)).reset();
+    Map<String, Object> json = responseToJson(response);
+    assertEquals("handler metrics reset", json.get("message"));
+  }
+}
@@ -12,16 +12,21 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.models.HelpRequestGroupStats;
+import edu.ucsb.cs156.example.models.HelpRequestStats;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.HelpRequestEventsService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -31,6 +36,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @WebMvcTest(controllers = HelpRequestController.class)
 @Import(TestConfig.class)
@@ -39,6 +45,8 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
   @MockBean UserRepository userRepository;
 
+  @MockBean HelpRequestEventsService helpRequestEventsService;
+
   // Authorization tests for /api/helpRequests/admin/all
 
   @Test
@@ -182,6 +190,8 @@ public class HelpRequestControllerTests extends ControllerTestCase {
     // assert
     verify(helpRequestRepository, times(1)).save(helpRequest1);
     verify(helpRequestRepository, times(1)).save(helpRequest2);
+    verify(helpRequestEventsService, times(1)).publish("insert", helpRequest1);
+    verify(helpRequestEventsService, times(1)).publish("insert", helpRequest2);
 
     String expectedJson = mapper.writeValueAsString(helpRequest1);
     String responseString = response.getResponse().getContentAsString();
@@ -298,10 +308,102 @@ public class HelpRequestControllerTests extends ControllerTestCase {
     verify(helpRequestRepository, times(1)).findById(67L);
     verify(helpRequestRepository, times(1))
         .save(helpRequestEdited); // should be saved with correct user
+    verify(helpRequestEventsService, times(1)).publish("update", helpRequestEdited);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(requestBody, responseString);
   }
 
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void marking_a_helprequest_solved_publishes_a_solve_event() throws Exception {
+    // arrange
+
+    LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
+
+    HelpRequest helpRequestOrig =
+        HelpRequest.builder()
+            .requesterEmail("email")
+            .teamId("team")
+            .tableOrBreakoutRoom("room")
+            .requestTime(ldt1)
+            .explanation("help")
+            .solved(false)
+            .build();
+
+    HelpRequest helpRequestEdited =
+        HelpRequest.builder()
+            .requesterEmail("email")
+            .teamId("team")
+            .tableOrBreakoutRoom("room")
+            .requestTime(ldt1)
+            .explanation("help")
+            .solved(true)
+            .build();
+
+    String requestBody = mapper.writeValueAsString(helpRequestEdited);
+
+    when(helpRequestRepository.findById(eq(67L))).thenReturn(Optional.of(helpRequestOrig));
+
+    // act
+    mockMvc
+        .perform(
+            put("/api/helprequests?id=67")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(requestBody)
+                .with(csrf()))
+        .andExpect(status().isOk());
+
+    // assert
+    verify(helpRequestRepository, times(1)).save(helpRequestEdited);
+    verify(helpRequestEventsService, times(1)).publish("solve", helpRequestEdited);
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void editing_an_unsolved_helprequest_publishes_an_update_event() throws Exception {
+    // arrange
+
+    LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
+
+    HelpRequest helpRequestOrig =
+        HelpRequest.builder()
+            .requesterEmail("email")
+            .teamId("team")
+            .tableOrBreakoutRoom("room")
+            .requestTime(ldt1)
+            .explanation("help")
+            .solved(false)
+            .build();
+
+    HelpRequest helpRequestEdited =
+        HelpRequest.builder()
+            .requesterEmail("email")
+            .teamId("team")
+            .tableOrBreakoutRoom("room 2")
+            .requestTime(ldt1)
+            .explanation("help")
+            .solved(false)
+            .build();
+
+    String requestBody = mapper.writeValueAsString(helpRequestEdited);
+
+    when(helpRequestRepository.findById(eq(67L))).thenReturn(Optional.of(helpRequestOrig));
+
+    // act
+    mockMvc
+        .perform(
+            put("/api/helprequests?id=67")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(requestBody)
+                .with(csrf()))
+        .andExpect(status().isOk());
+
+    // assert
+    verify(helpRequestEventsService, times(1)).publish("update", helpRequestEdited);
+  }
+
   @Test
   public void logged_out_users_cannot_put() throws Exception {
     mockMvc.perform(post("/api/helprequests/put")).andExpect(status().is(403));
@@ -385,6 +487,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
     // assert
     verify(helpRequestRepository, times(1)).findById(15L);
     verify(helpRequestRepository, times(1)).delete(any());
+    verify(helpRequestEventsService, times(1)).publish("delete", helpRequest);
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("HelpRequest with id 15 deleted", json.get("message"));
@@ -423,4 +526,103 @@ public class HelpRequestControllerTests extends ControllerTestCase {
         .perform(post("/api/helprequests/delete"))
         .andExpect(status().is(403)); // only admins can delete
   }
+
+  // Tests for the unsolved queue
+
+  @Test
+  public void logged_out_users_cannot_get_queue() throws Exception {
+    mockMvc.perform(get("/api/helprequests/queue")).andExpect(status().is(403));
+  }
+
+  @Test
+  public void logged_out_users_cannot_stream_queue() throws Exception {
+    mockMvc.perform(get("/api/helprequests/queue/stream")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_unsolved_queue() throws Exception {
+
+    // arrange
+    HelpRequest helpRequest =
+        HelpRequest.builder()
+            .id(3L)
+            .requesterEmail("email")
+            .teamId("team")
+            .tableOrBreakoutRoom("room")
+            .requestTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+            .explanation("help")
+            .solved(false)
+            .build();
+
+    when(helpRequestRepository.findAllBySolvedFalseOrderByRequestTimeAsc())
+        .thenReturn(List.of(helpRequest));
+
+    // act
+    MvcResult response =
+        mockMvc.perform(get("/api/helprequests/queue")).andExpect(status().isOk()).andReturn();
+
+    // assert
+    verify(helpRequestRepository, times(1)).findAllBySolvedFalseOrderByRequestTimeAsc();
+    String expectedJson = mapper.writeValueAsString(List.of(helpRequest));
+    assertEquals(expectedJson, response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_subscribe_to_queue_stream() throws Exception {
+
+    // arrange
+    List<HelpRequest> queue = List.of();
+    when(helpRequestRepository.findAllBySolvedFalseOrderByRequestTimeAsc()).thenReturn(queue);
+    when(helpRequestEventsService.subscribe(queue)).thenReturn(new SseEmitter());
+
+    // act
+    mockMvc
+        .perform(get("/api/helprequests/queue/stream").accept(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(status().isOk())
+        .andExpect(request().asyncStarted());
+
+    // assert
+    verify(helpRequestEventsService, times(1)).subscribe(queue);
+  }
+
+  // Tests for the per-team and per-room counts
+
+  @Test
+  public void logged_out_users_cannot_get_stats() throws Exception {
+    mockMvc.perform(get("/api/helprequests/stats")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_stats() throws Exception {
+
+    // arrange
+    LocalDateTime ldt1 = LocalDateTime.parse("2022-01-01T00:00:00");
+    LocalDateTime ldt2 = LocalDateTime.parse("2022-01-02T00:00:00");
+
+    List<HelpRequestGroupStats> byTeam =
+        List.of(
+            new HelpRequestGroupStats("team1", 2, ldt1),
+            new HelpRequestGroupStats("team2", 1, ldt2));
+    List<HelpRequestGroupStats> byRoom = List.of(new HelpRequestGroupStats("room 2", 3, ldt1));
+
+    when(helpRequestRepository.countUnsolvedByTeam()).thenReturn(byTeam);
+    when(helpRequestRepository.countUnsolvedByRoom()).thenReturn(byRoom);
+
+    // act
+    MvcResult response =
+        mockMvc.perform(get("/api/helprequests/stats")).andExpect(status().isOk()).andReturn();
+
+    // assert
+    verify(helpRequestRepository, times(1)).countUnsolvedByTeam();
+    verify(helpRequestRepository, times(1)).countUnsolvedByRoom();
+    String expectedJson = mapper.writeValueAsString(new HelpRequestStats(byTeam, byRoom));
+    assertEquals(expectedJson, response.getResponse().getContentAsString());
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(
+        Map.of("group", "team1", "openCount", 2, "oldestRequestTime", "2022-01-01T00:00:00"),
+        ((List<?>) json.get("byTeam")).get(0));
+  }
 }
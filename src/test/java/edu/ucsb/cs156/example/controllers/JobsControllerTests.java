@@ -20,20 +20,26 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Job;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.entities.User;
 import edu.ucsb.cs156.example.repositories.JobsRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuService;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuSnapshotService;
 import edu.ucsb.cs156.example.services.jobs.JobService;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureDataJpa;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MvcResult;
@@ -48,6 +54,10 @@ public class JobsControllerTests extends ControllerTestCase {
 
   @MockitoBean UserRepository userRepository;
 
+  @MockitoBean UCSBDiningCommonsMenuSnapshotService menuSnapshotService;
+
+  @MockitoBean UCSBDiningCommonsMenuService menuService;
+
   @Autowired JobService jobService;
 
   @Autowired ObjectMapper objectMapper;
@@ -325,4 +335,55 @@ public class JobsControllerTests extends ControllerTestCase {
         .atMost(10, SECONDS)
         .untilAsserted(() -> verify(jobsRepository, times(3)).save(eq(jobFailed)));
   }
+
+  @Test
+  public void logged_out_users_cannot_launch_menu_snapshot_job() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/jobs/launch/menusnapshot?diningCommonsCode=ortega")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]")
+                .with(csrf()))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"ADMIN"})
+  @Test
+  public void admin_can_launch_menu_snapshot_job() throws Exception {
+
+    // arrange
+    List<UCSBDiningCommonsMenuItem> items =
+        List.of(UCSBDiningCommonsMenuItem.builder().name("Waffles").station("Breakfast").build());
+
+    // hold the job until the response has been read, so that it is still running
+    CountDownLatch release = new CountDownLatch(1);
+    when(menuSnapshotService.applySnapshot(eq("ortega"), eq(items)))
+        .thenAnswer(
+            invocation -> {
+              release.await(10, SECONDS);
+              return new UCSBDiningCommonsMenuSnapshotService.Result(1, 2, 3);
+            });
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(
+                post("/api/jobs/launch/menusnapshot?diningCommonsCode=ortega")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(items))
+                    .with(csrf()))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    Job jobReturned =
+        objectMapper.readValue(response.getResponse().getContentAsString(), Job.class);
+    assertEquals("running", jobReturned.getStatus());
+    release.countDown();
+
+    await()
+        .atMost(10, SECONDS)
+        .untilAsserted(() -> verify(menuService, times(1)).invalidate("ortega"));
+    verify(menuSnapshotService, times(1)).applySnapshot("ortega", items);
+  }
 }
@@ -27,6 +27,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
@@ -178,6 +181,97 @@ public class MenuItemReviewsControllerTests extends ControllerTestCase {
     assertEquals(expectedJson, responseString);
   }
 
+  // Tests for /api/menuitemreviews/byItem and /api/menuitemreviews/byReviewer
+
+  @Test
+  public void logged_out_users_cannot_get_by_item() throws Exception {
+    mockMvc.perform(get("/api/menuitemreviews/byItem?itemId=27")).andExpect(status().is(403));
+  }
+
+  @Test
+  public void logged_out_users_cannot_get_by_reviewer() throws Exception {
+    mockMvc
+        .perform(get("/api/menuitemreviews/byReviewer?reviewerEmail=test@example.com"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_reviews_by_item_newest_first() throws Exception {
+
+    // arrange
+    MenuItemReviews review =
+        MenuItemReviews.builder()
+            .id(1L)
+            .itemId(27L)
+            .reviewerEmail("user1@example.com")
+            .stars(4)
+            .dateReviewed(LocalDateTime.parse("2023-01-01T12:00:00"))
+            .comments("Good")
+            .build();
+
+    PageRequest expectedPageRequest =
+        PageRequest.of(2, 5, Sort.by(Sort.Direction.DESC, "dateReviewed"));
+
+    when(menuItemReviewsRepository.findByItemId(eq(27L), eq(expectedPageRequest)))
+        .thenReturn(new PageImpl<>(Arrays.asList(review), expectedPageRequest, 11));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/menuitemreviews/byItem?itemId=27&page=2&pageSize=5"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(menuItemReviewsRepository, times(1)).findByItemId(27L, expectedPageRequest);
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(
+        mapper.readValue(mapper.writeValueAsString(Arrays.asList(review)), ArrayList.class),
+        json.get("content"));
+    Map<String, Object> page = (Map<String, Object>) json.get("page");
+    assertEquals(11, page.get("totalElements"));
+    assertEquals(2, page.get("number"));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_reviews_by_reviewer_with_default_paging() throws Exception {
+
+    // arrange
+    MenuItemReviews review =
+        MenuItemReviews.builder()
+            .id(2L)
+            .itemId(12L)
+            .reviewerEmail("test@example.com")
+            .stars(3)
+            .dateReviewed(LocalDateTime.parse("2023-02-01T12:00:00"))
+            .comments("Average")
+            .build();
+
+    PageRequest expectedPageRequest =
+        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dateReviewed"));
+
+    when(menuItemReviewsRepository.findByReviewerEmail(
+            eq("test@example.com"), eq(expectedPageRequest)))
+        .thenReturn(new PageImpl<>(Arrays.asList(review), expectedPageRequest, 1));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/menuitemreviews/byReviewer?reviewerEmail=test@example.com"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(menuItemReviewsRepository, times(1))
+        .findByReviewerEmail("test@example.com", expectedPageRequest);
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(
+        mapper.readValue(mapper.writeValueAsString(Arrays.asList(review)), ArrayList.class),
+        json.get("content"));
+  }
+
   @WithMockUser(roles = {"ADMIN", "USER"})
   @Test
   public void an_admin_user_can_post_a_new_menuitemreview() throws Exception {
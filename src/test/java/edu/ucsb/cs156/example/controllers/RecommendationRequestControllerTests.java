@@ -1,6 +1,7 @@
 package edu.ucsb.cs156.example.controllers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -15,18 +16,23 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.models.ProfessorRequestCounts;
 import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
@@ -314,6 +320,90 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
     assertEquals(requestBody, responseString);
   }
 
+  private RecommendationRequest notifiedRequest() {
+    return RecommendationRequest.builder()
+        .requesterEmail("123@gmail.com")
+        .professorEmail("prof@gmail.com")
+        .explanation("Hello")
+        .dateRequested(LocalDateTime.parse("2022-01-03T00:00:00"))
+        .dateNeeded(LocalDateTime.parse("2022-01-05T00:00:00"))
+        .done(true)
+        .deadlineNotifiedAt(LocalDateTime.parse("2022-01-03T12:00:00"))
+        .build();
+  }
+
+  private RecommendationRequest editRequest(RecommendationRequest incoming) throws Exception {
+    RecommendationRequest original = notifiedRequest();
+    when(recReqRepository.findById(eq(67L))).thenReturn(Optional.of(original));
+
+    mockMvc
+        .perform(
+            put("/api/recommendationrequest?id=67")
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding("utf-8")
+                .content(mapper.writeValueAsString(incoming))
+                .with(csrf()))
+        .andExpect(status().isOk());
+
+    verify(recReqRepository, times(1)).save(original);
+    return original;
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void editing_other_fields_keeps_the_deadline_notification() throws Exception {
+    RecommendationRequest incoming = notifiedRequest();
+    incoming.setExplanation("Goodbye");
+    incoming.setDeadlineNotifiedAt(null);
+
+    RecommendationRequest saved = editRequest(incoming);
+
+    assertEquals("Goodbye", saved.getExplanation());
+    assertEquals(LocalDateTime.parse("2022-01-03T12:00:00"), saved.getDeadlineNotifiedAt());
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void changing_the_date_needed_clears_the_deadline_notification() throws Exception {
+    RecommendationRequest incoming = notifiedRequest();
+    incoming.setDateNeeded(LocalDateTime.parse("2022-01-04T00:00:00"));
+
+    assertEquals(null, editRequest(incoming).getDeadlineNotifiedAt());
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void reopening_a_request_clears_the_deadline_notification() throws Exception {
+    RecommendationRequest incoming = notifiedRequest();
+    incoming.setDone(false);
+
+    assertEquals(null, editRequest(incoming).getDeadlineNotifiedAt());
+  }
+
+  @WithMockUser(roles = {"ADMIN", "USER"})
+  @Test
+  public void the_deadline_notification_is_neither_shown_nor_accepted() throws Exception {
+    RecommendationRequest original = notifiedRequest();
+    when(recReqRepository.findById(eq(67L))).thenReturn(Optional.of(original));
+    String body = mapper.writeValueAsString(notifiedRequest());
+    assertFalse(body.contains("deadlineNotifiedAt"));
+
+    MvcResult response =
+        mockMvc
+            .perform(
+                put("/api/recommendationrequest?id=67")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .characterEncoding("utf-8")
+                    .content(
+                        body.replaceFirst("}$", ",\"deadlineNotifiedAt\":\"2030-01-01T00:00:00\"}"))
+                    .with(csrf()))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    assertEquals(LocalDateTime.parse("2022-01-03T12:00:00"), original.getDeadlineNotifiedAt());
+    assertEquals(body, response.getResponse().getContentAsString());
+  }
+
   @WithMockUser(roles = {"ADMIN", "USER"})
   @Test
   public void admin_can_edit_an_existing_request_all() throws Exception {
@@ -459,4 +549,212 @@ public class RecommendationRequestControllerTests extends ControllerTestCase {
     Map<String, Object> json = responseToJson(response);
     assertEquals("RecommendationRequest with id 67 not found", json.get("message"));
   }
+
+  // Tests for dueBefore and dueBetween
+
+  @Test
+  public void logged_out_users_cannot_get_due_before() throws Exception {
+    mockMvc
+        .perform(get("/api/recommendationrequest/dueBefore?before=2022-01-03T00:00:00"))
+        .andExpect(status().is(403));
+  }
+
+  @Test
+  public void logged_out_users_cannot_get_due_between() throws Exception {
+    mockMvc
+        .perform(
+            get(
+                "/api/recommendationrequest/dueBetween?from=2022-01-03T00:00:00&to=2022-02-03T00:00:00"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_open_requests_due_before_a_date() throws Exception {
+    // arrange
+    LocalDateTime before = LocalDateTime.parse("2022-01-03T00:00:00");
+    RecommendationRequest req =
+        RecommendationRequest.builder()
+            .id(1L)
+            .requesterEmail("student@ucsb.edu")
+            .professorEmail("prof@ucsb.edu")
+            .explanation("grad school")
+            .dateRequested(LocalDateTime.parse("2021-12-01T00:00:00"))
+            .dateNeeded(LocalDateTime.parse("2022-01-02T00:00:00"))
+            .done(false)
+            .build();
+    when(recReqRepository.findByDoneAndDateNeededBeforeOrderByDateNeededAsc(false, before))
+        .thenReturn(List.of(req));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/recommendationrequest/dueBefore?before=2022-01-03T00:00:00"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(recReqRepository, times(1))
+        .findByDoneAndDateNeededBeforeOrderByDateNeededAsc(false, before);
+    assertEquals(
+        mapper.writeValueAsString(List.of(req)), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_done_requests_due_between_dates() throws Exception {
+    // arrange
+    LocalDateTime from = LocalDateTime.parse("2022-01-03T00:00:00");
+    LocalDateTime to = LocalDateTime.parse("2022-02-03T00:00:00");
+    RecommendationRequest req =
+        RecommendationRequest.builder()
+            .id(2L)
+            .requesterEmail("student@ucsb.edu")
+            .professorEmail("prof@ucsb.edu")
+            .explanation("internship")
+            .dateRequested(LocalDateTime.parse("2021-12-01T00:00:00"))
+            .dateNeeded(LocalDateTime.parse("2022-01-15T00:00:00"))
+            .done(true)
+            .build();
+    when(recReqRepository.findByDoneAndDateNeededBetweenOrderByDateNeededAsc(true, from, to))
+        .thenReturn(List.of(req));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(
+                get(
+                    "/api/recommendationrequest/dueBetween?from=2022-01-03T00:00:00&to=2022-02-03T00:00:00&done=true"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(recReqRepository, times(1))
+        .findByDoneAndDateNeededBetweenOrderByDateNeededAsc(true, from, to);
+    assertEquals(
+        mapper.writeValueAsString(List.of(req)), response.getResponse().getContentAsString());
+  }
+
+  // Tests for byProfessor, byRequester and countsByProfessor
+
+  @Test
+  public void logged_out_users_cannot_get_by_professor() throws Exception {
+    mockMvc
+        .perform(get("/api/recommendationrequest/byProfessor?professorEmail=prof@ucsb.edu"))
+        .andExpect(status().is(403));
+  }
+
+  @Test
+  public void logged_out_users_cannot_get_by_requester() throws Exception {
+    mockMvc
+        .perform(get("/api/recommendationrequest/byRequester?requesterEmail=student@ucsb.edu"))
+        .andExpect(status().is(403));
+  }
+
+  @Test
+  public void logged_out_users_cannot_get_counts_by_professor() throws Exception {
+    mockMvc
+        .perform(get("/api/recommendationrequest/countsByProfessor"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_requests_by_professor_soonest_first() throws Exception {
+    // arrange
+    RecommendationRequest req =
+        RecommendationRequest.builder()
+            .id(1L)
+            .requesterEmail("student@ucsb.edu")
+            .professorEmail("prof@ucsb.edu")
+            .explanation("grad school")
+            .dateRequested(LocalDateTime.parse("2021-12-01T00:00:00"))
+            .dateNeeded(LocalDateTime.parse("2022-01-02T00:00:00"))
+            .done(false)
+            .build();
+
+    PageRequest expectedPageRequest =
+        PageRequest.of(1, 5, Sort.by(Sort.Direction.ASC, "dateNeeded"));
+
+    when(recReqRepository.findByProfessorEmail(eq("prof@ucsb.edu"), eq(expectedPageRequest)))
+        .thenReturn(new PageImpl<>(Arrays.asList(req), expectedPageRequest, 6));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(
+                get(
+                    "/api/recommendationrequest/byProfessor?professorEmail=prof@ucsb.edu&page=1&pageSize=5"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(recReqRepository, times(1)).findByProfessorEmail("prof@ucsb.edu", expectedPageRequest);
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(
+        mapper.readValue(mapper.writeValueAsString(Arrays.asList(req)), ArrayList.class),
+        json.get("content"));
+    Map<String, Object> page = (Map<String, Object>) json.get("page");
+    assertEquals(6, page.get("totalElements"));
+    assertEquals(1, page.get("number"));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_requests_by_requester_with_default_paging() throws Exception {
+    // arrange
+    RecommendationRequest req =
+        RecommendationRequest.builder()
+            .id(2L)
+            .requesterEmail("student@ucsb.edu")
+            .professorEmail("prof@ucsb.edu")
+            .explanation("internship")
+            .dateRequested(LocalDateTime.parse("2021-12-01T00:00:00"))
+            .dateNeeded(LocalDateTime.parse("2022-01-15T00:00:00"))
+            .done(true)
+            .build();
+
+    PageRequest expectedPageRequest =
+        PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "dateNeeded"));
+
+    when(recReqRepository.findByRequesterEmail(eq("student@ucsb.edu"), eq(expectedPageRequest)))
+        .thenReturn(new PageImpl<>(Arrays.asList(req), expectedPageRequest, 1));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/recommendationrequest/byRequester?requesterEmail=student@ucsb.edu"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(recReqRepository, times(1))
+        .findByRequesterEmail("student@ucsb.edu", expectedPageRequest);
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(
+        mapper.readValue(mapper.writeValueAsString(Arrays.asList(req)), ArrayList.class),
+        json.get("content"));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_counts_by_professor() throws Exception {
+    // arrange
+    List<ProfessorRequestCounts> counts =
+        List.of(
+            new ProfessorRequestCounts("a@ucsb.edu", 2, 1),
+            new ProfessorRequestCounts("b@ucsb.edu", 0, 4));
+    when(recReqRepository.countByProfessor()).thenReturn(counts);
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/recommendationrequest/countsByProfessor"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(recReqRepository, times(1)).countByProfessor();
+    assertEquals(mapper.writeValueAsString(counts), response.getResponse().getContentAsString());
+  }
 }
@@ -17,9 +17,11 @@ import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Restaurant;
 import edu.ucsb.cs156.example.repositories.RestaurantRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.RestaurantSearchService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -38,6 +40,8 @@ public class RestaurantsControllerTests extends ControllerTestCase {
 
   @MockBean UserRepository userRepository;
 
+  @MockBean RestaurantSearchService restaurantSearchService;
+
   // Authorization tests for /api/phones/admin/all
 
   @Test
@@ -53,6 +57,46 @@ public class RestaurantsControllerTests extends ControllerTestCase {
     mockMvc.perform(get("/api/restaurants/all")).andExpect(status().is(200)); // logged
   }
 
+  // Tests for /api/restaurants/search
+
+  @Test
+  public void logged_out_users_cannot_search() throws Exception {
+    mockMvc.perform(get("/api/restaurants/search?q=taco")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_users_can_search_with_default_limit() throws Exception {
+    Restaurant tacoBell =
+        Restaurant.builder().id(1L).name("Taco Bell").description("Mexican").build();
+    when(restaurantSearchService.search("tacco", 20)).thenReturn(List.of(tacoBell));
+
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/restaurants/search?q=tacco"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    verify(restaurantSearchService, times(1)).search("tacco", 20);
+    assertEquals(
+        mapper.writeValueAsString(List.of(tacoBell)), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_users_can_search_with_limit() throws Exception {
+    when(restaurantSearchService.search("taco", 5)).thenReturn(List.of());
+
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/restaurants/search?q=taco&limit=5"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    verify(restaurantSearchService, times(1)).search("taco", 5);
+    assertEquals("[]", response.getResponse().getContentAsString());
+  }
+
   @Test
   public void logged_out_users_cannot_get_by_id() throws Exception {
     mockMvc
@@ -166,6 +210,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
 
     // assert
     verify(restaurantRepository, times(1)).save(restaurant1);
+    verify(restaurantSearchService, times(1)).index(restaurant1);
     String expectedJson = mapper.writeValueAsString(restaurant1);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
@@ -190,6 +235,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
     // assert
     verify(restaurantRepository, times(1)).findById(15L);
     verify(restaurantRepository, times(1)).delete(any());
+    verify(restaurantSearchService, times(1)).remove(15L);
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("Restaurant with id 15 deleted", json.get("message"));
@@ -247,6 +293,7 @@ public class RestaurantsControllerTests extends ControllerTestCase {
     verify(restaurantRepository, times(1)).findById(67L);
     verify(restaurantRepository, times(1))
         .save(restaurantEdited); // should be saved with correct user
+    verify(restaurantSearchService, times(1)).index(restaurantEdited);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(requestBody, responseString);
   }
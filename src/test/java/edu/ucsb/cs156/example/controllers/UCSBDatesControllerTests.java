@@ -17,10 +17,12 @@ import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.UCSBDateQuarterService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -39,6 +41,8 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
 
   @MockBean UserRepository userRepository;
 
+  @MockBean UCSBDateQuarterService ucsbDateQuarterService;
+
   // Authorization tests for /api/ucsbdates/admin/all
 
   @Test
@@ -194,6 +198,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
 
     // assert
     verify(ucsbDateRepository, times(1)).save(ucsbDate1);
+    verify(ucsbDateQuarterService, times(1)).invalidate("20222");
     String expectedJson = mapper.writeValueAsString(ucsbDate1);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
@@ -225,6 +230,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
     // assert
     verify(ucsbDateRepository, times(1)).findById(15L);
     verify(ucsbDateRepository, times(1)).delete(any());
+    verify(ucsbDateQuarterService, times(1)).invalidate("20222");
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("UCSBDate with id 15 deleted", json.get("message"));
@@ -292,6 +298,8 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
     // assert
     verify(ucsbDateRepository, times(1)).findById(67L);
     verify(ucsbDateRepository, times(1)).save(ucsbDateEdited); // should be saved with correct user
+    verify(ucsbDateQuarterService, times(1)).invalidate("20222");
+    verify(ucsbDateQuarterService, times(1)).invalidate("20232");
     String responseString = response.getResponse().getContentAsString();
     assertEquals(requestBody, responseString);
   }
@@ -331,4 +339,75 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
     Map<String, Object> json = responseToJson(response);
     assertEquals("UCSBDate with id 67 not found", json.get("message"));
   }
+
+  // Tests for /api/ucsbdates/quarter/{yyyyq} and /api/ucsbdates/range
+
+  @Test
+  public void logged_out_users_cannot_get_by_quarter() throws Exception {
+    mockMvc.perform(get("/api/ucsbdates/quarter/20222")).andExpect(status().is(403));
+  }
+
+  @Test
+  public void logged_out_users_cannot_get_range() throws Exception {
+    mockMvc
+        .perform(get("/api/ucsbdates/range?from=2022-01-01T00:00:00&to=2022-02-01T00:00:00"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_dates_of_a_quarter() throws Exception {
+
+    // arrange
+    UCSBDate ucsbDate =
+        UCSBDate.builder()
+            .id(1L)
+            .name("firstDayOfClasses")
+            .quarterYYYYQ("20222")
+            .localDateTime(LocalDateTime.parse("2022-03-28T00:00:00"))
+            .build();
+
+    when(ucsbDateQuarterService.getQuarter("20222")).thenReturn(List.of(ucsbDate));
+
+    // act
+    MvcResult response =
+        mockMvc.perform(get("/api/ucsbdates/quarter/20222")).andExpect(status().isOk()).andReturn();
+
+    // assert
+    verify(ucsbDateQuarterService, times(1)).getQuarter("20222");
+    assertEquals(
+        mapper.writeValueAsString(List.of(ucsbDate)), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_dates_in_a_range() throws Exception {
+
+    // arrange
+    LocalDateTime from = LocalDateTime.parse("2022-01-01T00:00:00");
+    LocalDateTime to = LocalDateTime.parse("2022-02-01T00:00:00");
+    UCSBDate ucsbDate =
+        UCSBDate.builder()
+            .id(2L)
+            .name("firstDayOfClasses")
+            .quarterYYYYQ("20221")
+            .localDateTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+            .build();
+
+    when(ucsbDateRepository.findAllByLocalDateTimeBetweenOrderByLocalDateTimeAsc(from, to))
+        .thenReturn(List.of(ucsbDate));
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/ucsbdates/range?from=2022-01-01T00:00:00&to=2022-02-01T00:00:00"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(ucsbDateRepository, times(1))
+        .findAllByLocalDateTimeBetweenOrderByLocalDateTimeAsc(from, to);
+    assertEquals(
+        mapper.writeValueAsString(List.of(ucsbDate)), response.getResponse().getContentAsString());
+  }
 }
@@ -15,11 +15,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.models.DiningCommonsDistance;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsLocatorService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -38,6 +41,8 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
   @MockBean UserRepository userRepository;
 
+  @MockBean UCSBDiningCommonsLocatorService ucsbDiningCommonsLocatorService;
+
   // Authorization tests for /api/ucsbdiningcommons/admin/all
 
   @Test
@@ -209,6 +214,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
 
     // assert
     verify(ucsbDiningCommonsRepository, times(1)).save(ortega);
+    verify(ucsbDiningCommonsLocatorService, times(1)).rebuild();
     String expectedJson = mapper.writeValueAsString(ortega);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
@@ -242,6 +248,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
     // assert
     verify(ucsbDiningCommonsRepository, times(1)).findById("portola");
     verify(ucsbDiningCommonsRepository, times(1)).delete(any());
+    verify(ucsbDiningCommonsLocatorService, times(1)).rebuild();
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("UCSBDiningCommons with id portola deleted", json.get("message"));
@@ -316,6 +323,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
     verify(ucsbDiningCommonsRepository, times(1)).findById("carrillo");
     verify(ucsbDiningCommonsRepository, times(1))
         .save(carrilloEdited); // should be saved with updated info
+    verify(ucsbDiningCommonsLocatorService, times(1)).rebuild();
     String responseString = response.getResponse().getContentAsString();
     assertEquals(requestBody, responseString);
   }
@@ -357,4 +365,54 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
     Map<String, Object> json = responseToJson(response);
     assertEquals("UCSBDiningCommons with id munger-hall not found", json.get("message"));
   }
+
+  // Tests for /api/ucsbdiningcommons/nearest
+
+  @Test
+  public void logged_out_users_cannot_get_nearest() throws Exception {
+    mockMvc
+        .perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_nearest_commons() throws Exception {
+
+    // arrange
+    UCSBDiningCommons carrillo =
+        UCSBDiningCommons.builder()
+            .name("Carrillo")
+            .code("carrillo")
+            .hasSackMeal(false)
+            .hasTakeOutMeal(false)
+            .hasDiningCam(true)
+            .latitude(34.409953)
+            .longitude(-119.85277)
+            .build();
+
+    List<DiningCommonsDistance> expected = List.of(new DiningCommonsDistance(carrillo, 12.5));
+    when(ucsbDiningCommonsLocatorService.nearest(34.41, -119.85, 1)).thenReturn(expected);
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85&k=1"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(ucsbDiningCommonsLocatorService, times(1)).nearest(34.41, -119.85, 1);
+    assertEquals(mapper.writeValueAsString(expected), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void nearest_returns_three_commons_by_default() throws Exception {
+    mockMvc
+        .perform(get("/api/ucsbdiningcommons/nearest?lat=34.41&lon=-119.85"))
+        .andExpect(status().isOk());
+
+    verify(ucsbDiningCommonsLocatorService, times(1)).nearest(34.41, -119.85, 3);
+  }
 }
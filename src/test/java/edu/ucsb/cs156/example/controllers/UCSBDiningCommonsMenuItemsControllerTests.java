@@ -17,8 +17,10 @@ import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -37,6 +39,8 @@ public class UCSBDiningCommonsMenuItemsControllerTests extends ControllerTestCas
 
   @MockBean UserRepository userRepository;
 
+  @MockBean UCSBDiningCommonsMenuService ucsbDiningCommonsMenuService;
+
   public UCSBDiningCommonsMenuItemsControllerTests() {}
 
   // Authorization tests for /api/ucsbdiningcommonsmenuitems/admin/all
@@ -126,6 +130,7 @@ public class UCSBDiningCommonsMenuItemsControllerTests extends ControllerTestCas
 
     // assert
     verify(ucsbDiningCommonsMenuItemRepository, times(1)).save(eq(menuItem1));
+    verify(ucsbDiningCommonsMenuService, times(1)).invalidate("ortega");
     String expectedJson = mapper.writeValueAsString(menuItem1);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
@@ -229,6 +234,8 @@ public class UCSBDiningCommonsMenuItemsControllerTests extends ControllerTestCas
     // assert
     verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(67L);
     verify(ucsbDiningCommonsMenuItemRepository, times(1)).save(editedMenuItem);
+    verify(ucsbDiningCommonsMenuService, times(1)).invalidate("ortega");
+    verify(ucsbDiningCommonsMenuService, times(1)).invalidate("dlg");
     String responseString = response.getResponse().getContentAsString();
     assertEquals(requestBody, responseString);
   }
@@ -291,6 +298,7 @@ public class UCSBDiningCommonsMenuItemsControllerTests extends ControllerTestCas
     // assert
     verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(15L);
     verify(ucsbDiningCommonsMenuItemRepository, times(1)).delete(any());
+    verify(ucsbDiningCommonsMenuService, times(1)).invalidate("ortega");
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("UCSBDiningCommonsMenuItem with id 15 deleted", json.get("message"));
@@ -317,4 +325,55 @@ public class UCSBDiningCommonsMenuItemsControllerTests extends ControllerTestCas
     Map<String, Object> json = responseToJson(response);
     assertEquals("UCSBDiningCommonsMenuItem with id 15 not found", json.get("message"));
   }
+
+  // Tests for /api/ucsbdiningcommonsmenuitems/menu
+
+  @Test
+  public void logged_out_users_cannot_get_menu() throws Exception {
+    mockMvc
+        .perform(get("/api/ucsbdiningcommonsmenuitems/menu?diningCommonsCode=ortega"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_user_can_get_menu_grouped_by_station() throws Exception {
+
+    // arrange
+    UCSBDiningCommonsMenuItem eggs =
+        UCSBDiningCommonsMenuItem.builder()
+            .id(1L)
+            .diningCommonsCode("ortega")
+            .name("Scrambled Eggs")
+            .station("Breakfast")
+            .build();
+    UCSBDiningCommonsMenuItem pizza =
+        UCSBDiningCommonsMenuItem.builder()
+            .id(2L)
+            .diningCommonsCode("ortega")
+            .name("Cheese Pizza")
+            .station("Entrees")
+            .build();
+
+    Map<String, List<UCSBDiningCommonsMenuItem>> menu =
+        Map.of("Breakfast", List.of(eggs), "Entrees", List.of(pizza));
+    when(ucsbDiningCommonsMenuService.getMenu("ortega")).thenReturn(menu);
+
+    // act
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/ucsbdiningcommonsmenuitems/menu?diningCommonsCode=ortega"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    // assert
+    verify(ucsbDiningCommonsMenuService, times(1)).getMenu("ortega");
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(
+        mapper.readValue(mapper.writeValueAsString(List.of(eggs)), ArrayList.class),
+        json.get("Breakfast"));
+    assertEquals(
+        mapper.readValue(mapper.writeValueAsString(List.of(pizza)), ArrayList.class),
+        json.get("Entrees"));
+  }
 }
@@ -17,9 +17,11 @@ import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.UCSBOrganizationAutocompleteService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -38,6 +40,8 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
 
   @MockBean UserRepository userRepository;
 
+  @MockBean UCSBOrganizationAutocompleteService ucsbOrganizationAutocompleteService;
+
   // Authorization tests for /api/ucsborganization/admin/all
 
   @Test
@@ -53,6 +57,53 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
     mockMvc.perform(get("/api/ucsborganization/all")).andExpect(status().is(200)); // logged
   }
 
+  // Tests for /api/ucsborganization/autocomplete
+
+  @Test
+  public void logged_out_users_cannot_autocomplete() throws Exception {
+    mockMvc.perform(get("/api/ucsborganization/autocomplete?prefix=z")).andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_users_can_autocomplete_with_defaults() throws Exception {
+    UCSBOrganization zetaphirho =
+        UCSBOrganization.builder()
+            .orgCode("ZPR")
+            .orgTranslationShort("ZETA PHI RHO")
+            .orgTranslation("ZETA PHI RHO")
+            .inactive(false)
+            .build();
+    when(ucsbOrganizationAutocompleteService.suggest("ze", 10, null))
+        .thenReturn(List.of(zetaphirho));
+
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/ucsborganization/autocomplete?prefix=ze"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    verify(ucsbOrganizationAutocompleteService, times(1)).suggest("ze", 10, null);
+    assertEquals(
+        mapper.writeValueAsString(List.of(zetaphirho)),
+        response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = {"USER"})
+  @Test
+  public void logged_in_users_can_autocomplete_with_limit_and_inactive_filter() throws Exception {
+    when(ucsbOrganizationAutocompleteService.suggest("ze", 3, true)).thenReturn(List.of());
+
+    MvcResult response =
+        mockMvc
+            .perform(get("/api/ucsborganization/autocomplete?prefix=ze&limit=3&inactive=true"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    verify(ucsbOrganizationAutocompleteService, times(1)).suggest("ze", 3, true);
+    assertEquals("[]", response.getResponse().getContentAsString());
+  }
+
   // Authorization tests for /api/ucsborganization/post
   // (Perhaps should also have these for put and delete)
 
@@ -136,6 +187,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
 
     // assert
     verify(ucsbOrganizationRepository, times(1)).save(eq(zetaphirho));
+    verify(ucsbOrganizationAutocompleteService, times(1)).rebuild();
     String expectedJson = mapper.writeValueAsString(zetaphirho);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
@@ -243,6 +295,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
     verify(ucsbOrganizationRepository, times(1)).findById("ZPR");
     verify(ucsbOrganizationRepository, times(1))
         .save(zetaphirho_edited); // should be saved with updated info
+    verify(ucsbOrganizationAutocompleteService, times(1)).rebuild();
     String responseString = response.getResponse().getContentAsString();
     assertEquals(requestBody, responseString);
   }
@@ -307,6 +360,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
     // assert
     verify(ucsbOrganizationRepository, times(1)).findById("ZPR");
     verify(ucsbOrganizationRepository, times(1)).delete(any());
+    verify(ucsbOrganizationAutocompleteService, times(1)).rebuild();
 
     Map<String, Object> json = responseToJson(response);
     assertEquals("UCSBOrganization with id ZPR deleted", json.get("message"));
@@ -12,6 +12,7 @@ import edu.ucsb.cs156.example.repositories.RestaurantRepository;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
+import edu.ucsb.cs156.example.services.metrics.SqlStatementsFilter;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -64,6 +65,7 @@ public class RestaurantIT {
     String expectedJson = mapper.writeValueAsString(restaurant);
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
+    assertEquals("1", response.getResponse().getHeader(SqlStatementsFilter.COUNT_HEADER));
   }
 
   @WithMockUser(roles = {"ADMIN", "USER"})
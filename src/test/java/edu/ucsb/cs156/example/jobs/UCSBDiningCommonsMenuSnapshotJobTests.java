@@ -0,0 +1,53 @@
+package edu.ucsb.cs156.example.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.Job;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuService;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuSnapshotService;
+import edu.ucsb.cs156.example.services.jobs.JobContext;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+public class UCSBDiningCommonsMenuSnapshotJobTests {
+
+  @Test
+  public void job_applies_snapshot_then_invalidates_menu() throws Exception {
+
+    // arrange
+    UCSBDiningCommonsMenuSnapshotService snapshotService =
+        mock(UCSBDiningCommonsMenuSnapshotService.class);
+    UCSBDiningCommonsMenuService menuService = mock(UCSBDiningCommonsMenuService.class);
+    List<UCSBDiningCommonsMenuItem> items =
+        List.of(UCSBDiningCommonsMenuItem.builder().name("Waffles").station("Breakfast").build());
+    when(snapshotService.applySnapshot("ortega", items))
+        .thenReturn(new UCSBDiningCommonsMenuSnapshotService.Result(1, 2, 3));
+
+    Job job = Job.builder().build();
+    JobContext ctx = new JobContext(null, job);
+
+    UCSBDiningCommonsMenuSnapshotJob snapshotJob =
+        UCSBDiningCommonsMenuSnapshotJob.builder()
+            .diningCommonsCode("ortega")
+            .items(items)
+            .snapshotService(snapshotService)
+            .menuService(menuService)
+            .build();
+
+    // act
+    snapshotJob.accept(ctx);
+
+    // assert
+    InOrder order = inOrder(snapshotService, menuService);
+    order.verify(snapshotService).applySnapshot("ortega", items);
+    order.verify(menuService).invalidate("ortega");
+    assertEquals(
+        "Applying menu snapshot of 1 items to ortega\nInserted 1, deleted 2, unchanged 3",
+        job.getLog());
+  }
+}
@@ -0,0 +1,428 @@
+package edu.ucsb.cs156.example.load;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReviews;
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+/**
+ * CRUD traffic against the app's controllers, as {@link LoadGenerator} operations.
+ *
+ * <p>Every resource gets five operations: {@code list} (GET /all), {@code read} (GET by key),
+ * {@code create}, {@code update} and {@code delete}. Resources without an update endpoint have no
+ * update operation. Read, update and delete take a key out of the resource's pool while they use
+ * it, so two threads never work on the same row and a row is never read while it is deleted; if the
+ * pool is empty the operation creates a row instead.
+ */
+public class CrudTraffic {
+
+  /** The operations in the mix. */
+  public static final List<String> OPERATIONS =
+      List.of("list", "read", "create", "update", "delete");
+
+  private static final LocalDateTime WHEN = LocalDateTime.parse("2022-01-03T00:00:00");
+
+  private static final RequestPostProcessor ADMIN = user("admin").roles("ADMIN", "USER");
+
+  /**
+   * One controller: its path, the request parameter that names a row, the field of the JSON
+   * response that holds that key, the parameters that create row number n and the body that updates
+   * it (null if it has no update endpoint).
+   */
+  record Resource(
+      String name,
+      String path,
+      String keyParam,
+      String keyField,
+      IntFunction<Map<String, String>> createParams,
+      IntFunction<Object> updateBody) {}
+
+  static final List<Resource> RESOURCES =
+      List.of(
+          new Resource(
+              "articles",
+              "/api/articles",
+              "id",
+              "id",
+              n ->
+                  Map.of(
+                      "title",
+                      "Article " + n,
+                      "url",
+                      "https://example.org/articles/" + n,
+                      "explanation",
+                      "Something that happened at UCSB",
+                      "email",
+                      "reporter@ucsb.edu",
+                      "dateAdded",
+                      WHEN.toString()),
+              n ->
+                  Articles.builder()
+                      .title("Article " + n + " (updated)")
+                      .url("https://example.org/articles/" + n)
+                      .explanation("Something else that happened at UCSB")
+                      .email("editor@ucsb.edu")
+                      .dateAdded(WHEN)
+                      .build()),
+          new Resource(
+              "helprequests",
+              "/api/helprequests",
+              "id",
+              "id",
+              n ->
+                  Map.of(
+                      "requesterEmail",
+                      "student" + n + "@ucsb.edu",
+                      "teamId",
+                      "s22-5pm-" + n % 4,
+                      "tableOrBreakoutRoom",
+                      "" + n % 10,
+                      "explanation",
+                      "Need help with the backend tests",
+                      "solved",
+                      "false",
+                      "requestTime",
+                      WHEN.toString()),
+              n ->
+                  HelpRequest.builder()
+                      .requesterEmail("student" + n + "@ucsb.edu")
+                      .teamId("s22-5pm-" + n % 4)
+                      .tableOrBreakoutRoom("" + n % 10)
+                      .explanation("Need help with the frontend tests")
+                      .solved(true)
+                      .requestTime(WHEN)
+                      .build()),
+          new Resource(
+              "menuitemreviews",
+              "/api/menuitemreviews",
+              "id",
+              "id",
+              n ->
+                  Map.of(
+                      "itemId", "" + n % 50,
+                      "reviewerEmail", "diner" + n % 20 + "@ucsb.edu",
+                      "stars", "" + (n % 5 + 1),
+                      "dateReviewed", WHEN.toString(),
+                      "comments", "Pretty good"),
+              n ->
+                  MenuItemReviews.builder()
+                      .itemId(n % 50)
+                      .reviewerEmail("diner" + n % 20 + "@ucsb.edu")
+                      .stars(5)
+                      .dateReviewed(WHEN)
+                      .comments("Better the second time")
+                      .build()),
+          new Resource(
+              "recommendationrequest",
+              "/api/recommendationrequest",
+              "id",
+              "id",
+              n ->
+                  Map.of(
+                      "requesterEmail",
+                      "student" + n + "@ucsb.edu",
+                      "professorEmail",
+                      "professor" + n % 10 + "@ucsb.edu",
+                      "explanation",
+                      "Applying to graduate school",
+                      "dateRequested",
+                      WHEN.toString(),
+                      "dateNeeded",
+                      WHEN.plusDays(30).toString(),
+                      "done",
+                      "false"),
+              n ->
+                  RecommendationRequest.builder()
+                      .requesterEmail("student" + n + "@ucsb.edu")
+                      .professorEmail("professor" + n % 10 + "@ucsb.edu")
+                      .explanation("Applying to graduate school")
+                      .dateRequested(WHEN)
+                      .dateNeeded(WHEN.plusDays(30))
+                      .done(true)
+                      .build()),
+          new Resource(
+              "restaurants",
+              "/api/restaurants",
+              "id",
+              "id",
+              n -> Map.of("name", "Restaurant " + n, "description", "Tacos"),
+              n -> Restaurant.builder().name("Restaurant " + n).description("Burritos").build()),
+          new Resource(
+              "ucsbdates",
+              "/api/ucsbdates",
+              "id",
+              "id",
+              n ->
+                  Map.of(
+                      "quarterYYYYQ", "2022" + (n % 4 + 1),
+                      "name", "Day " + n,
+                      "localDateTime", WHEN.plusDays(n % 100).toString()),
+              null),
+          new Resource(
+              "ucsbdiningcommons",
+              "/api/ucsbdiningcommons",
+              "code",
+              "code",
+              n ->
+                  Map.of(
+                      "code", "commons" + n,
+                      "name", "Dining Commons " + n,
+                      "hasSackMeal", "true",
+                      "hasTakeOutMeal", "false",
+                      "hasDiningCam", "true",
+                      "latitude", "" + (34.40 + n % 100 / 10000.0),
+                      "longitude", "" + (-119.85 - n % 100 / 10000.0)),
+              n ->
+                  UCSBDiningCommons.builder()
+                      .code("commons" + n)
+                      .name("Dining Commons " + n + " (renovated)")
+                      .hasSackMeal(false)
+                      .hasTakeOutMeal(true)
+                      .hasDiningCam(true)
+                      .latitude(34.41)
+                      .longitude(-119.84)
+                      .build()),
+          new Resource(
+              "ucsbdiningcommonsmenuitems",
+              "/api/ucsbdiningcommonsmenuitems",
+              "id",
+              "id",
+              n ->
+                  Map.of(
+                      "diningCommonsCode", "ortega",
+                      "name", "Menu item " + n,
+                      "station", "Entrees"),
+              n ->
+                  UCSBDiningCommonsMenuItem.builder()
+                      .diningCommonsCode("ortega")
+                      .name("Menu item " + n)
+                      .station("Desserts")
+                      .build()),
+          new Resource(
+              "ucsborganization",
+              "/api/ucsborganization",
+              "code",
+              "orgCode",
+              n ->
+                  Map.of(
+                      "orgCode", "ORG" + n,
+                      "orgTranslationShort", "Org " + n,
+                      "orgTranslation", "Student Organization " + n,
+                      "inactive", "false"),
+              n ->
+                  UCSBOrganization.builder()
+                      .orgCode("ORG" + n)
+                      .orgTranslationShort("Org " + n)
+                      .orgTranslation("Student Organization " + n + " (renamed)")
+                      .inactive(true)
+                      .build()));
+
+  private final MockMvc mockMvc;
+  private final ObjectMapper mapper;
+  private final AtomicInteger rows = new AtomicInteger();
+  private final Map<Resource, KeyPool> pools = new LinkedHashMap<>();
+
+  public CrudTraffic(MockMvc mockMvc, ObjectMapper mapper) {
+    this.mockMvc = mockMvc;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Parses a mix such as {@code "list:10,read:50,create:15,update:10,delete:15"}. Operations that
+   * are not mentioned get weight 0.
+   *
+   * @param mix the mix
+   * @return the weight of each operation
+   */
+  public static Map<String, Integer> parseMix(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String part : mix.split(",")) {
+      String[] operationAndWeight = part.trim().split(":");
+      if (operationAndWeight.length != 2 || !OPERATIONS.contains(operationAndWeight[0])) {
+        throw new IllegalArgumentException(
+            "expected operation:weight with operation one of %s, got %s"
+                .formatted(OPERATIONS, part));
+      }
+      weights.put(operationAndWeight[0], Integer.parseInt(operationAndWeight[1]));
+    }
+    return weights;
+  }
+
+  /**
+   * Returns the names of all resources.
+   *
+   * @return the names, e.g. "restaurants"
+   */
+  public static List<String> resourceNames() {
+    return RESOURCES.stream().map(Resource::name).toList();
+  }
+
+  /**
+   * Creates rows for the selected resources, so that reads have something to read, and returns the
+   * operations for them. Each operation is named "resource operation", e.g. "restaurants read".
+   *
+   * @param resources the names of the resources to send traffic to
+   * @param mix the weight of each operation in {@link #OPERATIONS}
+   * @param rowsPerResource the number of rows to create for each resource first
+   * @return the operations
+   * @throws Exception if creating a row fails
+   */
+  public List<LoadGenerator.Operation> operations(
+      List<String> resources, Map<String, Integer> mix, int rowsPerResource) throws Exception {
+    for (String name : resources) {
+      if (!resourceNames().contains(name)) {
+        throw new IllegalArgumentException(
+            "unknown resource %s, expected one of %s".formatted(name, resourceNames()));
+      }
+    }
+    List<LoadGenerator.Operation> operations = new ArrayList<>();
+    for (Resource resource : RESOURCES) {
+      if (!resources.contains(resource.name())) {
+        continue;
+      }
+      KeyPool pool = pools.computeIfAbsent(resource, r -> new KeyPool());
+      for (int i = 0; i < rowsPerResource; i++) {
+        int status = sendCreate(resource, pool);
+        if (status != 200) {
+          throw new IllegalStateException(
+              "creating %s returned %d".formatted(resource.name(), status));
+        }
+      }
+      String name = resource.name() + " ";
+      operations.add(
+          new LoadGenerator.Operation(
+              name + "list", mix.getOrDefault("list", 0), () -> sendList(resource)));
+      operations.add(
+          new LoadGenerator.Operation(
+              name + "read", mix.getOrDefault("read", 0), () -> sendRead(resource, pool)));
+      operations.add(
+          new LoadGenerator.Operation(
+              name + "create", mix.getOrDefault("create", 0), () -> sendCreate(resource, pool)));
+      if (resource.updateBody() != null) {
+        operations.add(
+            new LoadGenerator.Operation(
+                name + "update", mix.getOrDefault("update", 0), () -> sendUpdate(resource, pool)));
+      }
+      operations.add(
+          new LoadGenerator.Operation(
+              name + "delete", mix.getOrDefault("delete", 0), () -> sendDelete(resource, pool)));
+    }
+    return operations;
+  }
+
+  private int sendList(Resource resource) throws Exception {
+    return send(get(resource.path() + "/all").with(ADMIN)).getStatus();
+  }
+
+  private int sendRead(Resource resource, KeyPool pool) throws Exception {
+    Key key = pool.take();
+    if (key == null) {
+      return sendCreate(resource, pool);
+    }
+    try {
+      return send(get(resource.path()).param(resource.keyParam(), key.value()).with(ADMIN))
+          .getStatus();
+    } finally {
+      pool.add(key);
+    }
+  }
+
+  private int sendCreate(Resource resource, KeyPool pool) throws Exception {
+    int n = rows.incrementAndGet();
+    var request = post(resource.path() + "/post").with(csrf()).with(ADMIN);
+    resource.createParams().apply(n).forEach(request::param);
+    MockHttpServletResponse response = send(request);
+    if (response.getStatus() == 200) {
+      String key = mapper.readTree(response.getContentAsString()).get(resource.keyField()).asText();
+      pool.add(new Key(key, n));
+    }
+    return response.getStatus();
+  }
+
+  private int sendUpdate(Resource resource, KeyPool pool) throws Exception {
+    Key key = pool.take();
+    if (key == null) {
+      return sendCreate(resource, pool);
+    }
+    try {
+      return send(put(resource.path())
+              .param(resource.keyParam(), key.value())
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(mapper.writeValueAsString(resource.updateBody().apply(key.row())))
+              .with(csrf())
+              .with(ADMIN))
+          .getStatus();
+    } finally {
+      pool.add(key);
+    }
+  }
+
+  private int sendDelete(Resource resource, KeyPool pool) throws Exception {
+    Key key = pool.take();
+    if (key == null) {
+      return sendCreate(resource, pool);
+    }
+    int status =
+        send(delete(resource.path())
+                .param(resource.keyParam(), key.value())
+                .with(csrf())
+                .with(ADMIN))
+            .getStatus();
+    if (status != 200) {
+      pool.add(key);
+    }
+    return status;
+  }
+
+  private MockHttpServletResponse send(RequestBuilder request) throws Exception {
+    return mockMvc.perform(request).andReturn().getResponse();
+  }
+
+  /** A row's key, and the row number it was created from. */
+  record Key(String value, int row) {}
+
+  /** The keys of the rows of one resource that no thread is using. */
+  static class KeyPool {
+    private final List<Key> keys = new ArrayList<>();
+
+    synchronized void add(Key key) {
+      keys.add(key);
+    }
+
+    synchronized Key take() {
+      if (keys.isEmpty()) {
+        return null;
+      }
+      int i = ThreadLocalRandom.current().nextInt(keys.size());
+      Key key = keys.get(i);
+      keys.set(i, keys.get(keys.size() - 1));
+      keys.remove(keys.size() - 1);
+      return key;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package edu.ucsb.cs156.example.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Sends a mix of CRUD traffic to the controllers, with the app set up as in {@code RestaurantIT},
+ * and reports throughput, latency percentiles and error rates. Requests go through MockMvc in this
+ * JVM, so no server is started and Tomcat and the network are not measured. Not part of {@code mvn
+ * test}; see docs/load-testing.md for how to run it and the {@code load.*} system properties that
+ * configure it.
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+    properties = {
+      // the integration profile logs every statement and bind parameter, which would dominate
+      "logging.level.sql=${load.sqlLogLevel:WARN}",
+      "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=${load.sqlLogLevel:WARN}",
+      "app.logging.sampleRate=${load.logSampleRate:0}"
+    })
+@AutoConfigureMockMvc
+@ActiveProfiles("integration")
+@Import(TestConfig.class)
+public class InProcessCrudLoadIT {
+
+  @Autowired public MockMvc mockMvc;
+
+  @Autowired public ObjectMapper mapper;
+
+  @MockBean UserRepository userRepository;
+
+  @Test
+  public void crud_mix_stays_under_the_error_rate() throws Exception {
+    int threads = Integer.getInteger("load.threads", 8);
+    Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmupSeconds", 5));
+    Duration duration = Duration.ofSeconds(Integer.getInteger("load.seconds", 20));
+    String resources = System.getProperty("load.resources", "all");
+    String mix = System.getProperty("load.mix", "list:10,read:50,create:15,update:10,delete:15");
+    int rows = Integer.getInteger("load.rows", 20);
+    double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0"));
+
+    List<String> selected =
+        resources.equals("all")
+            ? CrudTraffic.resourceNames()
+            : Arrays.stream(resources.split(",")).map(String::trim).toList();
+    List<LoadGenerator.Operation> operations =
+        new CrudTraffic(mockMvc, mapper).operations(selected, CrudTraffic.parseMix(mix), rows);
+
+    LoadReport report = new LoadGenerator(threads, warmup, duration).run(operations);
+
+    String table = "mix %s, %d rows per resource%n%s".formatted(mix, rows, report.format());
+    log.warn("\n{}", table);
+    Files.writeString(Path.of("target", "load-report.txt"), table);
+    assertTrue(
+        report.getErrorRate() <= maxErrorRate,
+        "error rate %.4f is over %.4f".formatted(report.getErrorRate(), maxErrorRate));
+  }
+}
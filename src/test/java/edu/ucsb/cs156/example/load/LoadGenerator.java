@@ -0,0 +1,108 @@
+package edu.ucsb.cs156.example.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a weighted mix of requests from a fixed number of threads for a fixed time, and records the
+ * latency and status of every request that starts after the warmup.
+ *
+ * <p>Each thread sends its next request as soon as the previous one completes (a closed model), so
+ * the throughput it reports is what the app sustains with {@code threads} requests in flight.
+ */
+public class LoadGenerator {
+
+  /** Sends one request and returns its HTTP status. */
+  @FunctionalInterface
+  public interface Request {
+    int send() throws Exception;
+  }
+
+  /**
+   * One kind of request in the mix, e.g. reading a restaurant.
+   *
+   * @param name the name it is reported under
+   * @param weight how often it is sent relative to the others
+   * @param request the request
+   */
+  public record Operation(String name, int weight, Request request) {}
+
+  private final int threads;
+  private final Duration warmup;
+  private final Duration duration;
+
+  public LoadGenerator(int threads, Duration warmup, Duration duration) {
+    this.threads = threads;
+    this.warmup = warmup;
+    this.duration = duration;
+  }
+
+  /**
+   * Sends the mix until the warmup and the measurement time have passed.
+   *
+   * @param operations the requests to send; operations with weight 0 are never sent
+   * @return the report for the measured part of the run
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  public LoadReport run(List<Operation> operations) throws InterruptedException {
+    List<Operation> mix = operations.stream().filter(o -> o.weight() > 0).toList();
+    if (mix.isEmpty()) {
+      throw new IllegalArgumentException("no operations with a positive weight");
+    }
+    int[] cumulative = new int[mix.size()];
+    int total = 0;
+    Map<String, LoadReport.OperationStats> stats = new LinkedHashMap<>();
+    List<LoadReport.OperationStats> statsOf = new ArrayList<>();
+    for (int i = 0; i < mix.size(); i++) {
+      total += mix.get(i).weight();
+      cumulative[i] = total;
+      statsOf.add(stats.computeIfAbsent(mix.get(i).name(), LoadReport.OperationStats::new));
+    }
+    int totalWeight = total;
+    LoadReport.OperationStats all = new LoadReport.OperationStats("total");
+
+    long start = System.nanoTime();
+    long measureFrom = start + warmup.toNanos();
+    long end = measureFrom + duration.toNanos();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      pool.execute(
+          () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now = System.nanoTime();
+            while (now < end) {
+              int pick = random.nextInt(totalWeight);
+              int i = 0;
+              while (cumulative[i] <= pick) {
+                i++;
+              }
+              int status;
+              try {
+                status = mix.get(i).request().send();
+              } catch (Exception e) {
+                status = LoadReport.EXCEPTION;
+              }
+              long finished = System.nanoTime();
+              if (now >= measureFrom) {
+                long micros = (finished - now) / 1000;
+                statsOf.get(i).record(micros, status);
+                all.record(micros, status);
+              }
+              now = finished;
+            }
+          });
+    }
+    pool.shutdown();
+    if (!pool.awaitTermination(warmup.plus(duration).toSeconds() + 60, TimeUnit.SECONDS)) {
+      pool.shutdownNow();
+    }
+    return new LoadReport(threads, duration, List.copyOf(stats.values()), all);
+  }
+}
@@ -0,0 +1,92 @@
+package edu.ucsb.cs156.example.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class LoadGeneratorTests {
+
+  private final LoadGenerator generator =
+      new LoadGenerator(2, Duration.ofMillis(50), Duration.ofMillis(300));
+
+  @Test
+  public void operations_are_sent_in_proportion_to_their_weights() throws Exception {
+    LoadReport report =
+        generator.run(
+            List.of(
+                new LoadGenerator.Operation("read", 3, () -> pause(200)),
+                new LoadGenerator.Operation("write", 1, () -> pause(200)),
+                new LoadGenerator.Operation("never", 0, () -> 500)));
+
+    assertEquals(
+        List.of("read", "write"), report.getOperations().stream().map(o -> o.getName()).toList());
+    LoadReport.OperationStats read = report.getOperations().get(0);
+    LoadReport.OperationStats write = report.getOperations().get(1);
+    assertTrue(
+        read.getCount() > write.getCount(),
+        "%d reads, %d writes".formatted(read.getCount(), write.getCount()));
+    assertEquals(read.getCount() + write.getCount(), report.getTotal().getCount());
+    assertEquals(0.0, report.getErrorRate());
+    assertTrue(read.getLatency().getValueAtPercentile(50) >= 200);
+    assertTrue(report.getThroughput(report.getTotal()) > 0);
+  }
+
+  @Test
+  public void error_statuses_and_exceptions_are_errors() throws Exception {
+    int[] calls = {0};
+    LoadReport report =
+        generator.run(
+            List.of(
+                new LoadGenerator.Operation(
+                    "flaky",
+                    1,
+                    () -> {
+                      synchronized (calls) {
+                        calls[0]++;
+                        if (calls[0] % 3 == 0) {
+                          throw new IllegalStateException("boom");
+                        }
+                        return calls[0] % 3 == 1 ? 200 : 404;
+                      }
+                    })));
+
+    LoadReport.OperationStats flaky = report.getTotal();
+    Map<Integer, Long> statuses = flaky.getStatuses();
+    assertEquals(flaky.getCount(), statuses.values().stream().mapToLong(Long::longValue).sum());
+    assertEquals(
+        statuses.getOrDefault(404, 0L) + statuses.getOrDefault(LoadReport.EXCEPTION, 0L),
+        flaky.getErrors());
+    assertTrue(report.getErrorRate() > 0.5);
+    String table = report.format();
+    assertTrue(table.contains("2 threads, 0 s measured"), table);
+    assertTrue(table.contains("flaky"), table);
+    assertTrue(table.contains("total"), table);
+  }
+
+  @Test
+  public void a_mix_needs_a_positive_weight() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> generator.run(List.of(new LoadGenerator.Operation("never", 0, () -> 200))));
+  }
+
+  @Test
+  public void mix_is_parsed_into_weights() {
+    assertEquals(Map.of("read", 8, "create", 2), CrudTraffic.parseMix("read:8, create:2"));
+    assertThrows(IllegalArgumentException.class, () -> CrudTraffic.parseMix("browse:1"));
+    assertThrows(IllegalArgumentException.class, () -> CrudTraffic.parseMix("read"));
+  }
+
+  private static int pause(long micros) {
+    long until = System.nanoTime() + micros * 1000;
+    while (System.nanoTime() < until) {
+      Thread.onSpinWait();
+    }
+    return 200;
+  }
+}
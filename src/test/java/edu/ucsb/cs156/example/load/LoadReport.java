@@ -0,0 +1,156 @@
+package edu.ucsb.cs156.example.load;
+
+import edu.ucsb.cs156.example.services.metrics.LatencyHistogram;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The result of a {@link LoadGenerator} run: throughput, latency percentiles and error rate for
+ * each operation and for the whole mix. A request is an error if it threw or its status was not 2xx
+ * or 3xx.
+ */
+public class LoadReport {
+
+  /** The status recorded for a request that threw instead of returning a response. */
+  public static final int EXCEPTION = 0;
+
+  /** Latencies and statuses of one operation. */
+  public static class OperationStats {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    OperationStats(String name) {
+      this.name = name;
+    }
+
+    void record(long micros, int status) {
+      latency.record(micros);
+      statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+      if (status < 200 || status >= 400) {
+        errors.increment();
+      }
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public LatencyHistogram getLatency() {
+      return latency;
+    }
+
+    public long getCount() {
+      return latency.getCount();
+    }
+
+    public long getErrors() {
+      return errors.sum();
+    }
+
+    /**
+     * Returns the number of responses with each status; {@value #EXCEPTION} counts requests that
+     * threw.
+     *
+     * @return the counts, by status
+     */
+    public Map<Integer, Long> getStatuses() {
+      Map<Integer, Long> counts = new TreeMap<>();
+      statuses.forEach((status, count) -> counts.put(status, count.sum()));
+      return counts;
+    }
+  }
+
+  private final int threads;
+  private final Duration duration;
+  private final List<OperationStats> operations;
+  private final OperationStats total;
+
+  LoadReport(
+      int threads, Duration duration, List<OperationStats> operations, OperationStats total) {
+    this.threads = threads;
+    this.duration = duration;
+    this.operations = operations;
+    this.total = total;
+  }
+
+  public List<OperationStats> getOperations() {
+    return operations;
+  }
+
+  public OperationStats getTotal() {
+    return total;
+  }
+
+  /**
+   * Returns the requests per second for an operation, over the measured time.
+   *
+   * @param operation the operation, or {@link #getTotal()}
+   * @return the throughput
+   */
+  public double getThroughput(OperationStats operation) {
+    return operation.getCount() / (duration.toMillis() / 1000.0);
+  }
+
+  /**
+   * Returns the fraction of all requests that were errors.
+   *
+   * @return the error rate, between 0 and 1
+   */
+  public double getErrorRate() {
+    return total.getCount() == 0 ? 0 : (double) total.getErrors() / total.getCount();
+  }
+
+  /**
+   * Formats the report as a table, one row per operation and a total row, with latencies in
+   * milliseconds.
+   *
+   * @return the table
+   */
+  public String format() {
+    StringBuilder out = new StringBuilder();
+    out.append("%d threads, %d s measured%n".formatted(threads, duration.toSeconds()));
+    out.append(
+        "%-36s %8s %9s %8s %8s %8s %8s %8s %7s  %s%n"
+            .formatted(
+                "operation",
+                "requests",
+                "req/s",
+                "mean",
+                "p50",
+                "p95",
+                "p99",
+                "max",
+                "errors",
+                "statuses"));
+    for (OperationStats operation : operations) {
+      row(out, operation);
+    }
+    row(out, total);
+    return out.toString();
+  }
+
+  private void row(StringBuilder out, OperationStats operation) {
+    LatencyHistogram latency = operation.getLatency();
+    double errorPercent =
+        operation.getCount() == 0 ? 0 : 100.0 * operation.getErrors() / operation.getCount();
+    out.append(
+        "%-36s %8d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %6.2f%%  %s%n"
+            .formatted(
+                operation.getName(),
+                operation.getCount(),
+                getThroughput(operation),
+                latency.getMean() / 1000,
+                latency.getValueAtPercentile(50) / 1000.0,
+                latency.getValueAtPercentile(95) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0,
+                latency.getMax() / 1000.0,
+                errorPercent,
+                operation.getStatuses()));
+  }
+}
@@ -0,0 +1,91 @@
+package edu.ucsb.cs156.example.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.UUID;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/** Runs Users.json against a users table that already holds duplicate emails. */
+public class UsersChangelogTests {
+
+  private DriverManagerDataSource dataSource;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  public void setUp() {
+    dataSource =
+        new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    // the table as it was before Users-2, so Users-1 is marked as run
+    jdbcTemplate.execute(
+        "CREATE TABLE USERS (ID BIGINT AUTO_INCREMENT PRIMARY KEY, ADMIN BOOLEAN NOT NULL,"
+            + " EMAIL VARCHAR(255), EMAIL_VERIFIED BOOLEAN NOT NULL, FAMILY_NAME VARCHAR(255),"
+            + " FULL_NAME VARCHAR(255), GIVEN_NAME VARCHAR(255), GOOGLE_SUB VARCHAR(255),"
+            + " HOSTED_DOMAIN VARCHAR(255), LOCALE VARCHAR(255), PICTURE_URL VARCHAR(255))");
+    insertUser(1, "cgaucho@ucsb.edu", false);
+    insertUser(2, "cgaucho@ucsb.edu", true);
+    insertUser(3, "ldelplaya@ucsb.edu", true);
+    insertUser(4, "ldelplaya@ucsb.edu", false);
+    insertUser(5, "pconrad@ucsb.edu", false);
+  }
+
+  private void insertUser(long id, String email, boolean admin) {
+    jdbcTemplate.update(
+        "INSERT INTO USERS (ID, EMAIL, ADMIN, EMAIL_VERIFIED) VALUES (?, ?, ?, TRUE)",
+        id,
+        email,
+        admin);
+  }
+
+  private void migrate() throws Exception {
+    SpringLiquibase liquibase = new SpringLiquibase();
+    liquibase.setDataSource(dataSource);
+    liquibase.setResourceLoader(new DefaultResourceLoader());
+    liquibase.setChangeLog("classpath:db/migration/changes/Users.json");
+    liquibase.afterPropertiesSet();
+  }
+
+  @Test
+  public void duplicates_are_removed_keeping_the_oldest_user_and_any_admin_flag() throws Exception {
+    migrate();
+
+    assertEquals(
+        List.of("1 cgaucho@ucsb.edu TRUE", "3 ldelplaya@ucsb.edu TRUE", "5 pconrad@ucsb.edu FALSE"),
+        jdbcTemplate.queryForList(
+            "SELECT ID || ' ' || EMAIL || ' ' || ADMIN FROM USERS ORDER BY ID", String.class));
+  }
+
+  @Test
+  public void jobs_of_removed_duplicates_move_to_the_kept_user() throws Exception {
+    jdbcTemplate.execute(
+        "CREATE TABLE JOBS (ID BIGINT PRIMARY KEY,"
+            + " CREATED_BY_ID BIGINT REFERENCES USERS (ID))");
+    jdbcTemplate.update("INSERT INTO JOBS VALUES (10, 1), (11, 2), (12, 4), (13, 5), (14, NULL)");
+
+    migrate();
+
+    assertEquals(
+        List.of("10 1", "11 1", "12 3", "13 5", "14 null"),
+        jdbcTemplate.queryForList(
+            "SELECT ID || ' ' || COALESCE(CAST(CREATED_BY_ID AS VARCHAR), 'null') FROM JOBS"
+                + " ORDER BY ID",
+            String.class));
+  }
+
+  @Test
+  public void email_is_unique_afterwards() throws Exception {
+    migrate();
+
+    assertEquals(
+        1,
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'USERS_EMAIL_IDX'",
+            Integer.class));
+  }
+}
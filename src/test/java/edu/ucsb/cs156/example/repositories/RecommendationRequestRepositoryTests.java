@@ -0,0 +1,72 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+/** Runs the deadline queries against H2, with the schema from the Liquibase changelog. */
+@DataJpaTest
+public class RecommendationRequestRepositoryTests {
+
+  private static final LocalDateTime NOW = LocalDateTime.parse("2022-01-03T00:00:00");
+
+  @Autowired private RecommendationRequestRepository recReqRepository;
+
+  private RecommendationRequest save(String explanation, LocalDateTime dateNeeded, boolean done) {
+    return recReqRepository.save(
+        RecommendationRequest.builder()
+            .requesterEmail("student@ucsb.edu")
+            .professorEmail("prof@ucsb.edu")
+            .explanation(explanation)
+            .dateRequested(NOW.minusDays(10))
+            .dateNeeded(dateNeeded)
+            .done(done)
+            .build());
+  }
+
+  private List<String> claim(LocalDateTime from, LocalDateTime to, LocalDateTime notifiedAt) {
+    recReqRepository.markDeadlinesNotified(from, to, notifiedAt);
+    return recReqRepository
+        .findByDoneFalseAndDateNeededBetweenAndDeadlineNotifiedAtOrderByDateNeededAsc(
+            from, to, notifiedAt)
+        .stream()
+        .map(RecommendationRequest::getExplanation)
+        .toList();
+  }
+
+  @Test
+  public void claims_open_unreported_requests_within_the_window_soonest_first() {
+    save("later", NOW.plusDays(2), false);
+    save("sooner", NOW.plusDays(1), false);
+    save("done", NOW.plusDays(1), true);
+    save("overdue", NOW.minusDays(1), false);
+    save("outside the window", NOW.plusDays(4), false);
+
+    assertEquals(List.of("sooner", "later"), claim(NOW, NOW.plusDays(3), NOW));
+  }
+
+  @Test
+  public void a_request_is_claimed_only_once() {
+    RecommendationRequest req = save("due", NOW.plusDays(1), false);
+
+    assertEquals(1, recReqRepository.markDeadlinesNotified(NOW, NOW.plusDays(3), NOW));
+    LocalDateTime later = NOW.plusMinutes(15);
+    assertEquals(0, recReqRepository.markDeadlinesNotified(later, later.plusDays(3), later));
+
+    assertEquals(List.of(), claim(later, later.plusDays(3), later));
+    assertEquals(NOW, recReqRepository.findById(req.getId()).orElseThrow().getDeadlineNotifiedAt());
+  }
+
+  @Test
+  public void claimed_requests_are_found_by_a_claim_time_with_microseconds() {
+    save("due", NOW.plusDays(1), false);
+    LocalDateTime claimedAt = NOW.plusNanos(123_456_000);
+
+    assertEquals(List.of("due"), claim(claimedAt, claimedAt.plusDays(3), claimedAt));
+  }
+}
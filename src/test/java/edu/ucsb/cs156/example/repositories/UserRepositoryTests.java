@@ -0,0 +1,127 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.services.AdminStatusService;
+import edu.ucsb.cs156.example.services.CurrentUserServiceImpl;
+import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs the user upserts against H2, with the schema from the Liquibase changelog. Each upsert
+ * commits on its own, as it does when a user logs in, so that concurrent upserts see each other.
+ */
+@DataJpaTest
+@Import(CurrentUserServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserRepositoryTests {
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private CurrentUserServiceImpl currentUserService;
+
+  @MockBean private AdminStatusService adminStatusService;
+
+  @MockBean private GrantedAuthoritiesService grantedAuthoritiesService;
+
+  @AfterEach
+  public void cleanup() {
+    userRepository.deleteAll();
+  }
+
+  private static User user(String email, boolean admin) {
+    return User.builder()
+        .email(email)
+        .googleSub("sub-" + email)
+        .fullName("Chris Gaucho")
+        .emailVerified(true)
+        .admin(admin)
+        .build();
+  }
+
+  private static OAuth2User oAuthUser(String email) {
+    return new DefaultOAuth2User(
+        List.of(new SimpleGrantedAuthority("ROLE_USER")),
+        Map.of("email", email, "sub", "sub-" + email, "email_verified", true),
+        "email");
+  }
+
+  @Test
+  public void upsert_inserts_a_new_user() {
+    User stored = userRepository.upsertOnH2(user("cgaucho@ucsb.edu", false));
+
+    assertTrue(stored.getId() > 0);
+    assertEquals("cgaucho@ucsb.edu", stored.getEmail());
+    assertEquals("sub-cgaucho@ucsb.edu", stored.getGoogleSub());
+    assertEquals(1, userRepository.count());
+  }
+
+  @Test
+  public void upsert_returns_the_existing_user_and_never_demotes_an_admin() {
+    User admin = userRepository.upsertOnH2(user("cgaucho@ucsb.edu", true));
+
+    User again = userRepository.upsertOnH2(user("cgaucho@ucsb.edu", false));
+
+    assertEquals(admin.getId(), again.getId());
+    assertTrue(again.getAdmin());
+    assertTrue(userRepository.findByEmail("cgaucho@ucsb.edu").orElseThrow().getAdmin());
+    assertEquals(1, userRepository.count());
+  }
+
+  @Test
+  public void upsert_promotes_an_existing_user() {
+    userRepository.upsertOnH2(user("cgaucho@ucsb.edu", false));
+
+    assertTrue(userRepository.upsertOnH2(user("cgaucho@ucsb.edu", true)).getAdmin());
+  }
+
+  @Test
+  public void concurrent_logins_store_one_user_and_keep_the_admin_flag() throws Exception {
+    int threads = 8;
+    // only one of the logins is by an admin
+    when(adminStatusService.isAdminEmail("cgaucho@ucsb.edu")).thenReturn(true, false);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<User>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        Callable<User> login =
+            () -> {
+              start.await();
+              return currentUserService.upsertUser(oAuthUser("cgaucho@ucsb.edu"));
+            };
+        results.add(executor.submit(login));
+      }
+      start.countDown();
+      for (Future<User> result : results) {
+        assertEquals("cgaucho@ucsb.edu", result.get().getEmail());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(1, userRepository.count());
+    assertTrue(userRepository.findByEmail("cgaucho@ucsb.edu").orElseThrow().getAdmin());
+  }
+}
@@ -0,0 +1,121 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class AdminStatusServiceTests {
+
+  @Mock private UserRepository userRepository;
+
+  @InjectMocks private AdminStatusService adminStatusService;
+
+  private long now = 0;
+
+  private final User flaggedAdmin = User.builder().email("flagged@ucsb.edu").admin(true).build();
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    adminStatusService.setAdminEmails(List.of("phtcon@ucsb.edu"));
+    adminStatusService.nanoTime = () -> now;
+    when(userRepository.findByEmail("flagged@ucsb.edu")).thenReturn(Optional.of(flaggedAdmin));
+  }
+
+  @Test
+  public void configured_admin_emails_are_admins_without_queries() {
+    assertTrue(adminStatusService.isAdminEmail("phtcon@ucsb.edu"));
+    assertTrue(adminStatusService.isAdmin("phtcon@ucsb.edu"));
+    assertFalse(adminStatusService.isAdminEmail("flagged@ucsb.edu"));
+    assertFalse(adminStatusService.isAdminEmail(null));
+    verify(userRepository, times(0)).findByEmail(any());
+  }
+
+  @Test
+  public void null_email_is_not_an_admin() {
+    assertFalse(adminStatusService.isAdmin(null));
+    verify(userRepository, times(0)).findByEmail(any());
+  }
+
+  @Test
+  public void database_flag_is_cached_until_ttl() {
+    assertTrue(adminStatusService.isAdmin("flagged@ucsb.edu"));
+    now += Duration.ofMinutes(4).toNanos();
+    assertTrue(adminStatusService.isAdmin("flagged@ucsb.edu"));
+    verify(userRepository, times(1)).findByEmail("flagged@ucsb.edu");
+
+    now += Duration.ofMinutes(1).toNanos();
+    assertTrue(adminStatusService.isAdmin("flagged@ucsb.edu"));
+    verify(userRepository, times(2)).findByEmail("flagged@ucsb.edu");
+  }
+
+  @Test
+  public void unknown_users_are_not_admins_and_are_cached() {
+    assertFalse(adminStatusService.isAdmin("nobody@ucsb.edu"));
+    assertFalse(adminStatusService.isAdmin("nobody@ucsb.edu"));
+    verify(userRepository, times(1)).findByEmail("nobody@ucsb.edu");
+  }
+
+  @Test
+  public void update_replaces_the_cached_flag() {
+    assertTrue(adminStatusService.isAdmin("flagged@ucsb.edu"));
+
+    adminStatusService.update(User.builder().email("flagged@ucsb.edu").admin(false).build());
+
+    assertFalse(adminStatusService.isAdmin("flagged@ucsb.edu"));
+    verify(userRepository, times(1)).findByEmail("flagged@ucsb.edu");
+  }
+
+  @Test
+  public void cached_admin_never_queries_the_database() {
+    assertEquals(Optional.empty(), adminStatusService.cachedAdmin("flagged@ucsb.edu"));
+
+    adminStatusService.isAdmin("flagged@ucsb.edu");
+    assertEquals(Optional.of(true), adminStatusService.cachedAdmin("flagged@ucsb.edu"));
+
+    adminStatusService.update(User.builder().email("flagged@ucsb.edu").admin(false).build());
+    assertEquals(Optional.of(false), adminStatusService.cachedAdmin("flagged@ucsb.edu"));
+
+    now += Duration.ofMinutes(10).toNanos();
+    assertEquals(Optional.empty(), adminStatusService.cachedAdmin("flagged@ucsb.edu"));
+    verify(userRepository, times(1)).findByEmail("flagged@ucsb.edu");
+  }
+
+  @Test
+  public void cache_is_bounded() {
+    ReflectionTestUtils.setField(adminStatusService, "cacheSize", 2);
+
+    adminStatusService.isAdmin("a@ucsb.edu");
+    now += Duration.ofMinutes(10).toNanos();
+    adminStatusService.isAdmin("b@ucsb.edu");
+    // a has expired, so it is evicted to make room
+    adminStatusService.isAdmin("c@ucsb.edu");
+    assertEquals(2, adminStatusService.cachedCount());
+
+    // nothing has expired, so the whole cache is dropped
+    adminStatusService.isAdmin("d@ucsb.edu");
+    assertEquals(1, adminStatusService.cachedCount());
+
+    // refreshing an email already in a full cache keeps the cache
+    adminStatusService.isAdmin("e@ucsb.edu");
+    adminStatusService.update(User.builder().email("e@ucsb.edu").admin(true).build());
+    assertEquals(2, adminStatusService.cachedCount());
+    assertTrue(adminStatusService.isAdmin("e@ucsb.edu"));
+  }
+}
@@ -0,0 +1,177 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.services.ArticlesIngestService.OnConflict;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public class ArticlesIngestServiceTests {
+
+  @Mock private ArticlesRepository articlesRepository;
+
+  @InjectMocks private ArticlesIngestService articlesIngestService;
+
+  private static final String URL = "https://www.ucsb.edu/news";
+  private static final String HASH = ArticlesIngestService.urlHash(URL);
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  private static Articles incoming() {
+    return Articles.builder()
+        .title("News")
+        .url(URL + "/")
+        .explanation("UCSB news")
+        .email("reporter@ucsb.edu")
+        .dateAdded(LocalDateTime.parse("2022-01-03T00:00:00"))
+        .build();
+  }
+
+  private static Articles existing() {
+    return Articles.builder()
+        .id(5L)
+        .title("Old news")
+        .url(URL)
+        .explanation("old")
+        .email("old@ucsb.edu")
+        .dateAdded(LocalDateTime.parse("2020-01-01T00:00:00"))
+        .urlHash(HASH)
+        .build();
+  }
+
+  @Test
+  public void normalizeUrl_removes_trivial_differences() {
+    assertEquals(
+        "https://www.ucsb.edu/news?a=1&b=2",
+        ArticlesIngestService.normalizeUrl(
+            "  HTTPS://WWW.UCSB.EDU:443/news//?b=2&utm_source=x&&a=1&fbclid=y&gclid=z#top "));
+    assertEquals("http://ucsb.edu/", ArticlesIngestService.normalizeUrl("http://ucsb.edu:80"));
+    assertEquals(
+        "http://user@ucsb.edu:8080/News",
+        ArticlesIngestService.normalizeUrl("http://user@UCSB.edu:8080/News"));
+    assertEquals("https://ucsb.edu:80/", ArticlesIngestService.normalizeUrl("https://ucsb.edu:80"));
+    assertEquals("http://ucsb.edu:443/", ArticlesIngestService.normalizeUrl("http://ucsb.edu:443"));
+    assertEquals(
+        "https://ucsb.edu/", ArticlesIngestService.normalizeUrl("https://ucsb.edu/?utm_x"));
+  }
+
+  @Test
+  public void normalizeUrl_only_trims_things_that_are_not_absolute_urls() {
+    assertEquals("not a url", ArticlesIngestService.normalizeUrl(" not a url "));
+    assertEquals("/relative/path/", ArticlesIngestService.normalizeUrl("/relative/path/"));
+    assertEquals("mailto:a@b.com", ArticlesIngestService.normalizeUrl("mailto:a@b.com"));
+  }
+
+  @Test
+  public void urlHash_is_sha256_of_normalized_url() {
+    assertEquals(64, HASH.length());
+    assertEquals(HASH, ArticlesIngestService.urlHash("HTTPS://www.ucsb.edu/news/#x"));
+    assertNull(ArticlesIngestService.urlHash(null));
+  }
+
+  @Test
+  public void hexDigest_reports_unknown_algorithm() {
+    assertThrows(
+        IllegalStateException.class, () -> ArticlesIngestService.hexDigest("x", "NO-SUCH-HASH"));
+  }
+
+  @Test
+  public void ingest_saves_new_url() {
+    Articles article = incoming();
+    when(articlesRepository.save(article)).thenReturn(article);
+
+    Articles saved = articlesIngestService.ingest(article, OnConflict.SKIP);
+
+    assertSame(article, saved);
+    assertEquals(HASH, saved.getUrlHash());
+    verify(articlesRepository, times(1)).findByUrlHash(HASH);
+  }
+
+  @Test
+  public void ingest_skip_returns_existing_article() {
+    Articles existing = existing();
+    when(articlesRepository.findByUrlHash(HASH)).thenReturn(Optional.of(existing));
+
+    Articles result = articlesIngestService.ingest(incoming(), OnConflict.SKIP);
+
+    assertEquals(existing(), result);
+    verify(articlesRepository, times(0)).save(any());
+  }
+
+  @Test
+  public void ingest_update_overwrites_existing_article() {
+    Articles existing = existing();
+    when(articlesRepository.findByUrlHash(HASH)).thenReturn(Optional.of(existing));
+    when(articlesRepository.save(existing)).thenReturn(existing);
+
+    Articles result = articlesIngestService.ingest(incoming(), OnConflict.UPDATE);
+
+    Articles expected = incoming();
+    expected.setId(5L);
+    expected.setUrlHash(HASH);
+    assertEquals(expected, result);
+    verify(articlesRepository, times(1)).save(existing);
+  }
+
+  @Test
+  public void ingest_resolves_a_concurrent_insert_of_the_same_url() {
+    Articles existing = existing();
+    when(articlesRepository.findByUrlHash(HASH))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(existing));
+    when(articlesRepository.save(any()))
+        .thenThrow(new DataIntegrityViolationException("ARTICLES_URL_HASH_IDX"));
+
+    Articles result = articlesIngestService.ingest(incoming(), OnConflict.SKIP);
+
+    assertSame(existing, result);
+    verify(articlesRepository, times(2)).findByUrlHash(HASH);
+  }
+
+  @Test
+  public void ingest_rethrows_unrelated_integrity_violations() {
+    when(articlesRepository.save(any())).thenThrow(new DataIntegrityViolationException("other"));
+
+    assertThrows(
+        DataIntegrityViolationException.class,
+        () -> articlesIngestService.ingest(incoming(), OnConflict.SKIP));
+  }
+
+  @Test
+  public void backfill_hashes_old_articles_and_leaves_duplicates_alone() {
+    Articles first = Articles.builder().id(1L).url(URL).build();
+    Articles duplicate = Articles.builder().id(2L).url(URL + "/").build();
+    Articles noUrl = Articles.builder().id(3L).build();
+    when(articlesRepository.findAllByUrlHashIsNull()).thenReturn(List.of(first, duplicate, noUrl));
+    when(articlesRepository.findByUrlHash(HASH))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(first));
+
+    articlesIngestService.backfillUrlHashes();
+
+    assertEquals(HASH, first.getUrlHash());
+    assertNull(duplicate.getUrlHash());
+    assertNull(noUrl.getUrlHash());
+    verify(articlesRepository, times(1)).save(first);
+    verify(articlesRepository, times(1)).save(any());
+  }
+}
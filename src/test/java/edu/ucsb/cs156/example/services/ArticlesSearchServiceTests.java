@@ -0,0 +1,252 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.Articles;
+import edu.ucsb.cs156.example.repositories.ArticlesRepository;
+import edu.ucsb.cs156.example.services.ArticlesSearchService.Phrase;
+import edu.ucsb.cs156.example.services.ArticlesSearchService.Prefix;
+import edu.ucsb.cs156.example.services.ArticlesSearchService.Term;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class ArticlesSearchServiceTests {
+
+  @Mock private ArticlesRepository articlesRepository;
+
+  @InjectMocks private ArticlesSearchService articlesSearchService;
+
+  private final Articles tacoBell =
+      Articles.builder()
+          .id(1L)
+          .title("Taco Bell")
+          .explanation("Fast food Mexican restaurant")
+          .build();
+
+  private final Articles tacoTruck =
+      Articles.builder()
+          .id(2L)
+          .title("The best taco truck in Isla Vista")
+          .explanation("Tacos, burritos and a long line of hungry students")
+          .build();
+
+  private final Articles pizza =
+      Articles.builder()
+          .id(3L)
+          .title("Pizza review")
+          .explanation("The taco pizza is surprisingly good, bell peppers included")
+          .build();
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    when(articlesRepository.findAll()).thenReturn(List.of(tacoBell, tacoTruck, pizza));
+    articlesSearchService.rebuild();
+  }
+
+  @Test
+  public void tokenize_lower_cases_and_splits_on_punctuation() {
+    assertEquals(List.of("taco", "bell", "s", "2nd", "café"), tokenize("Taco-Bell's 2nd  CAFÉ!"));
+    assertEquals(List.of(), tokenize(null));
+    assertEquals(List.of(), tokenize("  --  "));
+  }
+
+  @Test
+  public void parse_recognizes_terms_prefixes_and_phrases() {
+    assertEquals(
+        List.of(
+            new Phrase(List.of("taco", "bell")),
+            new Prefix("mex"),
+            new Term("fast"),
+            new Term("isla"),
+            new Prefix("vis"),
+            new Term("food")),
+        ArticlesSearchService.parse("\"Taco Bell\" Mex* fast isla-vis* \"food\" \"\" *"));
+    assertEquals(List.of(), ArticlesSearchService.parse(null));
+  }
+
+  @Test
+  public void parse_treats_unterminated_quote_as_phrase() {
+    assertEquals(
+        List.of(new Phrase(List.of("taco", "bell"))), ArticlesSearchService.parse("\"taco bell"));
+  }
+
+  @Test
+  public void search_ranks_matches_with_bm25() {
+    // "taco" appears once in each article; the shortest article ranks first
+    assertEquals(List.of(tacoBell, pizza, tacoTruck), articlesSearchService.search("taco", 10));
+  }
+
+  @Test
+  public void search_requires_every_clause_to_match() {
+    assertEquals(List.of(tacoBell, pizza), articlesSearchService.search("taco bell", 10));
+    assertEquals(List.of(), articlesSearchService.search("taco sushi", 10));
+    assertEquals(List.of(), articlesSearchService.search("sushi taco", 10));
+  }
+
+  @Test
+  public void search_respects_limit() {
+    assertEquals(List.of(tacoBell), articlesSearchService.search("taco", 1));
+    assertEquals(List.of(), articlesSearchService.search("taco", 0));
+  }
+
+  @Test
+  public void search_with_no_terms_returns_nothing() {
+    assertEquals(List.of(), articlesSearchService.search("  ", 10));
+    assertEquals(List.of(), articlesSearchService.search(null, 10));
+  }
+
+  @Test
+  public void search_matches_prefixes() {
+    // "tac*" expands to both "taco" and the rarer "tacos", which only the truck article has
+    assertEquals(List.of(tacoTruck, tacoBell, pizza), articlesSearchService.search("tac*", 10));
+    assertEquals(List.of(tacoBell), articlesSearchService.search("mex*", 10));
+    assertEquals(List.of(), articlesSearchService.search("zzz*", 10));
+  }
+
+  @Test
+  public void search_matches_phrases_in_order() {
+    assertEquals(List.of(tacoBell), articlesSearchService.search("\"taco bell\"", 10));
+    assertEquals(List.of(pizza), articlesSearchService.search("\"taco pizza\"", 10));
+    assertEquals(List.of(), articlesSearchService.search("\"bell taco\"", 10));
+    assertEquals(List.of(), articlesSearchService.search("\"taco sushi\"", 10));
+  }
+
+  @Test
+  public void phrases_do_not_span_title_and_explanation() {
+    // title ends in "bell", explanation starts with "fast"
+    assertEquals(List.of(), articlesSearchService.search("\"bell fast\"", 10));
+  }
+
+  @Test
+  public void phrases_score_higher_when_repeated() {
+    Articles repeated =
+        Articles.builder()
+            .id(4L)
+            .title("Fast food")
+            .explanation("fast food and more fast food")
+            .build();
+    articlesSearchService.index(repeated);
+
+    assertEquals(List.of(repeated, tacoBell), articlesSearchService.search("\"fast food\"", 10));
+  }
+
+  @Test
+  public void ties_are_broken_by_id() {
+    Articles twin =
+        Articles.builder().id(0L).title("Taco Bell").explanation(tacoBell.getExplanation()).build();
+    articlesSearchService.index(twin);
+
+    assertEquals(List.of(twin, tacoBell), articlesSearchService.search("\"taco bell\" fast", 10));
+  }
+
+  @Test
+  public void index_replaces_previous_version() {
+    Articles updated = Articles.builder().id(1L).title("Sushi Bar").explanation("Raw fish").build();
+    articlesSearchService.index(updated);
+
+    assertEquals(List.of(updated), articlesSearchService.search("sushi", 10));
+    assertEquals(List.of(), articlesSearchService.search("mexican", 10));
+    assertEquals(List.of(pizza), articlesSearchService.search("bell", 10));
+  }
+
+  @Test
+  public void remove_drops_article_from_results() {
+    articlesSearchService.remove(1L);
+    articlesSearchService.remove(99L);
+
+    assertEquals(List.of(pizza, tacoTruck), articlesSearchService.search("taco", 10));
+    assertEquals(List.of(), articlesSearchService.search("mexican", 10));
+  }
+
+  @Test
+  public void articles_with_null_fields_can_be_indexed() {
+    Articles empty = Articles.builder().id(5L).build();
+    articlesSearchService.index(empty);
+
+    assertEquals(List.of(tacoBell), articlesSearchService.search("mexican", 10));
+  }
+
+  @Test
+  public void repeated_updates_compact_the_index() {
+    for (int i = 0; i < 40; i++) {
+      Articles updated =
+          Articles.builder().id(2L).title("Taco truck version " + i).explanation("").build();
+      articlesSearchService.index(updated);
+    }
+
+    assertEquals(List.of(tacoBell, pizza), articlesSearchService.search("bell", 10));
+    assertEquals(
+        "Taco truck version 39", articlesSearchService.search("truck", 10).get(0).getTitle());
+    assertEquals(List.of(), articlesSearchService.search("burritos", 10));
+  }
+
+  @Test
+  public void search_stops_once_no_candidates_remain() {
+    assertEquals(List.of(), articlesSearchService.search("taco mexican students", 10));
+  }
+
+  @Test
+  public void prefix_matches_only_documents_containing_an_expansion() {
+    // "p*" expands to "pizza" and "peppers", both only in the pizza article
+    assertEquals(List.of(pizza), articlesSearchService.search("p*", 10));
+  }
+
+  @Test
+  public void intersection_handles_documents_past_the_end_of_a_longer_clause() {
+    articlesSearchService.index(
+        Articles.builder().id(7L).title("Late night bell").explanation("").build());
+    articlesSearchService.index(
+        Articles.builder().id(8L).title("Night market").explanation("").build());
+
+    // "taco" is in the first three documents, "night" only in the two added last
+    assertEquals(List.of(), articlesSearchService.search("taco night", 10));
+  }
+
+  @Test
+  public void large_index_is_not_compacted_until_half_is_removed() {
+    for (long id = 10; id < 30; id++) {
+      articlesSearchService.index(
+          Articles.builder().id(id).title("Sushi " + id).explanation("").build());
+    }
+    articlesSearchService.remove(10L);
+
+    assertEquals(19, articlesSearchService.search("sushi", 100).size());
+    assertEquals(List.of(tacoBell), articlesSearchService.search("mexican", 10));
+  }
+
+  @Test
+  public void phrases_skip_replaced_versions() {
+    Articles updated =
+        Articles.builder().id(1L).title("Taco Bell").explanation("Now open late").build();
+    articlesSearchService.index(updated);
+
+    assertEquals(List.of(updated), articlesSearchService.search("\"taco bell\"", 10));
+  }
+
+  @Test
+  public void removing_every_article_empties_the_index() {
+    articlesSearchService.remove(1L);
+    articlesSearchService.remove(2L);
+    articlesSearchService.remove(3L);
+
+    assertEquals(List.of(), articlesSearchService.search("taco", 10));
+  }
+
+  @Test
+  public void rebuild_replaces_the_whole_index() {
+    when(articlesRepository.findAll()).thenReturn(List.of(pizza));
+    articlesSearchService.rebuild();
+
+    assertEquals(List.of(pizza), articlesSearchService.search("taco", 10));
+  }
+
+  private static List<String> tokenize(String text) {
+    return ArticlesSearchService.tokenize(text);
+  }
+}
@@ -0,0 +1,281 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class CurrentUserServiceImplTests {
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private AdminStatusService adminStatusService;
+
+  @Mock private DataSource dataSource;
+
+  @InjectMocks private CurrentUserServiceImpl currentUserService;
+
+  private final User user = User.builder().id(1L).email("cgaucho@ucsb.edu").build();
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(currentUserService, "databaseProductName", "PostgreSQL");
+    when(userRepository.upsertOnPostgres(any())).thenReturn(user);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    SecurityContextHolder.clearContext();
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private static OAuth2AuthenticationToken login(String email) {
+    DefaultOAuth2User principal =
+        new DefaultOAuth2User(
+            List.of(new SimpleGrantedAuthority("ROLE_USER")),
+            Map.of("email", email, "sub", "1234", "email_verified", true),
+            "email");
+    return new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google");
+  }
+
+  private MockHttpServletRequest newRequest(MockHttpSession session) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSession(session);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    return request;
+  }
+
+  @Test
+  public void login_stores_the_user_in_the_session() {
+    OAuth2AuthenticationToken token = login("cgaucho@ucsb.edu");
+    MockHttpSession session = new MockHttpSession();
+
+    currentUserService.login(newRequest(session), token);
+
+    assertSame(user, session.getAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE));
+    verify(userRepository, times(1)).upsertOnPostgres(any());
+  }
+
+  @Test
+  public void login_ignores_other_authentications() {
+    MockHttpSession session = new MockHttpSession();
+
+    currentUserService.login(newRequest(session), new TestingAuthenticationToken("x", "y"));
+
+    assertNull(session.getAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE));
+  }
+
+  @Test
+  public void getUser_returns_the_user_stored_at_login_without_queries() {
+    OAuth2AuthenticationToken token = login("cgaucho@ucsb.edu");
+    SecurityContextHolder.getContext().setAuthentication(token);
+    MockHttpSession session = new MockHttpSession();
+    currentUserService.login(newRequest(session), token);
+
+    newRequest(session);
+    assertSame(user, currentUserService.getUser());
+    assertTrue(currentUserService.isLoggedIn());
+    newRequest(session);
+    assertSame(user, currentUserService.getUser());
+
+    verify(userRepository, times(1)).upsertOnPostgres(any());
+    verifyNoMoreInteractions(userRepository);
+  }
+
+  @Test
+  public void getUser_keeps_the_user_while_the_cached_admin_flag_agrees() {
+    SecurityContextHolder.getContext().setAuthentication(login("cgaucho@ucsb.edu"));
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE, user);
+    when(adminStatusService.cachedAdmin("cgaucho@ucsb.edu")).thenReturn(Optional.of(false));
+
+    newRequest(session);
+    assertSame(user, currentUserService.getUser());
+
+    verifyNoMoreInteractions(userRepository);
+  }
+
+  @Test
+  public void getUser_reloads_the_user_when_the_admin_flag_changes() {
+    SecurityContextHolder.getContext().setAuthentication(login("cgaucho@ucsb.edu"));
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE, user);
+    User promoted = User.builder().id(1L).email("cgaucho@ucsb.edu").admin(true).build();
+    when(userRepository.findById(1L)).thenReturn(Optional.of(promoted));
+    when(adminStatusService.cachedAdmin("cgaucho@ucsb.edu")).thenReturn(Optional.of(true));
+
+    newRequest(session);
+    assertSame(promoted, currentUserService.getUser());
+    newRequest(session);
+    assertSame(promoted, currentUserService.getUser());
+
+    verify(userRepository, times(1)).findById(1L);
+    verify(adminStatusService, times(1)).update(promoted);
+    assertSame(promoted, session.getAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE));
+  }
+
+  @Test
+  public void getUser_stores_the_user_again_if_it_was_deleted() {
+    SecurityContextHolder.getContext().setAuthentication(login("cgaucho@ucsb.edu"));
+    MockHttpSession session = new MockHttpSession();
+    User admin = User.builder().id(2L).email("cgaucho@ucsb.edu").admin(true).build();
+    session.setAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE, admin);
+    when(userRepository.findById(2L)).thenReturn(Optional.empty());
+    when(adminStatusService.cachedAdmin("cgaucho@ucsb.edu")).thenReturn(Optional.of(false));
+
+    newRequest(session);
+
+    assertSame(user, currentUserService.getUser());
+    verify(userRepository, times(1)).upsertOnPostgres(any());
+    assertSame(user, session.getAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE));
+  }
+
+  @Test
+  public void getUser_stores_the_user_once_for_sessions_from_before_login_stored_it() {
+    SecurityContextHolder.getContext().setAuthentication(login("cgaucho@ucsb.edu"));
+    MockHttpSession session = new MockHttpSession();
+
+    newRequest(session);
+    assertSame(user, currentUserService.getUser());
+    newRequest(session);
+    assertSame(user, currentUserService.getUser());
+
+    verify(userRepository, times(1)).upsertOnPostgres(any());
+    assertSame(user, session.getAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE));
+  }
+
+  @Test
+  public void getUser_ignores_a_stored_user_with_another_email() {
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute(
+        CurrentUserServiceImpl.USER_ATTRIBUTE, User.builder().id(2L).email("old@ucsb.edu").build());
+    SecurityContextHolder.getContext().setAuthentication(login("cgaucho@ucsb.edu"));
+
+    newRequest(session);
+
+    assertSame(user, currentUserService.getUser());
+    assertSame(user, session.getAttribute(CurrentUserServiceImpl.USER_ATTRIBUTE));
+  }
+
+  @Test
+  public void getUser_outside_a_request_fails_without_writing() {
+    SecurityContextHolder.getContext().setAuthentication(login("cgaucho@ucsb.edu"));
+
+    assertThrows(IllegalStateException.class, () -> currentUserService.getUser());
+
+    verifyNoMoreInteractions(userRepository);
+  }
+
+  @Test
+  public void getUser_returns_null_without_an_oauth2_login() {
+    SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("x", "y"));
+    newRequest(new MockHttpSession());
+
+    assertNull(currentUserService.getUser());
+    verify(userRepository, times(0)).upsertOnPostgres(any());
+  }
+
+  @Test
+  public void upsertUser_upserts_on_postgres() {
+    ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
+
+    assertSame(user, currentUserService.upsertUser(login("new@ucsb.edu").getPrincipal()));
+
+    verify(userRepository, times(1)).upsertOnPostgres(captor.capture());
+    verify(userRepository, times(0)).upsertOnH2(any());
+    assertEquals("new@ucsb.edu", captor.getValue().getEmail());
+    assertEquals("1234", captor.getValue().getGoogleSub());
+    assertFalse(captor.getValue().getAdmin());
+  }
+
+  @Test
+  public void upsertUser_upserts_on_h2_and_marks_admin_emails() {
+    when(adminStatusService.isAdminEmail("cgaucho@ucsb.edu")).thenReturn(true);
+    ReflectionTestUtils.setField(currentUserService, "databaseProductName", "H2");
+    ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
+    when(userRepository.upsertOnH2(any())).thenReturn(user);
+
+    assertSame(user, currentUserService.upsertUser(login("cgaucho@ucsb.edu").getPrincipal()));
+
+    verify(userRepository, times(1)).upsertOnH2(captor.capture());
+    verify(userRepository, times(0)).upsertOnPostgres(any());
+    verify(adminStatusService, times(1)).update(user);
+    assertTrue(captor.getValue().getAdmin());
+  }
+
+  @Test
+  public void upsertUser_chooses_the_statement_from_the_database_metadata() throws Exception {
+    ReflectionTestUtils.setField(currentUserService, "databaseProductName", null);
+    Connection connection = mock(Connection.class);
+    DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getDatabaseProductName()).thenReturn("H2");
+    when(userRepository.upsertOnH2(any())).thenReturn(user);
+
+    currentUserService.upsertUser(login("cgaucho@ucsb.edu").getPrincipal());
+    currentUserService.upsertUser(login("cgaucho@ucsb.edu").getPrincipal());
+
+    verify(userRepository, times(2)).upsertOnH2(any());
+    verify(dataSource, times(1)).getConnection();
+  }
+
+  @Test
+  public void upsertUser_fails_if_the_database_metadata_cannot_be_read() throws Exception {
+    ReflectionTestUtils.setField(currentUserService, "databaseProductName", null);
+    when(dataSource.getConnection()).thenThrow(new SQLException("down"));
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> currentUserService.upsertUser(login("cgaucho@ucsb.edu").getPrincipal()));
+  }
+
+  @Test
+  public void upsertUser_retries_once_when_a_concurrent_login_inserted_the_user_first() {
+    when(userRepository.upsertOnPostgres(any()))
+        .thenThrow(new DataIntegrityViolationException("duplicate key"))
+        .thenReturn(user);
+
+    assertSame(user, currentUserService.upsertUser(login("cgaucho@ucsb.edu").getPrincipal()));
+
+    verify(userRepository, times(2)).upsertOnPostgres(any());
+    verify(adminStatusService, times(1)).update(user);
+  }
+}
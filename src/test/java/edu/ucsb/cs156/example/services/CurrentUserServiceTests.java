@@ -3,12 +3,15 @@ package edu.ucsb.cs156.example.services;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.User;
 import org.junit.jupiter.api.Test;
 import org.mockito.Answers;
+import org.springframework.mock.web.MockHttpServletRequest;
 
 class CurrentUserServiceTests extends ControllerTestCase {
 
@@ -27,4 +30,12 @@ class CurrentUserServiceTests extends ControllerTestCase {
     when(currentUserService.getUser()).thenReturn(User.builder().build());
     assertTrue(currentUserService.isLoggedIn());
   }
+
+  @Test
+  void test_login_does_nothing_by_default() {
+    CurrentUserService currentUserService =
+        mock(CurrentUserService.class, Answers.CALLS_REAL_METHODS);
+    currentUserService.login(new MockHttpServletRequest(), null);
+    verify(currentUserService, never()).getUser();
+  }
 }
@@ -0,0 +1,92 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+public class HelpRequestEventsServiceTests {
+
+  private HelpRequestEventsService helpRequestEventsService;
+
+  private final HelpRequest helpRequest =
+      HelpRequest.builder().id(1L).requesterEmail("email").solved(false).build();
+
+  @BeforeEach
+  public void setup() {
+    helpRequestEventsService = new HelpRequestEventsService();
+  }
+
+  @Test
+  public void subscribe_registers_a_new_subscriber() {
+    SseEmitter emitter = helpRequestEventsService.subscribe(List.of(helpRequest));
+
+    assertEquals(HelpRequestEventsService.TIMEOUT_MS, emitter.getTimeout());
+    assertEquals(1, helpRequestEventsService.subscriberCount());
+  }
+
+  @Test
+  public void publish_and_heartbeat_send_to_every_subscriber() throws Exception {
+    SseEmitter first = mock(SseEmitter.class);
+    SseEmitter second = mock(SseEmitter.class);
+    helpRequestEventsService.register(first);
+    helpRequestEventsService.register(second);
+
+    helpRequestEventsService.publish("insert", helpRequest);
+    helpRequestEventsService.heartbeat();
+
+    verify(first, times(2)).send(any(SseEventBuilder.class));
+    verify(second, times(2)).send(any(SseEventBuilder.class));
+    assertEquals(2, helpRequestEventsService.subscriberCount());
+  }
+
+  @Test
+  public void subscribers_that_fail_are_dropped() throws Exception {
+    SseEmitter broken = mock(SseEmitter.class);
+    SseEmitter completed = mock(SseEmitter.class);
+    doThrow(new IOException("broken pipe")).when(broken).send(any(SseEventBuilder.class));
+    doThrow(new IllegalStateException("complete")).when(completed).send(any(SseEventBuilder.class));
+    helpRequestEventsService.register(broken);
+    helpRequestEventsService.register(completed);
+
+    helpRequestEventsService.publish("delete", helpRequest);
+
+    assertEquals(0, helpRequestEventsService.subscriberCount());
+  }
+
+  @Test
+  public void subscribers_are_removed_on_completion_timeout_and_error() {
+    SseEmitter emitter = mock(SseEmitter.class);
+    helpRequestEventsService.register(emitter);
+    ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+    ArgumentCaptor<Runnable> onTimeout = ArgumentCaptor.forClass(Runnable.class);
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Consumer<Throwable>> onError = ArgumentCaptor.forClass(Consumer.class);
+    verify(emitter).onCompletion(onCompletion.capture());
+    verify(emitter).onTimeout(onTimeout.capture());
+    verify(emitter).onError(onError.capture());
+
+    onCompletion.getValue().run();
+    assertEquals(0, helpRequestEventsService.subscriberCount());
+
+    helpRequestEventsService.register(emitter);
+    onTimeout.getValue().run();
+    assertEquals(0, helpRequestEventsService.subscriberCount());
+
+    helpRequestEventsService.register(emitter);
+    onError.getValue().accept(new IOException("reset"));
+    assertEquals(0, helpRequestEventsService.subscriberCount());
+  }
+}
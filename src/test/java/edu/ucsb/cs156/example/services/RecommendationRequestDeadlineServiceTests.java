@@ -0,0 +1,79 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.RecommendationRequest;
+import edu.ucsb.cs156.example.repositories.RecommendationRequestRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class RecommendationRequestDeadlineServiceTests {
+
+  @Mock private RecommendationRequestRepository recReqRepository;
+
+  @InjectMocks private RecommendationRequestDeadlineService recommendationRequestDeadlineService;
+
+  private static final LocalDateTime NOW = LocalDateTime.parse("2022-01-03T00:00:00");
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  private RecommendationRequest request(long id) {
+    return RecommendationRequest.builder()
+        .id(id)
+        .requesterEmail("student@ucsb.edu")
+        .professorEmail("prof@ucsb.edu")
+        .dateNeeded(NOW.plusDays(2))
+        .build();
+  }
+
+  @Test
+  public void scan_claims_requests_due_within_the_window_and_reports_them() {
+    RecommendationRequest req = request(1L);
+    when(recReqRepository.markDeadlinesNotified(NOW, NOW.plusDays(3), NOW)).thenReturn(1);
+    when(recReqRepository
+            .findByDoneFalseAndDateNeededBetweenAndDeadlineNotifiedAtOrderByDateNeededAsc(
+                NOW, NOW.plusDays(3), NOW))
+        .thenReturn(List.of(req));
+
+    assertEquals(List.of(req), recommendationRequestDeadlineService.scan(NOW));
+  }
+
+  @Test
+  public void scan_that_claims_nothing_reads_nothing() {
+    assertEquals(List.of(), recommendationRequestDeadlineService.scan(NOW));
+
+    verify(recReqRepository, times(1)).markDeadlinesNotified(NOW, NOW.plusDays(3), NOW);
+    verifyNoMoreInteractions(recReqRepository);
+  }
+
+  @Test
+  public void scan_claims_with_the_precision_of_the_column() {
+    LocalDateTime now = NOW.plusNanos(1_234_567);
+    LocalDateTime claimedAt = NOW.plusNanos(1_234_000);
+
+    recommendationRequestDeadlineService.scan(now);
+
+    verify(recReqRepository, times(1))
+        .markDeadlinesNotified(claimedAt, claimedAt.plusDays(3), claimedAt);
+  }
+
+  @Test
+  public void scheduled_scan_uses_the_current_time() {
+    recommendationRequestDeadlineService.scanDeadlines();
+
+    verify(recReqRepository, times(1)).markDeadlinesNotified(any(), any(), any());
+  }
+}
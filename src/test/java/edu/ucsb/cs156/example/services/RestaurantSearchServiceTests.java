@@ -0,0 +1,154 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.Restaurant;
+import edu.ucsb.cs156.example.repositories.RestaurantRepository;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class RestaurantSearchServiceTests {
+
+  @Mock private RestaurantRepository restaurantRepository;
+
+  @InjectMocks private RestaurantSearchService restaurantSearchService;
+
+  private final Restaurant tacoBell =
+      Restaurant.builder().id(1L).name("Taco Bell").description("Fast food Mexican").build();
+
+  private final Restaurant freebirds =
+      Restaurant.builder()
+          .id(2L)
+          .name("Freebirds")
+          .description("World burritos and tacos in Isla Vista")
+          .build();
+
+  private final Restaurant pizza =
+      Restaurant.builder().id(3L).name("Pizza My Heart").description("Pizza by the slice").build();
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    when(restaurantRepository.findAll()).thenReturn(List.of(tacoBell, freebirds, pizza));
+    restaurantSearchService.rebuild();
+  }
+
+  @Test
+  public void trigrams_pad_each_lower_case_word() {
+    assertEquals(
+        Set.of("  c", " ca", "cat", "at ", "  o", " ok", "ok "),
+        RestaurantSearchService.trigrams("Cat-OK"));
+    assertEquals(Set.of("  a", " a "), RestaurantSearchService.trigrams("a"));
+    assertEquals(Set.of(), RestaurantSearchService.trigrams(null));
+    assertEquals(Set.of(), RestaurantSearchService.trigrams(" -- "));
+  }
+
+  @Test
+  public void score_prefers_names_over_descriptions() {
+    assertEquals(1.0, RestaurantSearchService.score(5, 5, 5, 0));
+    assertEquals(0.5, RestaurantSearchService.score(5, 5, 0, 5));
+    assertEquals(0.75, RestaurantSearchService.score(5, 10, 5, 5));
+  }
+
+  @Test
+  public void search_matches_names_exactly() {
+    assertEquals(List.of(tacoBell), restaurantSearchService.search("Taco Bell", 10));
+    assertEquals(List.of(freebirds), restaurantSearchService.search("freebirds", 10));
+  }
+
+  @Test
+  public void search_tolerates_typos() {
+    assertEquals(List.of(tacoBell), restaurantSearchService.search("tacco bel", 10));
+    assertEquals(List.of(freebirds), restaurantSearchService.search("frebirds", 10));
+    assertEquals(List.of(pizza), restaurantSearchService.search("piza", 10));
+  }
+
+  @Test
+  public void search_ranks_name_matches_before_description_matches() {
+    // "taco" is in the name of Taco Bell but only in the description of Freebirds
+    assertEquals(List.of(tacoBell, freebirds), restaurantSearchService.search("taco", 10));
+  }
+
+  @Test
+  public void search_matches_descriptions() {
+    assertEquals(List.of(freebirds), restaurantSearchService.search("burrito", 10));
+    assertEquals(List.of(tacoBell), restaurantSearchService.search("mexican", 10));
+  }
+
+  @Test
+  public void search_ignores_unrelated_text() {
+    assertEquals(List.of(), restaurantSearchService.search("sushi", 10));
+    assertEquals(List.of(), restaurantSearchService.search("zzz", 10));
+  }
+
+  @Test
+  public void search_respects_limit() {
+    assertEquals(List.of(tacoBell), restaurantSearchService.search("taco", 1));
+    assertEquals(List.of(), restaurantSearchService.search("taco", 0));
+  }
+
+  @Test
+  public void search_with_no_words_returns_nothing() {
+    assertEquals(List.of(), restaurantSearchService.search("  ", 10));
+    assertEquals(List.of(), restaurantSearchService.search(null, 10));
+  }
+
+  @Test
+  public void ties_are_broken_by_id() {
+    Restaurant twin = Restaurant.builder().id(0L).name("Taco Bell").description("").build();
+    restaurantSearchService.index(twin);
+
+    assertEquals(List.of(twin, tacoBell), restaurantSearchService.search("taco bell", 2));
+  }
+
+  @Test
+  public void index_replaces_previous_version() {
+    Restaurant updated = Restaurant.builder().id(1L).name("Sushi Bar").description("Raw").build();
+    restaurantSearchService.index(updated);
+
+    assertEquals(List.of(updated), restaurantSearchService.search("sushi", 10));
+    assertEquals(List.of(), restaurantSearchService.search("mexican", 10));
+  }
+
+  @Test
+  public void remove_drops_restaurant_from_results() {
+    restaurantSearchService.remove(1L);
+    restaurantSearchService.remove(99L);
+
+    assertEquals(List.of(freebirds), restaurantSearchService.search("taco", 10));
+    assertEquals(List.of(), restaurantSearchService.search("mexican", 10));
+  }
+
+  @Test
+  public void remove_keeps_trigrams_shared_with_other_restaurants() {
+    Restaurant twin = Restaurant.builder().id(0L).name("Taco Bell").description("Mexican").build();
+    restaurantSearchService.index(twin);
+    restaurantSearchService.remove(0L);
+
+    assertEquals(List.of(tacoBell), restaurantSearchService.search("taco bell", 10));
+    assertEquals(List.of(tacoBell), restaurantSearchService.search("mexican", 10));
+  }
+
+  @Test
+  public void restaurants_with_null_fields_can_be_indexed() {
+    Restaurant empty = Restaurant.builder().id(5L).build();
+    restaurantSearchService.index(empty);
+
+    assertEquals(List.of(tacoBell), restaurantSearchService.search("mexican", 10));
+  }
+
+  @Test
+  public void rebuild_replaces_the_whole_index() {
+    when(restaurantRepository.findAll()).thenReturn(List.of(pizza));
+    restaurantSearchService.rebuild();
+
+    assertEquals(List.of(), restaurantSearchService.search("taco", 10));
+    assertEquals(List.of(pizza), restaurantSearchService.search("pizza", 10));
+  }
+}
@@ -0,0 +1,80 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class UCSBDateQuarterServiceTests {
+
+  @Mock private UCSBDateRepository ucsbDateRepository;
+
+  @InjectMocks private UCSBDateQuarterService ucsbDateQuarterService;
+
+  private final UCSBDate lastDay =
+      UCSBDate.builder()
+          .id(1L)
+          .name("lastDayOfClasses")
+          .quarterYYYYQ("20222")
+          .localDateTime(LocalDateTime.parse("2022-06-03T00:00:00"))
+          .build();
+
+  private final UCSBDate firstDay =
+      UCSBDate.builder()
+          .id(2L)
+          .name("firstDayOfClasses")
+          .quarterYYYYQ("20222")
+          .localDateTime(LocalDateTime.parse("2022-03-28T00:00:00"))
+          .build();
+
+  private final UCSBDate undated =
+      UCSBDate.builder().id(3L).name("tbd").quarterYYYYQ("20222").build();
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    when(ucsbDateRepository.findAllByQuarterYYYYQ("20222"))
+        .thenReturn(List.of(undated, lastDay, firstDay));
+  }
+
+  @Test
+  public void getQuarter_returns_dates_in_order_and_caches_them() {
+    List<UCSBDate> dates = ucsbDateQuarterService.getQuarter("20222");
+
+    assertEquals(List.of(firstDay, lastDay, undated), dates);
+    assertSame(dates, ucsbDateQuarterService.getQuarter("20222"));
+    verify(ucsbDateRepository, times(1)).findAllByQuarterYYYYQ("20222");
+    assertThrows(UnsupportedOperationException.class, () -> dates.add(firstDay));
+  }
+
+  @Test
+  public void invalidate_forces_a_reload() {
+    ucsbDateQuarterService.getQuarter("20222");
+    ucsbDateQuarterService.invalidate("20222");
+    ucsbDateQuarterService.invalidate(null);
+    ucsbDateQuarterService.getQuarter("20222");
+
+    verify(ucsbDateRepository, times(2)).findAllByQuarterYYYYQ("20222");
+  }
+
+  @Test
+  public void strings_that_are_not_quarters_are_not_cached() {
+    assertEquals(List.of(), ucsbDateQuarterService.getQuarter("fall"));
+    assertEquals(List.of(), ucsbDateQuarterService.getQuarter("20225"));
+    ucsbDateQuarterService.getQuarter("fall");
+
+    verify(ucsbDateRepository, times(2)).findAllByQuarterYYYYQ("fall");
+  }
+}
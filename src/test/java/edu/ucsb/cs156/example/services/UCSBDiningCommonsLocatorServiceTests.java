@@ -0,0 +1,147 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.models.DiningCommonsDistance;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class UCSBDiningCommonsLocatorServiceTests {
+
+  @Mock private UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  @InjectMocks private UCSBDiningCommonsLocatorService ucsbDiningCommonsLocatorService;
+
+  private final UCSBDiningCommons carrillo = commons("carrillo", 34.409953, -119.85277);
+  private final UCSBDiningCommons dlg = commons("de-la-guerra", 34.409811, -119.845026);
+  private final UCSBDiningCommons ortega = commons("ortega", 34.410987, -119.84709);
+  private final UCSBDiningCommons portola = commons("portola", 34.417723, -119.867427);
+  private final UCSBDiningCommons nowhere = commons("nowhere", null, null);
+  private final UCSBDiningCommons halfway = commons("halfway", 34.41, null);
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    when(ucsbDiningCommonsRepository.findAll())
+        .thenReturn(List.of(carrillo, dlg, ortega, portola, nowhere, halfway));
+    ucsbDiningCommonsLocatorService.rebuild();
+  }
+
+  private static UCSBDiningCommons commons(String code, Double latitude, Double longitude) {
+    return UCSBDiningCommons.builder()
+        .code(code)
+        .name(code)
+        .latitude(latitude)
+        .longitude(longitude)
+        .build();
+  }
+
+  private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a =
+        Math.pow(Math.sin(dLat / 2), 2)
+            + Math.cos(Math.toRadians(lat1))
+                * Math.cos(Math.toRadians(lat2))
+                * Math.pow(Math.sin(dLon / 2), 2);
+    return 2 * UCSBDiningCommonsLocatorService.EARTH_RADIUS_METERS * Math.asin(Math.sqrt(a));
+  }
+
+  private static List<String> codes(List<DiningCommonsDistance> nearest) {
+    return nearest.stream().map(d -> d.getCommons().getCode()).toList();
+  }
+
+  @Test
+  public void nearest_orders_commons_by_distance() {
+    // the Student Resource Building, just east of De La Guerra
+    List<DiningCommonsDistance> nearest =
+        ucsbDiningCommonsLocatorService.nearest(34.41236, -119.84760, 3);
+
+    assertEquals(List.of("ortega", "de-la-guerra", "carrillo"), codes(nearest));
+    assertEquals(
+        haversine(34.41236, -119.84760, 34.410987, -119.84709),
+        nearest.get(0).getDistanceMeters(),
+        0.01);
+  }
+
+  @Test
+  public void nearest_skips_commons_without_a_location() {
+    assertEquals(
+        List.of("portola", "carrillo", "ortega", "de-la-guerra"),
+        codes(ucsbDiningCommonsLocatorService.nearest(34.42, -119.87, 10)));
+  }
+
+  @Test
+  public void commons_at_the_same_place_are_all_returned() {
+    UCSBDiningCommons twin = commons("carrillo-twin", 34.409953, -119.85277);
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(List.of(twin, carrillo, portola));
+    ucsbDiningCommonsLocatorService.rebuild();
+
+    List<DiningCommonsDistance> nearest =
+        ucsbDiningCommonsLocatorService.nearest(34.409953, -119.85277, 2);
+
+    assertEquals(List.of("carrillo", "carrillo-twin"), codes(nearest).stream().sorted().toList());
+    assertEquals(nearest.get(0).getDistanceMeters(), nearest.get(1).getDistanceMeters());
+  }
+
+  @Test
+  public void nearest_returns_nothing_for_non_positive_k() {
+    assertEquals(List.of(), ucsbDiningCommonsLocatorService.nearest(34.41, -119.85, 0));
+    assertEquals(List.of(), ucsbDiningCommonsLocatorService.nearest(34.41, -119.85, -1));
+  }
+
+  @Test
+  public void nearest_on_an_empty_index_returns_nothing() {
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(List.of());
+    ucsbDiningCommonsLocatorService.rebuild();
+
+    assertEquals(List.of(), ucsbDiningCommonsLocatorService.nearest(34.41, -119.85, 3));
+  }
+
+  @Test
+  public void distance_to_the_commons_itself_is_zero() {
+    assertEquals(
+        0.0,
+        ucsbDiningCommonsLocatorService
+            .nearest(34.409953, -119.85277, 1)
+            .get(0)
+            .getDistanceMeters(),
+        1e-6);
+  }
+
+  @Test
+  public void nearest_matches_brute_force_across_the_globe() {
+    Random random = new Random(156);
+    List<UCSBDiningCommons> all = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      all.add(commons("c" + i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+    }
+    when(ucsbDiningCommonsRepository.findAll()).thenReturn(all);
+    ucsbDiningCommonsLocatorService.rebuild();
+
+    for (int q = 0; q < 200; q++) {
+      double lat = random.nextDouble() * 180 - 90;
+      double lon = random.nextDouble() * 360 - 180;
+      List<String> expected =
+          all.stream()
+              .sorted(
+                  Comparator.comparingDouble(
+                      c -> haversine(lat, lon, c.getLatitude(), c.getLongitude())))
+              .limit(7)
+              .map(UCSBDiningCommons::getCode)
+              .toList();
+
+      assertEquals(expected, codes(ucsbDiningCommonsLocatorService.nearest(lat, lon, 7)));
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class UCSBDiningCommonsMenuServiceTests {
+
+  @Mock private UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @InjectMocks private UCSBDiningCommonsMenuService ucsbDiningCommonsMenuService;
+
+  private final UCSBDiningCommonsMenuItem unassigned = item(1L, "Water", null);
+  private final UCSBDiningCommonsMenuItem eggs = item(2L, "Scrambled Eggs", "Breakfast");
+  private final UCSBDiningCommonsMenuItem waffles = item(3L, "Waffles", "Breakfast");
+  private final UCSBDiningCommonsMenuItem pizza = item(4L, "Cheese Pizza", "Entrees");
+
+  private static UCSBDiningCommonsMenuItem item(long id, String name, String station) {
+    return UCSBDiningCommonsMenuItem.builder()
+        .id(id)
+        .diningCommonsCode("ortega")
+        .name(name)
+        .station(station)
+        .build();
+  }
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    when(ucsbDiningCommonsMenuItemRepository.findByDiningCommonsCodeOrderByStationAscNameAsc(
+            "ortega"))
+        .thenReturn(List.of(unassigned, eggs, waffles, pizza));
+  }
+
+  @Test
+  public void getMenu_groups_items_by_station_in_query_order() {
+    Map<String, List<UCSBDiningCommonsMenuItem>> menu =
+        ucsbDiningCommonsMenuService.getMenu("ortega");
+
+    assertEquals(List.of("", "Breakfast", "Entrees"), List.copyOf(menu.keySet()));
+    assertEquals(List.of(eggs, waffles), menu.get("Breakfast"));
+    assertEquals(List.of(pizza), menu.get("Entrees"));
+    assertEquals(List.of(unassigned), menu.get(""));
+    assertThrows(UnsupportedOperationException.class, () -> menu.remove("Entrees"));
+    assertThrows(UnsupportedOperationException.class, () -> menu.get("Entrees").clear());
+  }
+
+  @Test
+  public void getMenu_caches_each_commons_until_invalidated() {
+    Map<String, List<UCSBDiningCommonsMenuItem>> menu =
+        ucsbDiningCommonsMenuService.getMenu("ortega");
+    assertSame(menu, ucsbDiningCommonsMenuService.getMenu("ortega"));
+
+    ucsbDiningCommonsMenuService.invalidate("ortega");
+    ucsbDiningCommonsMenuService.invalidate(null);
+    ucsbDiningCommonsMenuService.getMenu("ortega");
+
+    verify(ucsbDiningCommonsMenuItemRepository, times(2))
+        .findByDiningCommonsCodeOrderByStationAscNameAsc("ortega");
+  }
+
+  @Test
+  public void commons_without_items_get_an_empty_menu_that_is_not_cached() {
+    assertEquals(Map.of(), ucsbDiningCommonsMenuService.getMenu("nowhere"));
+    assertEquals(Map.of(), ucsbDiningCommonsMenuService.getMenu("nowhere"));
+
+    verify(ucsbDiningCommonsMenuItemRepository, times(2))
+        .findByDiningCommonsCodeOrderByStationAscNameAsc("nowhere");
+  }
+}
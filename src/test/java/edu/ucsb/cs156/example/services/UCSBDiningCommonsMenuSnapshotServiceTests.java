@@ -0,0 +1,97 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.UCSBDiningCommonsMenuSnapshotService.Result;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class UCSBDiningCommonsMenuSnapshotServiceTests {
+
+  @Mock private UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  @InjectMocks private UCSBDiningCommonsMenuSnapshotService snapshotService;
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  private static UCSBDiningCommonsMenuItem row(long id, String name, String station) {
+    return UCSBDiningCommonsMenuItem.builder()
+        .id(id)
+        .diningCommonsCode("ortega")
+        .name(name)
+        .station(station)
+        .build();
+  }
+
+  private static UCSBDiningCommonsMenuItem incoming(String name, String station) {
+    // snapshot items may carry a stale id and commons; both are ignored
+    return UCSBDiningCommonsMenuItem.builder()
+        .id(99L)
+        .diningCommonsCode("elsewhere")
+        .name(name)
+        .station(station)
+        .build();
+  }
+
+  private static UCSBDiningCommonsMenuItem newItem(String name, String station) {
+    return UCSBDiningCommonsMenuItem.builder()
+        .diningCommonsCode("ortega")
+        .name(name)
+        .station(station)
+        .build();
+  }
+
+  @Test
+  public void applySnapshot_writes_only_the_differences() {
+    when(ucsbDiningCommonsMenuItemRepository.findByDiningCommonsCodeOrderByStationAscNameAsc(
+            "ortega"))
+        .thenReturn(
+            List.of(
+                row(1L, "Waffles", "Breakfast"),
+                row(2L, "Waffles", "Breakfast"),
+                row(3L, "Pancakes", "Breakfast"),
+                row(4L, "Pizza", "Entrees")));
+
+    Result result =
+        snapshotService.applySnapshot(
+            "ortega",
+            List.of(
+                incoming("Waffles", "Breakfast"),
+                incoming("Pizza", "Entrees"),
+                incoming("Tacos", "Entrees"),
+                incoming("Tacos", "Entrees"),
+                incoming("Pizza", "Late Night")));
+
+    assertEquals(new Result(2, 2, 2), result);
+    verify(ucsbDiningCommonsMenuItemRepository).deleteByIds(List.of(2L, 3L));
+    verify(ucsbDiningCommonsMenuItemRepository)
+        .saveAll(List.of(newItem("Tacos", "Entrees"), newItem("Pizza", "Late Night")));
+  }
+
+  @Test
+  public void applySnapshot_of_an_unchanged_menu_writes_nothing() {
+    when(ucsbDiningCommonsMenuItemRepository.findByDiningCommonsCodeOrderByStationAscNameAsc(
+            "ortega"))
+        .thenReturn(List.of(row(1L, "Waffles", "Breakfast")));
+
+    Result result =
+        snapshotService.applySnapshot("ortega", List.of(incoming("Waffles", "Breakfast")));
+
+    assertEquals(new Result(0, 0, 1), result);
+    verify(ucsbDiningCommonsMenuItemRepository, never()).deleteByIds(any());
+    verify(ucsbDiningCommonsMenuItemRepository, never()).saveAll(any());
+  }
+}
@@ -0,0 +1,148 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class UCSBOrganizationAutocompleteServiceTests {
+
+  @Mock private UCSBOrganizationRepository ucsbOrganizationRepository;
+
+  @InjectMocks private UCSBOrganizationAutocompleteService autocompleteService;
+
+  private final UCSBOrganization zpr = org("ZPR", "ZETA PHI RHO", "ZETA PHI RHO", false);
+  private final UCSBOrganization sky =
+      org("SKY", "SKYDIVING CLUB", "SKYDIVING CLUB AT UCSB", false);
+  private final UCSBOrganization osli = org("OSLI", "STUDENT LIFE", "OFFICE OF STUDENT LIFE", true);
+  private final UCSBOrganization krc = org("KRC", "KOREAN RADIO CL", "KOREAN RADIO CLUB", false);
+
+  private static UCSBOrganization org(
+      String code, String translationShort, String translation, boolean inactive) {
+    return UCSBOrganization.builder()
+        .orgCode(code)
+        .orgTranslationShort(translationShort)
+        .orgTranslation(translation)
+        .inactive(inactive)
+        .build();
+  }
+
+  @BeforeEach
+  public void setup() {
+    MockitoAnnotations.openMocks(this);
+    when(ucsbOrganizationRepository.findAll()).thenReturn(List.of(zpr, sky, osli, krc));
+    autocompleteService.rebuild();
+  }
+
+  @Test
+  public void suggest_matches_codes_and_translations_case_insensitively() {
+    assertEquals(List.of(zpr), autocompleteService.suggest("zp", 10, null));
+    assertEquals(List.of(zpr), autocompleteService.suggest("Zeta", 10, null));
+    assertEquals(List.of(krc), autocompleteService.suggest("korean radio c", 10, null));
+  }
+
+  @Test
+  public void suggest_lists_leading_matches_before_word_matches() {
+    UCSBOrganization zulu = org("ZAC", "ZULU ALPHA", "ZULU ALPHA CLUB", false);
+    UCSBOrganization soup = org("ASC", "ALPHABET SOUP", "ALPHABET SOUP CLUB", false);
+    when(ucsbOrganizationRepository.findAll()).thenReturn(List.of(zulu, soup));
+    autocompleteService.rebuild();
+
+    // "alpha" sorts before "alphabet soup", but only starts a later word of ZULU ALPHA
+    assertEquals(List.of(soup, zulu), autocompleteService.suggest("alpha", 10, null));
+  }
+
+  @Test
+  public void suggest_returns_each_organization_once() {
+    // ZPR matches "rho" in both translations
+    assertEquals(List.of(zpr), autocompleteService.suggest("rho", 10, null));
+    assertEquals(List.of(osli), autocompleteService.suggest("life", 10, null));
+    assertEquals(List.of(sky, osli), autocompleteService.suggest("s", 10, null));
+    assertEquals(List.of(krc, sky), autocompleteService.suggest("club", 10, null));
+  }
+
+  @Test
+  public void suggest_filters_by_inactive() {
+    assertEquals(List.of(osli), autocompleteService.suggest("student", 10, true));
+    assertEquals(List.of(), autocompleteService.suggest("student", 10, false));
+    assertEquals(List.of(krc, sky), autocompleteService.suggest("c", 10, false));
+  }
+
+  @Test
+  public void suggest_respects_limit() {
+    assertEquals(List.of(krc), autocompleteService.suggest("k", 1, null));
+    assertEquals(List.of(), autocompleteService.suggest("k", 0, null));
+    assertEquals(List.of(), autocompleteService.suggest("k", -1, null));
+  }
+
+  @Test
+  public void suggest_caps_limit() {
+    List<UCSBOrganization> many = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      many.add(org("C%02d".formatted(i), "CLUB " + i, "CLUB " + i, false));
+    }
+    when(ucsbOrganizationRepository.findAll()).thenReturn(many);
+    autocompleteService.rebuild();
+
+    assertEquals(
+        UCSBOrganizationAutocompleteService.MAX_LIMIT,
+        autocompleteService.suggest("club", 1000, null).size());
+  }
+
+  @Test
+  public void suggest_with_blank_prefix_returns_nothing() {
+    assertEquals(List.of(), autocompleteService.suggest("", 10, null));
+    assertEquals(List.of(), autocompleteService.suggest("  ", 10, null));
+    assertEquals(List.of(), autocompleteService.suggest(null, 10, null));
+  }
+
+  @Test
+  public void suggest_with_unmatched_prefix_returns_nothing() {
+    assertEquals(List.of(), autocompleteService.suggest("zzz", 10, null));
+    assertEquals(List.of(), autocompleteService.suggest("0", 10, null));
+  }
+
+  @Test
+  public void suggest_finds_every_organization_with_an_identical_key() {
+    UCSBOrganization a = org("A", "CLUB", "CLUB", false);
+    UCSBOrganization b = org("B", "CLUB", "CLUB", false);
+    UCSBOrganization c = org("C", "CLUB", "CLUB", false);
+    when(ucsbOrganizationRepository.findAll()).thenReturn(List.of(c, b, a));
+    autocompleteService.rebuild();
+
+    assertEquals(List.of(a, b, c), autocompleteService.suggest("club", 10, null));
+    assertEquals(List.of(a), autocompleteService.suggest("a", 10, null));
+  }
+
+  @Test
+  public void organizations_with_null_fields_can_be_indexed() {
+    UCSBOrganization bare = UCSBOrganization.builder().orgCode("--BARE--").build();
+    when(ucsbOrganizationRepository.findAll()).thenReturn(List.of(bare, zpr));
+    autocompleteService.rebuild();
+
+    assertEquals(List.of(bare), autocompleteService.suggest("bare", 10, null));
+    assertEquals(List.of(zpr), autocompleteService.suggest("phi", 10, false));
+  }
+
+  @Test
+  public void rebuild_replaces_the_index() {
+    when(ucsbOrganizationRepository.findAll()).thenReturn(List.of(krc));
+    autocompleteService.rebuild();
+
+    assertEquals(List.of(), autocompleteService.suggest("zeta", 10, null));
+    assertEquals(List.of(krc), autocompleteService.suggest("radio", 10, null));
+  }
+
+  @Test
+  public void suggest_before_rebuild_returns_nothing() {
+    assertEquals(List.of(), new UCSBOrganizationAutocompleteService().suggest("zeta", 10, null));
+  }
+}
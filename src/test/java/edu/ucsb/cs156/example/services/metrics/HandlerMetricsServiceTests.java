@@ -0,0 +1,157 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import edu.ucsb.cs156.example.models.HandlerLatency;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class HandlerMetricsServiceTests {
+
+  private final HandlerMetricsService service = new HandlerMetricsService();
+
+  @Test
+  public void handlers_are_created_once_per_key() {
+    HandlerMetricsService.Handler first = service.handler("a", key -> "A");
+    HandlerMetricsService.Handler second =
+        service.handler(
+            "a",
+            key -> {
+              throw new AssertionError("name computed twice");
+            });
+
+    assertSame(first, second);
+    assertEquals("A", first.getName());
+  }
+
+  @Test
+  public void snapshot_reports_latency_and_statuses_busiest_first() {
+    HandlerMetricsService.Handler get = service.handler("get", key -> "Controller.get");
+    get.record(10, 200);
+    get.record(20, 200);
+    get.record(30, 404);
+    service.handler("post", key -> "Controller.post").record(100, 201);
+    service.handler("delete", key -> "Controller.delete").record(5, 42);
+
+    List<HandlerLatency> snapshot = service.snapshot();
+
+    HandlerLatency expectedGet =
+        HandlerLatency.builder()
+            .handler("Controller.get")
+            .count(3)
+            .meanMicros(20.0)
+            .p50Micros(20)
+            .p99Micros(30)
+            .p999Micros(30)
+            .maxMicros(30)
+            .statuses(Map.of("200", 2L, "404", 1L))
+            .build();
+    assertEquals(3, snapshot.size());
+    assertEquals(expectedGet, snapshot.get(0));
+    assertEquals("Controller.delete", snapshot.get(1).getHandler());
+    assertEquals(Map.of("599", 1L), snapshot.get(1).getStatuses());
+    assertEquals("Controller.post", snapshot.get(2).getHandler());
+    assertEquals(Map.of("201", 1L), snapshot.get(2).getStatuses());
+  }
+
+  @Test
+  public void statuses_out_of_range_are_counted_as_599() {
+    HandlerMetricsService.Handler handler = service.handler("h", key -> "h");
+    handler.record(1, 600);
+
+    assertEquals(Map.of("599", 1L), service.snapshot().get(0).getStatuses());
+  }
+
+  @Test
+  public void reset_forgets_everything() {
+    service.handler("h", key -> "h").record(1, 200);
+
+    service.reset();
+
+    assertEquals(List.of(), service.snapshot());
+  }
+
+  @Test
+  public void snapshot_reports_sql_statements_per_call() {
+    HandlerMetricsService.Handler handler = service.handler("h", key -> "h");
+    handler.record(10, 200);
+    handler.recordSql(2, 100);
+    handler.record(10, 200);
+    handler.recordSql(4, 300);
+
+    HandlerLatency latency = service.snapshot().get(0);
+
+    assertEquals(3.0, latency.getMeanSqlStatements());
+    assertEquals(4, latency.getMaxSqlStatements());
+    assertEquals(200.0, latency.getMeanDbMicros());
+  }
+
+  @Test
+  public void handlers_without_calls_report_no_sql() {
+    service.handler("h", key -> "h").recordSql(2, 100);
+
+    HandlerLatency latency = service.snapshot().get(0);
+
+    assertEquals(0.0, latency.getMeanSqlStatements());
+    assertEquals(0.0, latency.getMeanDbMicros());
+  }
+
+  @Test
+  public void sql_budget_is_not_checked_by_default() {
+    HandlerMetricsService.Handler handler = service.handler("h", key -> "h");
+
+    assertDoesNotThrow(() -> service.checkSqlBudget(handler, 1_000, 1_000));
+  }
+
+  @Test
+  public void calls_within_budget_pass() {
+    service.sqlBudget = 3;
+    service.sqlMaxRepeats = 2;
+    service.failOverBudget = true;
+
+    assertDoesNotThrow(() -> service.checkSqlBudget(service.handler("h", key -> "h"), 3, 2));
+  }
+
+  @Test
+  public void calls_over_budget_are_kept_when_configured() {
+    service.sqlBudget = 3;
+    service.sqlMaxRepeats = 2;
+    service.failOverBudget = true;
+    HandlerMetricsService.Handler handler = service.handler("h", key -> "Controller.get");
+
+    assertDoesNotThrow(() -> service.checkSqlBudget(handler, 4, 1));
+    assertDoesNotThrow(() -> service.checkSqlBudget(handler, 3, 3));
+
+    assertEquals(
+        List.of(
+            "Controller.get ran 4 SQL statements (budget 3)",
+            "Controller.get ran the same SQL statement 3 times in a row, a likely N+1 query"
+                + " (limit 2)"),
+        service.takeSqlBudgetViolations());
+    assertEquals(List.of(), service.takeSqlBudgetViolations());
+  }
+
+  @Test
+  public void at_most_100_calls_over_budget_are_kept() {
+    service.sqlBudget = 1;
+    service.failOverBudget = true;
+    HandlerMetricsService.Handler handler = service.handler("h", key -> "h");
+
+    for (int i = 0; i < 150; i++) {
+      service.checkSqlBudget(handler, 2, 1);
+    }
+
+    assertEquals(100, service.takeSqlBudgetViolations().size());
+  }
+
+  @Test
+  public void calls_over_budget_only_warn_by_default() {
+    service.sqlBudget = 3;
+
+    assertDoesNotThrow(() -> service.checkSqlBudget(service.handler("h", key -> "h"), 4, 1));
+    assertEquals(List.of(), service.takeSqlBudgetViolations());
+  }
+}
@@ -0,0 +1,72 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTests {
+
+  @Test
+  public void empty_histogram_reports_zeros() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0.0, histogram.getMean());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void small_values_are_exact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(50.5, histogram.getMean());
+    assertEquals(100, histogram.getMax());
+    assertEquals(1, histogram.getValueAtPercentile(0));
+    assertEquals(50, histogram.getValueAtPercentile(50));
+    assertEquals(99, histogram.getValueAtPercentile(99));
+    assertEquals(100, histogram.getValueAtPercentile(99.9));
+    assertEquals(100, histogram.getValueAtPercentile(150));
+  }
+
+  @Test
+  public void large_values_are_within_two_percent() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1_000; value <= 1_000_000; value += 1_000) {
+      histogram.record(value);
+    }
+
+    long p50 = histogram.getValueAtPercentile(50);
+    long p999 = histogram.getValueAtPercentile(99.9);
+    assertTrue(p50 >= 500_000 && p50 <= 510_000, "p50 was " + p50);
+    assertTrue(p999 >= 999_000 && p999 <= 1_000_000, "p99.9 was " + p999);
+  }
+
+  @Test
+  public void out_of_range_values_are_clamped() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+    assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void buckets_cover_every_value_exactly_once() {
+    long previousHighest = -1;
+    for (int index = 0; index <= LatencyHistogram.indexOf(LatencyHistogram.MAX_VALUE); index++) {
+      long highest = LatencyHistogram.highestEquivalentValue(index);
+      assertEquals(index, LatencyHistogram.indexOf(previousHighest + 1));
+      assertEquals(index, LatencyHistogram.indexOf(highest));
+      previousHighest = highest;
+    }
+    assertEquals(LatencyHistogram.MAX_VALUE, previousHighest);
+  }
+}
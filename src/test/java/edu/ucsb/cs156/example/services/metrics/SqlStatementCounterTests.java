@@ -0,0 +1,81 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SqlStatementCounterTests {
+
+  private final SqlStatementCounter counter = new SqlStatementCounter();
+
+  @BeforeEach
+  public void setup() {
+    SqlStatementCounter.resetRepeats();
+  }
+
+  @Test
+  public void inspect_counts_statements_and_leaves_them_unchanged() {
+    long before = SqlStatementCounter.statements();
+
+    assertEquals("select 1", counter.inspect("select 1"));
+    counter.inspect("select 2");
+
+    assertEquals(before + 2, SqlStatementCounter.statements());
+  }
+
+  @Test
+  public void longest_repeat_tracks_back_to_back_statements() {
+    counter.inspect("select a");
+    counter.inspect("select b where id=?");
+    counter.inspect("select b where id=?");
+    counter.inspect("select b where id=?");
+    counter.inspect("select a");
+    counter.inspect("select a");
+
+    assertEquals(3, SqlStatementCounter.longestRepeat());
+
+    SqlStatementCounter.resetRepeats();
+    counter.inspect("select a");
+    assertEquals(1, SqlStatementCounter.longestRepeat());
+  }
+
+  @Test
+  public void counts_are_per_thread() throws Exception {
+    long before = SqlStatementCounter.statements();
+    Thread other = new Thread(() -> counter.inspect("select 1"));
+    other.start();
+    other.join();
+
+    assertEquals(before, SqlStatementCounter.statements());
+  }
+
+  @Test
+  public void timing_listener_adds_execution_time() {
+    long[] now = {0};
+    SqlTimingListener listener = new SqlTimingListener(() -> now[0]);
+    long before = SqlStatementCounter.nanos();
+
+    now[0] = 100;
+    listener.jdbcExecuteStatementStart();
+    now[0] = 350;
+    listener.jdbcExecuteStatementEnd();
+    listener.jdbcExecuteBatchStart();
+    now[0] = 400;
+    listener.jdbcExecuteBatchEnd();
+
+    assertEquals(before + 300, SqlStatementCounter.nanos());
+  }
+
+  @Test
+  public void timing_listener_can_be_created_by_hibernate() {
+    SqlTimingListener listener = new SqlTimingListener();
+    long before = SqlStatementCounter.nanos();
+
+    listener.jdbcExecuteStatementStart();
+    listener.jdbcExecuteStatementEnd();
+
+    assertTrue(SqlStatementCounter.nanos() >= before);
+  }
+}
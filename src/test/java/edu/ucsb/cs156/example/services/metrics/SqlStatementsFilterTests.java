@@ -0,0 +1,43 @@
+package edu.ucsb.cs156.example.services.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class SqlStatementsFilterTests {
+
+  private final SqlStatementsFilter filter = new SqlStatementsFilter();
+
+  private final SqlStatementCounter counter = new SqlStatementCounter();
+
+  @Test
+  public void headers_count_statements_run_before_the_response_is_committed() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    FilterChain chain =
+        (req, res) -> {
+          counter.inspect("select 1");
+          counter.inspect("select 2");
+          res.getWriter().write("body");
+          res.flushBuffer();
+          counter.inspect("select 3");
+        };
+
+    filter.doFilter(new MockHttpServletRequest(), response, chain);
+
+    assertEquals("2", response.getHeader(SqlStatementsFilter.COUNT_HEADER));
+    assertEquals("0", response.getHeader(SqlStatementsFilter.TIME_HEADER));
+  }
+
+  @Test
+  public void headers_are_added_to_responses_that_were_never_committed() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    FilterChain chain = (req, res) -> counter.inspect("select 1");
+
+    filter.doFilter(new MockHttpServletRequest(), response, chain);
+
+    assertEquals("1", response.getHeader(SqlStatementsFilter.COUNT_HEADER));
+  }
+}
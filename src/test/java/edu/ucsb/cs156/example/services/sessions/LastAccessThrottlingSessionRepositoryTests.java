@@ -0,0 +1,94 @@
+package edu.ucsb.cs156.example.services.sessions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.ucsb.cs156.example.services.sessions.LastAccessThrottlingSessionRepository.ThrottledSession;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+
+public class LastAccessThrottlingSessionRepositoryTests {
+
+  private MapSessionRepository stored;
+  private LastAccessThrottlingSessionRepository<MapSession> repository;
+
+  @BeforeEach
+  public void setup() {
+    stored = new MapSessionRepository(new ConcurrentHashMap<>());
+    repository = new LastAccessThrottlingSessionRepository<>(stored, Duration.ofMinutes(1));
+  }
+
+  private ThrottledSession<MapSession> savedSession() {
+    ThrottledSession<MapSession> session = repository.createSession();
+    repository.save(session);
+    return repository.findById(session.getId());
+  }
+
+  @Test
+  public void accesses_within_the_interval_are_not_recorded() {
+    ThrottledSession<MapSession> session = savedSession();
+    Instant recorded = session.getLastAccessedTime();
+
+    session.setLastAccessedTime(recorded.plusSeconds(59));
+    repository.save(session);
+
+    assertEquals(recorded, stored.findById(session.getId()).getLastAccessedTime());
+  }
+
+  @Test
+  public void accesses_after_the_interval_are_recorded() {
+    ThrottledSession<MapSession> session = savedSession();
+    Instant later = session.getLastAccessedTime().plusSeconds(60);
+
+    session.setLastAccessedTime(later);
+    repository.save(session);
+
+    assertEquals(later, stored.findById(session.getId()).getLastAccessedTime());
+  }
+
+  @Test
+  public void a_zero_interval_records_every_access() {
+    repository = new LastAccessThrottlingSessionRepository<>(stored, Duration.ZERO);
+    ThrottledSession<MapSession> session = savedSession();
+    Instant later = session.getLastAccessedTime().plusMillis(1);
+
+    session.setLastAccessedTime(later);
+    repository.save(session);
+
+    assertEquals(later, stored.findById(session.getId()).getLastAccessedTime());
+  }
+
+  @Test
+  public void everything_else_is_passed_on() {
+    ThrottledSession<MapSession> session = savedSession();
+    String firstId = session.getId();
+
+    session.setAttribute("userId", 1L);
+    session.setAttribute("other", "value");
+    session.removeAttribute("other");
+    session.setMaxInactiveInterval(Duration.ofMinutes(5));
+    String newId = session.changeSessionId();
+    repository.save(session);
+
+    assertNotEquals(firstId, newId);
+    assertNull(repository.findById(firstId));
+    ThrottledSession<MapSession> loaded = repository.findById(newId);
+    assertEquals(newId, loaded.getId());
+    assertEquals(1L, (Long) loaded.getAttribute("userId"));
+    assertEquals(Set.of("userId"), loaded.getAttributeNames());
+    assertEquals(Duration.ofMinutes(5), loaded.getMaxInactiveInterval());
+    assertEquals(session.getCreationTime(), loaded.getCreationTime());
+    assertFalse(loaded.isExpired());
+
+    repository.deleteById(newId);
+    assertNull(repository.findById(newId));
+  }
+}
@@ -0,0 +1,91 @@
+package edu.ucsb.cs156.example.services.sessions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.util.List;
+import java.util.zip.ZipException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.core.serializer.support.SerializingConverter;
+
+public class SessionAttributeCodecTests {
+
+  private final SessionAttributeCodec codec =
+      new SessionAttributeCodec(getClass().getClassLoader());
+
+  // how spring-session-jdbc uses it, through springSessionConversionService
+  private final SerializingConverter encoder = new SerializingConverter(codec);
+  private final DeserializingConverter decoder = new DeserializingConverter(codec);
+
+  record Taco(String filling) implements Serializable {}
+
+  @Test
+  public void small_values_are_stored_plain() {
+    byte[] bytes = encoder.convert("taco");
+
+    assertEquals(SessionAttributeCodec.PLAIN, bytes[0]);
+    assertTrue(bytes.length < SessionAttributeCodec.DEFLATE_THRESHOLD);
+    assertEquals("taco", decoder.convert(bytes));
+  }
+
+  @Test
+  public void large_values_are_deflated() {
+    String large = "taco ".repeat(1000);
+
+    byte[] bytes = encoder.convert(large);
+
+    assertEquals(SessionAttributeCodec.DEFLATED, bytes[0]);
+    assertTrue(bytes.length < large.length() / 10);
+    assertEquals(large, decoder.convert(bytes));
+  }
+
+  @Test
+  public void collections_round_trip() {
+    List<Taco> value = List.of(new Taco("al pastor"), new Taco("carnitas"));
+
+    assertEquals(value, decoder.convert(encoder.convert(value)));
+  }
+
+  @Test
+  public void values_that_are_not_serializable_are_rejected() {
+    SerializationFailedException e =
+        assertThrows(SerializationFailedException.class, () -> encoder.convert(new Object()));
+    assertInstanceOf(NotSerializableException.class, e.getCause());
+  }
+
+  @Test
+  public void unknown_encodings_are_reported() {
+    SerializationFailedException e =
+        assertThrows(
+            SerializationFailedException.class, () -> decoder.convert(new byte[] {7, 1, 2}));
+    assertEquals("unknown session attribute encoding 7", e.getCause().getMessage());
+  }
+
+  @Test
+  public void corrupt_deflated_bytes_are_reported() {
+    SerializationFailedException e =
+        assertThrows(
+            SerializationFailedException.class,
+            () -> decoder.convert(new byte[] {SessionAttributeCodec.DEFLATED, 1, 2}));
+    assertInstanceOf(ZipException.class, e.getCause());
+  }
+
+  @Test
+  public void classes_the_class_loader_cannot_find_are_reported() {
+    byte[] bytes = encoder.convert(new Taco("carnitas"));
+    DeserializingConverter platformOnly =
+        new DeserializingConverter(new SessionAttributeCodec(ClassLoader.getPlatformClassLoader()));
+
+    SerializationFailedException e =
+        assertThrows(SerializationFailedException.class, () -> platformOnly.convert(bytes));
+    assertInstanceOf(IOException.class, e.getCause());
+    assertInstanceOf(ClassNotFoundException.class, e.getCause().getCause());
+  }
+}
@@ -0,0 +1,46 @@
+package edu.ucsb.cs156.example.testconfig;
+
+import edu.ucsb.cs156.example.services.metrics.HandlerMetricsService;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.TestExecutionListener;
+
+/**
+ * Fails a test whose requests went over the SQL budget, when {@code app.sql.failOverBudget} is set
+ * (as it is in the integration profile). The requests themselves get their usual responses; see
+ * {@link HandlerMetricsService#checkSqlBudget}.
+ */
+public class SqlBudgetTestExecutionListener implements TestExecutionListener, Ordered {
+
+  @Override
+  public int getOrder() {
+    // after the listeners that set up the test, so that its own setup is not blamed on it
+    return LOWEST_PRECEDENCE;
+  }
+
+  @Override
+  public void beforeTestMethod(TestContext testContext) {
+    metrics(testContext).ifPresent(HandlerMetricsService::takeSqlBudgetViolations);
+  }
+
+  @Override
+  public void afterTestMethod(TestContext testContext) {
+    List<String> violations =
+        metrics(testContext).map(HandlerMetricsService::takeSqlBudgetViolations).orElse(List.of());
+    if (!violations.isEmpty()) {
+      throw new AssertionError(
+          "Requests went over the SQL budget:\n  " + String.join("\n  ", violations));
+    }
+  }
+
+  private static Optional<HandlerMetricsService> metrics(TestContext testContext) {
+    if (!testContext.hasApplicationContext()) {
+      return Optional.empty();
+    }
+    ApplicationContext context = testContext.getApplicationContext();
+    return context.getBeanProvider(HandlerMetricsService.class).stream().findFirst();
+  }
+}
@@ -1,6 +1,7 @@
 package edu.ucsb.cs156.example.testconfig;
 
 import edu.ucsb.cs156.example.config.SecurityConfig;
+import edu.ucsb.cs156.example.services.AdminStatusService;
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -16,6 +17,11 @@ public class TestConfig {
     return new MockCurrentUserServiceImpl();
   }
 
+  @Bean
+  public AdminStatusService adminStatusService() {
+    return new AdminStatusService();
+  }
+
   @Bean
   public GrantedAuthoritiesService grantedAuthoritiesService() {
     return new GrantedAuthoritiesService();
@@ -9,4 +9,11 @@ export JDBC_DATABASE_URL=jdbc:postgresql://$(echo "$DATABASE_URL" | cut --delimi
 
 export JDBC_DATABASE_USERNAME=postgres
 
-java -jar $1
+# A jar built with "mvn -P production,startup package" has its bean definitions generated at build
+# time and a class data sharing archive next to it; see docs/startup.md
+ARCHIVE="$(dirname "$1")/app.jsa"
+if [ -f "$ARCHIVE" ]; then
+JAVA_OPTS="-XX:SharedArchiveFile=$ARCHIVE -Dspring.aot.enabled=true $JAVA_OPTS"
+fi
+
+java $JAVA_OPTS -jar $1